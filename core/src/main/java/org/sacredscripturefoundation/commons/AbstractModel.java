@@ -25,6 +25,7 @@ import java.io.Serializable;
  * This abstract class is the root for model objects.
  *
  * @author Paul Benedict
+ * @see BinaryCodecRegistry
  * @since 1.0
  */
 public class AbstractModel implements Serializable {
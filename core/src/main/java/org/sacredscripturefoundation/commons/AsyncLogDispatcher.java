@@ -0,0 +1,359 @@
+/*
+ * Copyright (c) 2015 Sacred Scripture Foundation.
+ * "All scripture is given by inspiration of God, and is profitable for
+ * doctrine, for reproof, for correction, for instruction in righteousness:
+ * That the man of God may be perfect, throughly furnished unto all good
+ * works." (2 Tim 3:16-17)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sacredscripturefoundation.commons;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+import org.apache.log4j.Level;
+
+/**
+ * This class hands formatted log events from the calling threads to a single
+ * background thread which writes them to Log4J. Callers only pay for
+ * formatting and an enqueue; the locked Log4J appenders are never contended by
+ * request threads.
+ * <p>
+ * Events are queued in a bounded, lock-free ring buffer. What happens when the
+ * buffer is full is decided by the {@link OverflowPolicy}; every discarded
+ * event is counted. Once {@link #close() closed}, the remaining events are
+ * drained and further events are written synchronously by the caller. Closing
+ * waits for producers already inside {@link #dispatch} so that no accepted
+ * event is left behind in the buffer.
+ * <p>
+ * Because events are written by another thread, Log4J location information
+ * and {@code MDC}/{@code NDC} values of the caller are not available to
+ * layouts.
+ *
+ * @author Paul Benedict
+ * @see Logger#setDispatcher(AsyncLogDispatcher)
+ * @since 1.0
+ */
+public class AsyncLogDispatcher implements AutoCloseable {
+
+    /**
+     * This enumeration defines the behavior of a full buffer.
+     */
+    public enum OverflowPolicy {
+
+        /**
+         * The caller waits until the buffer has room. No event is lost.
+         */
+        BLOCK,
+
+        /**
+         * The event is discarded.
+         */
+        DROP,
+
+        /**
+         * Events below the threshold level are discarded; the caller waits
+         * for all others.
+         */
+        DROP_BELOW_LEVEL
+
+    }
+
+    /**
+     * This class is a formatted event awaiting its write.
+     */
+    private static final class Event {
+
+        final org.apache.log4j.Logger log;
+        final Level level;
+        final String message;
+        final Throwable t;
+
+        Event(org.apache.log4j.Logger log, Level level, String message, Throwable t) {
+            this.log = log;
+            this.level = level;
+            this.message = message;
+            this.t = t;
+        }
+
+    }
+
+    /**
+     * The default number of events the buffer holds.
+     */
+    public static final int DEFAULT_CAPACITY = 8192;
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long FULL_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private static final String MSG_CAPACITY = "Capacity must be a positive power of two: %d";
+    private static final String MSG_POLICY_NULL = "Overflow policy is required";
+    private static final String MSG_THRESHOLD_NULL = "Threshold level is required";
+
+    private final OverflowPolicy policy;
+    private final Level threshold;
+    private final Event[] slots;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicInteger producers = new AtomicInteger();
+    private final Thread drainer;
+    private long head;
+    private volatile boolean closed;
+
+    /**
+     * Constructs a dispatcher of the {@link #DEFAULT_CAPACITY default capacity}
+     * which blocks when full.
+     *
+     * @see #AsyncLogDispatcher(int, OverflowPolicy)
+     */
+    public AsyncLogDispatcher() {
+        this(DEFAULT_CAPACITY, OverflowPolicy.BLOCK);
+    }
+
+    /**
+     * Constructs a dispatcher of the specified capacity and overflow policy.
+     * The threshold of {@link OverflowPolicy#DROP_BELOW_LEVEL} is
+     * {@link Level#WARN}.
+     *
+     * @param capacity the number of events the buffer holds; must be a power
+     * of two
+     * @param policy the overflow policy
+     * @throws IllegalArgumentException if the capacity is invalid
+     * @throws NullPointerException if the policy is {@code null}
+     * @see #AsyncLogDispatcher(int, OverflowPolicy, Level)
+     */
+    public AsyncLogDispatcher(int capacity, OverflowPolicy policy) {
+        this(capacity, policy, Level.WARN);
+    }
+
+    /**
+     * Constructs a dispatcher of the specified capacity, overflow policy and
+     * threshold level. The background thread is started immediately.
+     *
+     * @param capacity the number of events the buffer holds; must be a power
+     * of two
+     * @param policy the overflow policy
+     * @param threshold the lowest level that is never dropped under
+     * {@link OverflowPolicy#DROP_BELOW_LEVEL}
+     * @throws IllegalArgumentException if the capacity is invalid
+     * @throws NullPointerException if the policy or threshold is {@code null}
+     */
+    public AsyncLogDispatcher(int capacity, OverflowPolicy policy, Level threshold) {
+        if ((capacity < 1) || (Integer.bitCount(capacity) != 1)) {
+            throw new IllegalArgumentException(String.format(MSG_CAPACITY, capacity));
+        }
+        Objects.requireNonNull(policy, MSG_POLICY_NULL);
+        Objects.requireNonNull(threshold, MSG_THRESHOLD_NULL);
+        this.policy = policy;
+        this.threshold = threshold;
+        slots = new Event[capacity];
+        sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+        mask = capacity - 1;
+
+        drainer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                drain();
+            }
+        }, "AsyncLogDispatcher");
+        drainer.setDaemon(true);
+        drainer.start();
+    }
+
+    /**
+     * Stops accepting events, waits for the background thread to finish, and
+     * writes the events still buffered, including those of producers which
+     * were publishing while the dispatcher closed. Events dispatched afterwards
+     * are written synchronously. An interrupt does not cut the drain short; the
+     * interrupt status is restored on return.
+     */
+    @Override
+    public synchronized void close() {
+        closed = true;
+        LockSupport.unpark(drainer);
+        boolean interrupted = false;
+        while (drainer.isAlive()) {
+            try {
+                drainer.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+
+        // The background thread has ended; this thread is now the consumer.
+        // Keep draining so blocked producers get room, until none is left
+        // inside dispatch() and every claimed slot has been written.
+        for (;;) {
+            boolean idle = (producers.get() == 0);
+            Event event;
+            while ((event = poll()) != null) {
+                write(event);
+            }
+            if (idle && (head == tail.get())) {
+                break;
+            }
+            LockSupport.parkNanos(FULL_PARK_NANOS);
+        }
+
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Enqueues the specified event for writing, applying the overflow policy
+     * if the buffer is full.
+     *
+     * @param log the Log4J logger to write to
+     * @param level the event level
+     * @param message the formatted message
+     * @param t the throwable or {@code null}
+     * @return {@code true} if the event was enqueued or written;
+     * {@code false} if it was dropped
+     */
+    public boolean dispatch(org.apache.log4j.Logger log, Level level, String message, Throwable t) {
+        // Registering before reading the flag means close() either sees this
+        // producer and waits for it, or this producer sees the flag
+        producers.incrementAndGet();
+        try {
+            if (closed) {
+                log.log(level, message, t);
+                return true;
+            }
+
+            Event event = new Event(log, level, message, t);
+            if (offer(event)) {
+                return true;
+            }
+
+            if ((policy == OverflowPolicy.DROP) || ((policy == OverflowPolicy.DROP_BELOW_LEVEL) && !level.isGreaterOrEqual(threshold))) {
+                dropped.incrementAndGet();
+                return false;
+            }
+
+            // Wait for the background thread (or close()) to make room
+            while (!offer(event)) {
+                LockSupport.parkNanos(FULL_PARK_NANOS);
+            }
+            return true;
+        } finally {
+            producers.decrementAndGet();
+        }
+    }
+
+    /**
+     * Writes buffered events until closed. Runs on the background thread only.
+     */
+    private void drain() {
+        while (!closed) {
+            Event event = poll();
+            if (event != null) {
+                write(event);
+            } else {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+        }
+    }
+
+    /**
+     * Retrieves the number of events discarded by the overflow policy or lost
+     * to appender failures.
+     *
+     * @return the count of dropped events
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * Retrieves the overflow policy of this dispatcher.
+     *
+     * @return the policy
+     */
+    public OverflowPolicy getOverflowPolicy() {
+        return policy;
+    }
+
+    /**
+     * Attempts to claim a slot and publish the specified event. Each slot
+     * carries a sequence number which tells producers whether the slot is free
+     * for the current lap of the ring.
+     *
+     * @param event the event
+     * @return {@code true} if published; {@code false} if the buffer is full
+     */
+    private boolean offer(Event event) {
+        long pos = tail.get();
+        for (;;) {
+            int index = (int) pos & mask;
+            long diff = sequences.get(index) - pos;
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    slots[index] = event;
+                    // Publishing the sequence releases the slot to the consumer
+                    sequences.lazySet(index, pos + 1);
+                    return true;
+                }
+                pos = tail.get();
+            } else if (diff < 0) {
+                return false;
+            } else {
+                pos = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Takes the next published event, if any. Runs on the background thread,
+     * or on the closing thread once the background thread has ended.
+     *
+     * @return the event or {@code null} if the buffer is empty
+     */
+    private Event poll() {
+        int index = (int) head & mask;
+        if (sequences.get(index) != head + 1) {
+            return null;
+        }
+        Event event = slots[index];
+        slots[index] = null;
+        // Free the slot for the producers of the next lap
+        sequences.lazySet(index, head + slots.length);
+        head++;
+        return event;
+    }
+
+    /**
+     * Writes the specified event to Log4J.
+     *
+     * @param event the event
+     */
+    private void write(Event event) {
+        try {
+            event.log.log(event.level, event.message, event.t);
+        } catch (RuntimeException e) {
+            // An appender failure must not stop the background thread
+            dropped.incrementAndGet();
+        }
+    }
+
+}
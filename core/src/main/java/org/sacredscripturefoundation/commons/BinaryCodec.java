@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2015 Sacred Scripture Foundation.
+ * "All scripture is given by inspiration of God, and is profitable for
+ * doctrine, for reproof, for correction, for instruction in righteousness:
+ * That the man of God may be perfect, throughly furnished unto all good
+ * works." (2 Tim 3:16-17)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sacredscripturefoundation.commons;
+
+import java.io.IOException;
+
+/**
+ * This interface defines the compact binary form of a type, as registered with
+ * a {@link BinaryCodecRegistry}. Fields are written and read in a fixed order
+ * without names or type information.
+ * <p>
+ * To remain compatible with payloads written by other versions, fields may
+ * only be appended. A decoder must check {@link BinaryReader#hasRemaining()}
+ * before reading a field added by a later version, and any trailing fields it
+ * does not know are skipped.
+ *
+ * @param <T> the encoded type
+ * @author Paul Benedict
+ * @see ServiceRequestMessage
+ * @see AbstractModel
+ * @since 1.0
+ */
+public interface BinaryCodec<T> {
+
+    /**
+     * Reconstructs a value from its fields.
+     *
+     * @param in the source of the fields
+     * @return the decoded value
+     * @throws IOException if the fields are malformed or truncated
+     * @throws ClassNotFoundException if a nested serialized class is missing
+     */
+    T decode(BinaryReader in) throws IOException, ClassNotFoundException;
+
+    /**
+     * Writes the fields of the specified value.
+     *
+     * @param value the value to encode; never {@code null}
+     * @param out the destination of the fields
+     * @throws IOException if a nested value cannot be encoded
+     */
+    void encode(T value, BinaryWriter out) throws IOException;
+
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2015 Sacred Scripture Foundation.
+ * "All scripture is given by inspiration of God, and is profitable for
+ * doctrine, for reproof, for correction, for instruction in righteousness:
+ * That the man of God may be perfect, throughly furnished unto all good
+ * works." (2 Tim 3:16-17)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sacredscripturefoundation.commons;
+
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * This class encodes objects to a compact binary form by their registered
+ * {@link BinaryCodec codecs}, and falls back to Java serialization for the
+ * types without one. It is intended for {@link ServiceRequestMessage} and
+ * {@link AbstractModel} subclasses which are exchanged between tiers or
+ * replicated in sessions.
+ * <p>
+ * Each type is registered under a tag which, unlike the class name, must stay
+ * the same across versions. Numbers are written as variable-length integers
+ * and each distinct string is written once per payload. Only trusted payloads
+ * should be decoded since the fallback deserializes arbitrary classes.
+ * <p>
+ * Registration is thread-safe, but is meant to be completed before use.
+ *
+ * @author Paul Benedict
+ * @see BinaryWriter
+ * @see BinaryReader
+ * @since 1.0
+ */
+public class BinaryCodecRegistry {
+
+    /**
+     * This class is the codec of a type and its tag.
+     */
+    static final class Registration<T> {
+
+        final int tag;
+        final Class<T> type;
+        final BinaryCodec<T> codec;
+
+        Registration(int tag, Class<T> type, BinaryCodec<T> codec) {
+            this.tag = tag;
+            this.type = type;
+            this.codec = codec;
+        }
+
+    }
+
+    static final byte FORMAT_VERSION = 1;
+    static final int NULL_HEADER = 0;
+    static final int SERIALIZED_HEADER = 1;
+    static final int CODEC_HEADER_OFFSET = 2;
+
+    private static final String MSG_NEGATIVE_TAG = "Tag cannot be negative: %d";
+    private static final String MSG_DUPLICATE_TAG = "Tag %d is already registered to %s";
+    private static final String MSG_DUPLICATE_TYPE = "Type %s is already registered";
+    private static final String MSG_UNEXPECTED_TYPE = "Expected %s but decoded %s";
+
+    private final ConcurrentMap<Class<?>, Registration<?>> typeRegistrations = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Integer, Registration<?>> tagRegistrations = new ConcurrentHashMap<>();
+
+    /**
+     * Decodes the object of the specified payload.
+     *
+     * @param bytes the payload
+     * @return the decoded object; may be {@code null}
+     * @throws IOException if the payload is malformed
+     * @throws ClassNotFoundException if a serialized class is missing
+     * @throws NullPointerException if the payload is {@code null}
+     * @see #encode(Object)
+     */
+    public Object decode(byte[] bytes) throws IOException, ClassNotFoundException {
+        return new BinaryReader(this, bytes).readObject();
+    }
+
+    /**
+     * Decodes the object of the specified payload as the specified type.
+     *
+     * @param <T> the expected type
+     * @param bytes the payload
+     * @param type the expected type
+     * @return the decoded object; may be {@code null}
+     * @throws IOException if the payload is malformed or not of the type
+     * @throws ClassNotFoundException if a serialized class is missing
+     * @throws NullPointerException if any argument is {@code null}
+     * @see #decode(byte[])
+     */
+    public <T> T decode(byte[] bytes, Class<T> type) throws IOException, ClassNotFoundException {
+        Objects.requireNonNull(type);
+        Object value = decode(bytes);
+        if ((value != null) && !type.isInstance(value)) {
+            throw new StreamCorruptedException(String.format(MSG_UNEXPECTED_TYPE, type.getName(), value.getClass().getName()));
+        }
+        return type.cast(value);
+    }
+
+    /**
+     * Encodes the specified object. An object without a registered codec must
+     * be serializable.
+     *
+     * @param value the object to encode; may be {@code null}
+     * @return the payload
+     * @throws IOException if the object cannot be encoded
+     * @see #decode(byte[])
+     */
+    public byte[] encode(Object value) throws IOException {
+        BinaryWriter out = new BinaryWriter(this);
+        out.writeObject(value);
+        return out.toByteArray();
+    }
+
+    /**
+     * Registers the codec of the specified type. The type must match exactly;
+     * subclasses require their own registration.
+     *
+     * @param <T> the encoded type
+     * @param tag the stable identifier of the type in payloads
+     * @param type the encoded type
+     * @param codec the codec
+     * @throws IllegalArgumentException if the tag is negative
+     * @throws IllegalStateException if the tag or type is already registered
+     * @throws NullPointerException if the type or codec is {@code null}
+     */
+    public <T> void register(int tag, Class<T> type, BinaryCodec<T> codec) {
+        if (tag < 0) {
+            throw new IllegalArgumentException(String.format(MSG_NEGATIVE_TAG, tag));
+        }
+        Objects.requireNonNull(type);
+        Objects.requireNonNull(codec);
+
+        Registration<T> registration = new Registration<>(tag, type, codec);
+        Registration<?> existing = tagRegistrations.putIfAbsent(tag, registration);
+        if (existing != null) {
+            throw new IllegalStateException(String.format(MSG_DUPLICATE_TAG, tag, existing.type.getName()));
+        }
+        if (typeRegistrations.putIfAbsent(type, registration) != null) {
+            tagRegistrations.remove(tag);
+            throw new IllegalStateException(String.format(MSG_DUPLICATE_TYPE, type.getName()));
+        }
+    }
+
+    /**
+     * Retrieves the registration of the specified type.
+     *
+     * @param type the type
+     * @return the registration or {@code null}
+     */
+    Registration<?> registration(Class<?> type) {
+        return typeRegistrations.get(type);
+    }
+
+    /**
+     * Retrieves the registration of the specified tag.
+     *
+     * @param tag the tag
+     * @return the registration or {@code null}
+     */
+    Registration<?> registration(int tag) {
+        return tagRegistrations.get(tag);
+    }
+
+}
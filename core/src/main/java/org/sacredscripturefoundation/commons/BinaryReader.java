@@ -0,0 +1,266 @@
+/*
+ * Copyright (c) 2015 Sacred Scripture Foundation.
+ * "All scripture is given by inspiration of God, and is profitable for
+ * doctrine, for reproof, for correction, for instruction in righteousness:
+ * That the man of God may be perfect, throughly furnished unto all good
+ * works." (2 Tim 3:16-17)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sacredscripturefoundation.commons;
+
+import org.sacredscripturefoundation.commons.BinaryCodecRegistry.Registration;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.StreamCorruptedException;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+/**
+ * This class reads the fields of a payload for a {@link BinaryCodec}. The
+ * fields must be read in the order they were written. Strings of the table are
+ * decoded only when first read.
+ * <p>
+ * Instances are created by {@link BinaryCodecRegistry#decode(byte[])} and are
+ * not thread-safe.
+ *
+ * @author Paul Benedict
+ * @see BinaryWriter
+ * @since 1.0
+ */
+public final class BinaryReader {
+
+    private static final String MSG_UNSUPPORTED_VERSION = "Unsupported format version: %d";
+    private static final String MSG_MALFORMED_VARINT = "Malformed variable-length integer";
+    private static final String MSG_UNKNOWN_STRING = "Unknown string index: %d";
+    private static final String MSG_UNKNOWN_TAG = "Unknown codec tag: %d";
+
+    private final BinaryCodecRegistry registry;
+    private final byte[] buffer;
+    private final int[] stringOffsets;
+    private final String[] strings;
+    private int position;
+    private int limit;
+
+    /**
+     * Constructs a new reader of the specified payload and indexes its string
+     * table.
+     *
+     * @param registry the codecs of nested objects
+     * @param bytes the payload
+     * @throws IOException if the payload is malformed
+     * @throws NullPointerException if the payload is {@code null}
+     */
+    BinaryReader(BinaryCodecRegistry registry, byte[] bytes) throws IOException {
+        Objects.requireNonNull(bytes);
+        this.registry = registry;
+        buffer = bytes;
+        limit = bytes.length;
+
+        require(1);
+        byte version = buffer[position++];
+        if (version != BinaryCodecRegistry.FORMAT_VERSION) {
+            throw new StreamCorruptedException(String.format(MSG_UNSUPPORTED_VERSION, version));
+        }
+
+        int count = readLength();
+        stringOffsets = new int[count];
+        strings = new String[count];
+        for (int i = 0; i < count; i++) {
+            stringOffsets[i] = position;
+            int length = readLength();
+            require(length);
+            position += length;
+        }
+    }
+
+    /**
+     * Determines whether the current object has more fields. Decoders should
+     * check before reading the fields appended in later versions.
+     *
+     * @return {@code true} if more fields remain; otherwise {@code false}
+     */
+    public boolean hasRemaining() {
+        return position < limit;
+    }
+
+    /**
+     * Reads a boolean field.
+     *
+     * @return the value
+     * @throws IOException if the field is missing
+     */
+    public boolean readBoolean() throws IOException {
+        require(1);
+        return buffer[position++] != 0;
+    }
+
+    /**
+     * Reads a double field.
+     *
+     * @return the value
+     * @throws IOException if the field is missing
+     */
+    public double readDouble() throws IOException {
+        require(8);
+        long bits = 0;
+        for (int i = 0; i < 8; i++) {
+            bits = (bits << 8) | (buffer[position++] & 0xFF);
+        }
+        return Double.longBitsToDouble(bits);
+    }
+
+    /**
+     * Reads an int field.
+     *
+     * @return the value
+     * @throws IOException if the field is missing or malformed
+     */
+    public int readInt() throws IOException {
+        int value = (int) readVarLong();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Reads an unsigned length.
+     *
+     * @return the length
+     * @throws IOException if the length is missing or malformed
+     */
+    private int readLength() throws IOException {
+        long length = readVarLong();
+        if ((length < 0) || (length > Integer.MAX_VALUE)) {
+            throw new StreamCorruptedException(MSG_MALFORMED_VARINT);
+        }
+        return (int) length;
+    }
+
+    /**
+     * Reads a long field.
+     *
+     * @return the value
+     * @throws IOException if the field is missing or malformed
+     */
+    public long readLong() throws IOException {
+        long value = readVarLong();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Reads a nested object field. Any trailing fields unknown to the codec of
+     * the object are skipped.
+     *
+     * @return the object; may be {@code null}
+     * @throws IOException if the field is missing or malformed
+     * @throws ClassNotFoundException if a serialized class is missing
+     * @see BinaryWriter#writeObject(Object)
+     */
+    public Object readObject() throws IOException, ClassNotFoundException {
+        long header = readVarLong();
+        if (header == BinaryCodecRegistry.NULL_HEADER) {
+            return null;
+        }
+
+        int length = readLength();
+        require(length);
+        int end = position + length;
+        if (header == BinaryCodecRegistry.SERIALIZED_HEADER) {
+            try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(buffer, position, length))) {
+                return in.readObject();
+            } finally {
+                position = end;
+            }
+        }
+
+        long tag = header - BinaryCodecRegistry.CODEC_HEADER_OFFSET;
+        Registration<?> registration = (tag <= Integer.MAX_VALUE) ? registry.registration((int) tag) : null;
+        if (registration == null) {
+            throw new StreamCorruptedException(String.format(MSG_UNKNOWN_TAG, tag));
+        }
+
+        int outerLimit = limit;
+        limit = end;
+        try {
+            return registration.codec.decode(this);
+        } finally {
+            limit = outerLimit;
+            position = end;
+        }
+    }
+
+    /**
+     * Reads a string field.
+     *
+     * @return the string; may be {@code null}
+     * @throws IOException if the field is missing or malformed
+     */
+    public String readString() throws IOException {
+        long reference = readVarLong();
+        if (reference == 0) {
+            return null;
+        }
+        if ((reference < 0) || (reference > strings.length)) {
+            throw new StreamCorruptedException(String.format(MSG_UNKNOWN_STRING, reference));
+        }
+
+        int index = (int) reference - 1;
+        String value = strings[index];
+        if (value == null) {
+            int fieldPosition = position;
+            int fieldLimit = limit;
+            position = stringOffsets[index];
+            limit = buffer.length;
+            int length = readLength();
+            value = new String(buffer, position, length, StandardCharsets.UTF_8);
+            strings[index] = value;
+            position = fieldPosition;
+            limit = fieldLimit;
+        }
+        return value;
+    }
+
+    /**
+     * Reads an unsigned variable-length integer of seven bits per byte.
+     *
+     * @return the value
+     * @throws IOException if the integer is missing or malformed
+     */
+    private long readVarLong() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            require(1);
+            byte b = buffer[position++];
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new StreamCorruptedException(MSG_MALFORMED_VARINT);
+    }
+
+    /**
+     * Ensures the specified number of bytes remain in the current object.
+     *
+     * @param size the number of bytes
+     * @throws EOFException if too few bytes remain
+     */
+    private void require(int size) throws EOFException {
+        if (limit - position < size) {
+            throw new EOFException();
+        }
+    }
+
+}
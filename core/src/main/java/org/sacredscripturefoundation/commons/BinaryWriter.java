@@ -0,0 +1,258 @@
+/*
+ * Copyright (c) 2015 Sacred Scripture Foundation.
+ * "All scripture is given by inspiration of God, and is profitable for
+ * doctrine, for reproof, for correction, for instruction in righteousness:
+ * That the man of God may be perfect, throughly furnished unto all good
+ * works." (2 Tim 3:16-17)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sacredscripturefoundation.commons;
+
+import org.sacredscripturefoundation.commons.BinaryCodecRegistry.Registration;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class writes the fields of a payload for a {@link BinaryCodec}.
+ * Integers are zigzag encoded as variable-length integers, so small values of
+ * either sign take a single byte. Strings are collected into a table that
+ * precedes the fields, and each field refers to its string by index.
+ * <p>
+ * Instances are created by {@link BinaryCodecRegistry#encode(Object)} and are
+ * not thread-safe.
+ *
+ * @author Paul Benedict
+ * @see BinaryReader
+ * @since 1.0
+ */
+public final class BinaryWriter {
+
+    private static final int INITIAL_CAPACITY = 64;
+    private static final int MAX_VARINT_SIZE = 10;
+
+    /**
+     * Puts an unsigned variable-length integer of seven bits per byte into the
+     * specified array, which must have room.
+     *
+     * @param dest the destination array
+     * @param offset the position in the array
+     * @param value the value
+     * @return the position after the integer
+     */
+    private static int putVarLong(byte[] dest, int offset, long value) {
+        while ((value & ~0x7FL) != 0) {
+            dest[offset++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        dest[offset++] = (byte) value;
+        return offset;
+    }
+
+    /**
+     * Computes the number of bytes of the specified unsigned variable-length
+     * integer.
+     *
+     * @param value the value
+     * @return the size in bytes
+     */
+    private static int varLongSize(long value) {
+        int size = 1;
+        while ((value & ~0x7FL) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+
+    private final BinaryCodecRegistry registry;
+    private final Map<String, Integer> stringIndex = new HashMap<>();
+    private final List<String> strings = new ArrayList<>();
+    private byte[] buffer = new byte[INITIAL_CAPACITY];
+    private int position;
+
+    /**
+     * Constructs a new writer.
+     *
+     * @param registry the codecs of nested objects
+     */
+    BinaryWriter(BinaryCodecRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Grows the buffer, if necessary, to hold the specified number of more
+     * bytes.
+     *
+     * @param size the number of bytes
+     */
+    private void ensureCapacity(int size) {
+        if (position + size > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length << 1, position + size));
+        }
+    }
+
+    /**
+     * Shifts the bytes written since the specified position so as to precede
+     * them by their length.
+     *
+     * @param start the starting position
+     */
+    private void prefixLength(int start) {
+        int length = position - start;
+        int size = varLongSize(length);
+        ensureCapacity(size);
+        System.arraycopy(buffer, start, buffer, start + size, length);
+        putVarLong(buffer, start, length);
+        position += size;
+    }
+
+    /**
+     * Assembles the payload from the string table and the fields.
+     *
+     * @return the payload
+     */
+    byte[] toByteArray() {
+        byte[][] encoded = new byte[strings.size()][];
+        int size = 1 + varLongSize(encoded.length) + position;
+        for (int i = 0; i < encoded.length; i++) {
+            encoded[i] = strings.get(i).getBytes(StandardCharsets.UTF_8);
+            size += varLongSize(encoded[i].length) + encoded[i].length;
+        }
+
+        byte[] payload = new byte[size];
+        payload[0] = BinaryCodecRegistry.FORMAT_VERSION;
+        int offset = putVarLong(payload, 1, encoded.length);
+        for (byte[] bytes : encoded) {
+            offset = putVarLong(payload, offset, bytes.length);
+            System.arraycopy(bytes, 0, payload, offset, bytes.length);
+            offset += bytes.length;
+        }
+        System.arraycopy(buffer, 0, payload, offset, position);
+        return payload;
+    }
+
+    /**
+     * Writes a boolean field.
+     *
+     * @param value the value
+     */
+    public void writeBoolean(boolean value) {
+        ensureCapacity(1);
+        buffer[position++] = (byte) (value ? 1 : 0);
+    }
+
+    /**
+     * Writes a double field in eight bytes.
+     *
+     * @param value the value
+     */
+    public void writeDouble(double value) {
+        long bits = Double.doubleToRawLongBits(value);
+        ensureCapacity(8);
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            buffer[position++] = (byte) (bits >>> shift);
+        }
+    }
+
+    /**
+     * Writes an int field as a zigzag variable-length integer.
+     *
+     * @param value the value
+     */
+    public void writeInt(int value) {
+        writeVarLong(((value << 1) ^ (value >> 31)) & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Writes a long field as a zigzag variable-length integer.
+     *
+     * @param value the value
+     */
+    public void writeLong(long value) {
+        writeVarLong((value << 1) ^ (value >> 63));
+    }
+
+    /**
+     * Writes a nested object field. The object is written by its registered
+     * codec; otherwise it is serialized.
+     *
+     * @param value the object; may be {@code null}
+     * @throws IOException if the object cannot be encoded
+     * @see BinaryReader#readObject()
+     */
+    public void writeObject(Object value) throws IOException {
+        if (value == null) {
+            writeVarLong(BinaryCodecRegistry.NULL_HEADER);
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        Registration<Object> registration = (Registration<Object>) registry.registration(value.getClass());
+        if (registration == null) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+                out.writeObject(value);
+            }
+            writeVarLong(BinaryCodecRegistry.SERIALIZED_HEADER);
+            writeVarLong(bytes.size());
+            ensureCapacity(bytes.size());
+            System.arraycopy(bytes.toByteArray(), 0, buffer, position, bytes.size());
+            position += bytes.size();
+            return;
+        }
+
+        writeVarLong((long) registration.tag + BinaryCodecRegistry.CODEC_HEADER_OFFSET);
+        int start = position;
+        registration.codec.encode(value, this);
+        prefixLength(start);
+    }
+
+    /**
+     * Writes a string field. Repeated strings are written only once.
+     *
+     * @param value the string; may be {@code null}
+     */
+    public void writeString(String value) {
+        if (value == null) {
+            writeVarLong(0);
+            return;
+        }
+        Integer index = stringIndex.get(value);
+        if (index == null) {
+            index = strings.size();
+            stringIndex.put(value, index);
+            strings.add(value);
+        }
+        writeVarLong(index + 1L);
+    }
+
+    /**
+     * Writes an unsigned variable-length integer of seven bits per byte.
+     *
+     * @param value the value
+     */
+    private void writeVarLong(long value) {
+        ensureCapacity(MAX_VARINT_SIZE);
+        position = putVarLong(buffer, position, value);
+    }
+
+}
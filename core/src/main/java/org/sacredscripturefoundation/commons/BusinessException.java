@@ -19,15 +19,27 @@
  */
 package org.sacredscripturefoundation.commons;
 
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+
 /**
  * This abstract class is the root for all business exceptions. Business
  * exceptions do not roll back a transaction.
+ * <p>
+ * Business exceptions are often thrown on ordinary paths, such as an unknown
+ * identifier. Subclasses may offer a lightweight variant for such paths,
+ * through {@link #BusinessException(boolean, String, Object...)}, which
+ * captures no stack trace and formats its message only when first retrieved,
+ * which many callers never do.
  *
  * @author Paul Benedict
  * @since 1.0
  */
 public abstract class BusinessException extends RuntimeException {
 
+    private transient Object[] args;
+    private String formattedMessage;
+
     /**
      * Constructs a new business exception.
      */
@@ -57,11 +69,36 @@ public abstract class BusinessException extends RuntimeException {
      * @see #BusinessException()
      * @see #BusinessException(String)
      * @see #BusinessException(Throwable)
+     * @see #BusinessException(boolean, String, Object...)
      */
     public BusinessException(String message, Object... args) {
         super(String.format(message, args));
     }
 
+    /**
+     * Constructs a new lightweight exception with the specified message
+     * template and arguments, optionally without a stack trace. Without one,
+     * suppressed exceptions are disabled as well; such exceptions are much
+     * cheaper to throw and are intended for expected outcomes which are
+     * handled by the caller.
+     * <p>
+     * Unlike {@link #BusinessException(String, Object...)}, the message is
+     * formatted when first retrieved. The arguments are therefore retained by
+     * reference and report their state at that time: pass immutable values,
+     * such as identifiers, rather than entities whose persistence context may
+     * have closed. A template that cannot be formatted is not detected here;
+     * the raw template is then the message.
+     *
+     * @param writableStackTrace whether or not the stack trace is captured
+     * @param message the message template
+     * @param args the message arguments
+     * @see #BusinessException(String, Object...)
+     */
+    protected BusinessException(boolean writableStackTrace, String message, Object... args) {
+        super(message, null, writableStackTrace, writableStackTrace);
+        this.args = args;
+    }
+
     /**
      * Constructs a new business exception with the specified root cause.
      *
@@ -74,4 +111,44 @@ public abstract class BusinessException extends RuntimeException {
         super(cause);
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The message template of a
+     * {@link #BusinessException(boolean, String, Object...) lightweight
+     * exception} is formatted with its arguments on the first invocation, and
+     * the result is reused thereafter. If formatting fails, whether the
+     * template does not match its arguments or an argument cannot be
+     * converted to a string, the raw template is returned instead, so that the
+     * message never hides the exception being reported.
+     */
+    @Override
+    public String getMessage() {
+        String message = formattedMessage;
+        if (message == null) {
+            message = super.getMessage();
+            if ((message != null) && (args != null)) {
+                try {
+                    message = String.format(message, args);
+                } catch (RuntimeException e) {
+                    // Fall back to the raw template
+                }
+                formattedMessage = message;
+            }
+        }
+        return message;
+    }
+
+    /**
+     * Formats the message before serialization since the arguments are not
+     * required to be serializable.
+     *
+     * @param out the stream
+     * @throws IOException if an I/O error occurs
+     */
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        formattedMessage = getMessage();
+        out.defaultWriteObject();
+    }
+
 }
@@ -0,0 +1,397 @@
+/*
+ * Copyright (c) 2015 Sacred Scripture Foundation.
+ * "All scripture is given by inspiration of God, and is profitable for
+ * doctrine, for reproof, for correction, for instruction in righteousness:
+ * That the man of God may be perfect, throughly furnished unto all good
+ * works." (2 Tim 3:16-17)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sacredscripturefoundation.commons;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * This class is an immutable index of {@link Coded} objects for resolution by
+ * code in constant time, without iterating and comparing each code.
+ * <p>
+ * Larger sets are indexed by a perfect hash of the codes, so every lookup
+ * inspects exactly one slot. Small sets, and sets whose codes share hash
+ * codes, are instead kept sorted by hash code and binary searched. Integer
+ * codes can be resolved without boxing through {@link #get(int)}, and string
+ * codes can be matched without regard to case and without allocation.
+ * Instances are thread-safe.
+ *
+ * @param <C> the code type
+ * @param <T> the coded type
+ * @author Paul Benedict
+ * @since 1.0
+ */
+public final class CodedRegistry<C, T extends Coded<C>> {
+
+    /**
+     * The largest set which is binary searched rather than perfectly hashed.
+     */
+    static final int MAX_SORTED_SIZE = 16;
+
+    /**
+     * This class holds the index under construction.
+     */
+    private static final class Table {
+
+        final int[] hashes;
+        final Object[] codes;
+        final Object[] values;
+        int[] displacements;
+
+        Table(int length) {
+            hashes = new int[length];
+            codes = new Object[length];
+            values = new Object[length];
+        }
+
+    }
+
+    private static final int MAX_DISPLACEMENT = 1 << 16;
+    private static final int BUCKET_SIZE = 4;
+
+    private static final String MSG_CODE_NULL = "Code cannot be null: %s";
+    private static final String MSG_DUPLICATE_CODE = "Duplicate code: %s";
+    private static final String MSG_NOT_INT_CODES = "Codes are not integers";
+
+    /**
+     * Constructs a new registry of the specified coded objects. When every code
+     * is an {@code Integer}, the registry supports {@link #get(int)}; so does
+     * an empty registry, whose code type is unknown.
+     *
+     * @param <C> the code type
+     * @param <T> the coded type
+     * @param coded the coded objects
+     * @return the registry
+     * @throws IllegalArgumentException if any codes are duplicates
+     * @throws NullPointerException if any object or code is {@code null}
+     * @see #ofIgnoreCase(Collection)
+     */
+    public static <C, T extends Coded<C>> CodedRegistry<C, T> of(Collection<? extends T> coded) {
+        boolean intCodes = !coded.isEmpty();
+        for (T t : coded) {
+            intCodes &= (t.getCode() instanceof Integer);
+        }
+        return new CodedRegistry<>(coded, false, intCodes);
+    }
+
+    /**
+     * Constructs a new registry of the specified objects with string codes
+     * that are matched without regard to case, as
+     * {@link String#equalsIgnoreCase(String)}.
+     *
+     * @param <T> the coded type
+     * @param coded the coded objects
+     * @return the registry
+     * @throws IllegalArgumentException if any codes are duplicates ignoring case
+     * @throws NullPointerException if any object or code is {@code null}
+     * @see #of(Collection)
+     */
+    public static <T extends Coded<String>> CodedRegistry<String, T> ofIgnoreCase(Collection<? extends T> coded) {
+        return new CodedRegistry<>(coded, true, false);
+    }
+
+    /**
+     * Computes the case-insensitive hash code of the specified string,
+     * consistent with {@link String#equalsIgnoreCase(String)}.
+     *
+     * @param s the string
+     * @return the hash code
+     */
+    private static int hashIgnoreCase(String s) {
+        int h = 0;
+        for (int i = 0; i < s.length(); i++) {
+            h = 31 * h + Character.toLowerCase(Character.toUpperCase(s.charAt(i)));
+        }
+        return h;
+    }
+
+    /**
+     * Scrambles the specified hash code with the specified seed.
+     *
+     * @param h the hash code
+     * @param seed the seed
+     * @return the scrambled hash code
+     */
+    private static int mix(int h, int seed) {
+        h ^= seed * 0x9E3779B9;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        return h ^ (h >>> 16);
+    }
+
+    private final boolean ignoreCase;
+    private final boolean intCodes;
+    private final int size;
+    private final int[] hashes;
+    private final Object[] codes;
+    private final Object[] values;
+    private final int[] displacements;
+
+    /**
+     * Constructs a new registry.
+     *
+     * @param coded the coded objects
+     * @param ignoreCase whether or not string codes ignore case
+     * @param intCodes whether or not the codes are integers
+     */
+    private CodedRegistry(Collection<? extends T> coded, boolean ignoreCase, boolean intCodes) {
+        this.ignoreCase = ignoreCase;
+        this.intCodes = intCodes;
+        size = coded.size();
+
+        List<T> list = new ArrayList<>(coded);
+        int[] keyHashes = new int[size];
+        for (int i = 0; i < size; i++) {
+            T t = list.get(i);
+            C code = t.getCode();
+            Objects.requireNonNull(code, String.format(MSG_CODE_NULL, t));
+            keyHashes[i] = hash(code);
+        }
+
+        Table table = (size > MAX_SORTED_SIZE) ? buildPerfectHash(list, keyHashes) : null;
+        if (table == null) {
+            table = buildSorted(list);
+        }
+        hashes = table.hashes;
+        codes = table.codes;
+        values = table.values;
+        displacements = table.displacements;
+    }
+
+    /**
+     * Indexes the coded objects by a hash-and-displace perfect hash. The codes
+     * are distributed into buckets, and the buckets, largest first, are each
+     * assigned the first displacement which places all of their codes in free
+     * slots.
+     *
+     * @param list the coded objects
+     * @param keyHashes the hash codes of the codes
+     * @return the table; otherwise {@code null} if codes share a hash code,
+     * which no displacement can separate
+     */
+    private Table buildPerfectHash(List<T> list, int[] keyHashes) {
+        int tableSize = Integer.highestOneBit(size * 2 - 1) << 1;
+        int bucketCount = Integer.highestOneBit(Math.max(1, size / BUCKET_SIZE));
+        List<List<Integer>> buckets = new ArrayList<>(bucketCount);
+        for (int b = 0; b < bucketCount; b++) {
+            buckets.add(new ArrayList<Integer>(BUCKET_SIZE));
+        }
+        for (int i = 0; i < size; i++) {
+            buckets.get(mix(keyHashes[i], 0) & (bucketCount - 1)).add(i);
+        }
+        Integer[] order = new Integer[bucketCount];
+        for (int b = 0; b < bucketCount; b++) {
+            order[b] = b;
+        }
+        Arrays.sort(order, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer b1, Integer b2) {
+                return Integer.compare(buckets.get(b2).size(), buckets.get(b1).size());
+            }
+        });
+
+        Table table = new Table(tableSize);
+        table.displacements = new int[bucketCount];
+        int[] slots = new int[size];
+        for (int b : order) {
+            List<Integer> bucket = buckets.get(b);
+            int displacement = findDisplacement(bucket, keyHashes, table.values, slots);
+            if (displacement < 0) {
+                return null;
+            }
+            table.displacements[b] = displacement;
+            for (int j = 0; j < bucket.size(); j++) {
+                int i = bucket.get(j);
+                T t = list.get(i);
+                table.hashes[slots[j]] = keyHashes[i];
+                table.codes[slots[j]] = t.getCode();
+                table.values[slots[j]] = t;
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Indexes the coded objects sorted by the hash codes of their codes.
+     *
+     * @param list the coded objects
+     * @return the table
+     * @throws IllegalArgumentException if any codes are duplicates
+     */
+    private Table buildSorted(List<T> list) {
+        list.sort(new Comparator<T>() {
+            @Override
+            public int compare(T t1, T t2) {
+                return Integer.compare(hash(t1.getCode()), hash(t2.getCode()));
+            }
+        });
+        Table table = new Table(size);
+        for (int i = 0; i < size; i++) {
+            T t = list.get(i);
+            table.hashes[i] = hash(t.getCode());
+            table.codes[i] = t.getCode();
+            table.values[i] = t;
+            for (int j = i - 1; (j >= 0) && (table.hashes[j] == table.hashes[i]); j--) {
+                if (matches(table.codes[j], table.codes[i])) {
+                    throw new IllegalArgumentException(String.format(MSG_DUPLICATE_CODE, table.codes[i]));
+                }
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Finds the first displacement which places all codes of the specified
+     * bucket in distinct free slots.
+     *
+     * @param bucket the indexes of the codes
+     * @param keyHashes the hash codes of the codes
+     * @param tableValues the slots taken so far
+     * @param slots the receiver of the chosen slots
+     * @return the displacement or {@code -1} if none
+     */
+    private int findDisplacement(List<Integer> bucket, int[] keyHashes, Object[] tableValues, int[] slots) {
+        int mask = tableValues.length - 1;
+        for (int displacement = 0; displacement < MAX_DISPLACEMENT; displacement++) {
+            boolean placed = true;
+            for (int j = 0; placed && (j < bucket.size()); j++) {
+                int h = keyHashes[bucket.get(j)];
+                slots[j] = mix(h, displacement + 1) & mask;
+                placed = (tableValues[slots[j]] == null);
+                for (int k = 0; placed && (k < j); k++) {
+                    placed = (slots[k] != slots[j]);
+                    if (!placed && (keyHashes[bucket.get(k)] == h)) {
+                        // Codes with the same hash code never separate
+                        return -1;
+                    }
+                }
+            }
+            if (placed) {
+                return displacement;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Retrieves the coded object of the specified code.
+     *
+     * @param code the code
+     * @return the coded object or {@code null} if none
+     * @see #get(int)
+     */
+    public T get(C code) {
+        return (code != null) ? lookup(hash(code), code) : null;
+    }
+
+    /**
+     * Retrieves the coded object of the specified integer code without
+     * boxing the code.
+     *
+     * @param code the code
+     * @return the coded object or {@code null} if none
+     * @throws UnsupportedOperationException if the registry is not empty and
+     * the codes are not integers
+     * @see #get(Object)
+     */
+    public T get(int code) {
+        if (size == 0) {
+            return null;
+        }
+        if (!intCodes) {
+            throw new UnsupportedOperationException(MSG_NOT_INT_CODES);
+        }
+        return lookup(code, null);
+    }
+
+    /**
+     * Computes the hash code of the specified code.
+     *
+     * @param code the code
+     * @return the hash code
+     */
+    private int hash(Object code) {
+        if (intCodes) {
+            return (Integer) code;
+        }
+        return ignoreCase ? hashIgnoreCase((String) code) : code.hashCode();
+    }
+
+    /**
+     * Finds the coded object of the specified code.
+     *
+     * @param h the hash code of the code
+     * @param code the code; ignored for integer codes
+     * @return the coded object or {@code null} if none
+     */
+    @SuppressWarnings("unchecked")
+    private T lookup(int h, Object code) {
+        if (displacements != null) {
+            int displacement = displacements[mix(h, 0) & (displacements.length - 1)];
+            int slot = mix(h, displacement + 1) & (values.length - 1);
+            boolean found = (values[slot] != null) && (hashes[slot] == h) && matches(codes[slot], code);
+            return found ? (T) values[slot] : null;
+        }
+
+        int i = Arrays.binarySearch(hashes, h);
+        if (i < 0) {
+            return null;
+        }
+        while ((i > 0) && (hashes[i - 1] == h)) {
+            i--;
+        }
+        for (; (i < size) && (hashes[i] == h); i++) {
+            if (matches(codes[i], code)) {
+                return (T) values[i];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Determines whether the specified codes, whose hash codes are already
+     * known to match, are equal.
+     *
+     * @param indexed the indexed code
+     * @param code the code
+     * @return {@code true} if equal; otherwise {@code false}
+     */
+    private boolean matches(Object indexed, Object code) {
+        if (intCodes) {
+            return true;
+        }
+        return ignoreCase ? ((String) indexed).equalsIgnoreCase((String) code) : indexed.equals(code);
+    }
+
+    /**
+     * Retrieves the number of coded objects in this registry.
+     *
+     * @return the size
+     */
+    public int size() {
+        return size;
+    }
+
+}
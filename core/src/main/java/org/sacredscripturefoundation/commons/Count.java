@@ -36,6 +36,18 @@ public interface Count<T> {
      */
     int getCount();
 
+    /**
+     * Retrieves the count without the range limit of {@link #getCount()}. The
+     * default implementation widens {@link #getCount()}; implementations whose
+     * counts may exceed {@code Integer.MAX_VALUE} override this method.
+     *
+     * @return the count
+     * @see LongCountImpl
+     */
+    default long getLongCount() {
+        return getCount();
+    }
+
     /**
      * Retrieves the object that was counted.
      *
@@ -46,6 +46,23 @@ public class CountImpl<T> implements Count<T> {
         return total;
     }
 
+    /**
+     * Calculates the total from the collection of counts without overflowing
+     * an {@code int}.
+     *
+     * @param <T> any type
+     * @param counts the collection
+     * @return the total
+     * @see Count#getLongCount()
+     */
+    public static <T> long totalLong(Collection<? extends Count<T>> counts) {
+        long total = 0;
+        for (Count<T> count : counts) {
+            total += count.getLongCount();
+        }
+        return total;
+    }
+
     private static final String MSG_COUNT_NEGATIVE = "Count cannot be negative: %d";
 
     private static final String MSG_COUNTED_OBJECT_NULL = "Counted object cannot be null";
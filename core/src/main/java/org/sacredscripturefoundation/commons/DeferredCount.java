@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2015 Sacred Scripture Foundation.
+ * "All scripture is given by inspiration of God, and is profitable for
+ * doctrine, for reproof, for correction, for instruction in righteousness:
+ * That the man of God may be perfect, throughly furnished unto all good
+ * works." (2 Tim 3:16-17)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sacredscripturefoundation.commons;
+
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * This class is a count whose counted object is available immediately but
+ * whose count is computed elsewhere: either concurrently, by a
+ * {@link CompletionStage}, or lazily, by a {@link Callable} invoked on the
+ * first {@link #getCount()}. A page of results can thus be rendered before its
+ * total is known.
+ * <p>
+ * Since the count is computed apart from the counted object, possibly on
+ * another thread, connection or transaction, it reflects the data at a
+ * different moment and may not agree with the counted object. Use
+ * {@link CountImpl} when the two must be consistent.
+ * <p>
+ * {@link #getCount()} blocks until the count is available. A failure to count
+ * is thrown from {@link #getCount()}: unchecked exceptions as-is, checked
+ * exceptions wrapped in a {@code CompletionException}. The count must fit
+ * into an {@code int}.
+ *
+ * @param <T> the type of counted object
+ * @author Paul Benedict
+ * @see CountImpl
+ * @since 1.0
+ */
+public class DeferredCount<T> implements Count<T> {
+
+    private static final String MSG_COUNT_NEGATIVE = "Count cannot be negative: %d";
+    private static final String MSG_COUNT_NULL = "Count source cannot be null";
+    private static final String MSG_COUNTED_OBJECT_NULL = "Counted object cannot be null";
+
+    private final CompletableFuture<Integer> count;
+    private final T counted;
+    private Callable<? extends Number> counter;
+
+    /**
+     * Constructs a new count whose count is computed on first use by the
+     * specified callable. The callable runs on the thread which first
+     * retrieves the count, at most once.
+     *
+     * @param counter the computation of the count
+     * @param counted the counted object
+     * @throws NullPointerException if any argument is {@code null}
+     */
+    public DeferredCount(Callable<? extends Number> counter, T counted) {
+        Objects.requireNonNull(counter, MSG_COUNT_NULL);
+        Objects.requireNonNull(counted, MSG_COUNTED_OBJECT_NULL);
+        this.count = new CompletableFuture<>();
+        this.counted = counted;
+        this.counter = counter;
+    }
+
+    /**
+     * Constructs a new count whose count is completed by the specified stage.
+     *
+     * @param count the stage of the count
+     * @param counted the counted object
+     * @throws NullPointerException if any argument is {@code null}
+     */
+    public DeferredCount(CompletionStage<? extends Number> count, T counted) {
+        Objects.requireNonNull(count, MSG_COUNT_NULL);
+        Objects.requireNonNull(counted, MSG_COUNTED_OBJECT_NULL);
+        this.count = count.toCompletableFuture().thenApply(DeferredCount::toCount);
+        this.counted = counted;
+    }
+
+    /**
+     * Converts the specified number into a valid count.
+     *
+     * @param number the number
+     * @return the count
+     * @throws ArithmeticException if the number does not fit into an
+     * {@code int}
+     * @throws IllegalArgumentException if the number is negative
+     */
+    private static Integer toCount(Number number) {
+        int value = Math.toIntExact(number.longValue());
+        if (value < 0) {
+            throw new IllegalArgumentException(String.format(MSG_COUNT_NEGATIVE, value));
+        }
+        return value;
+    }
+
+    /**
+     * Computes the lazy count, unless already computed or not lazy.
+     */
+    private synchronized void computeLazily() {
+        if ((counter == null) || count.isDone()) {
+            return;
+        }
+        try {
+            count.complete(toCount(counter.call()));
+        } catch (Exception e) {
+            count.completeExceptionally(e);
+        } finally {
+            counter = null;
+        }
+    }
+
+    /**
+     * Retrieves the count, waiting for or computing it if necessary.
+     */
+    @Override
+    public int getCount() {
+        if (!count.isDone()) {
+            computeLazily();
+        }
+        try {
+            return count.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public T getCounted() {
+        return counted;
+    }
+
+    /**
+     * Determines whether the count is available without waiting or computing.
+     *
+     * @return {@code true} if available or failed; otherwise {@code false}
+     */
+    public boolean isCountDone() {
+        return count.isDone();
+    }
+
+}
@@ -0,0 +1,333 @@
+/*
+ * Copyright (c) 2015 Sacred Scripture Foundation.
+ * "All scripture is given by inspiration of God, and is profitable for
+ * doctrine, for reproof, for correction, for instruction in righteousness:
+ * That the man of God may be perfect, throughly furnished unto all good
+ * works." (2 Tim 3:16-17)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sacredscripturefoundation.commons;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * This class indexes a hierarchy of {@link ParentProvider} objects, such as
+ * book, chapter and verse, so that ancestry is answered without walking parent
+ * chains or issuing recursive queries.
+ * <p>
+ * Each object is assigned a nested-set interval that strictly contains the
+ * intervals of its descendants. An ancestor check compares two intervals in
+ * constant time, and the descendants of an object are the range of intervals
+ * that begin within its own, retrieved in pre-order. Intervals are spaced
+ * apart so that inserts are usually placed in the free space of their parent;
+ * the whole hierarchy is renumbered only when that space is exhausted.
+ * <p>
+ * Objects are indexed by equality. The parent of every object must also be of
+ * the index type. Instances are thread-safe.
+ *
+ * @param <T> the common type of the objects of every level
+ * @author Paul Benedict
+ * @since 1.0
+ */
+public class HierarchyIndex<T> {
+
+    /**
+     * This class is an indexed object and its interval.
+     */
+    private static final class Node<T> {
+
+        final T value;
+        final List<Node<T>> children = new ArrayList<>();
+        long left;
+        long right;
+
+        Node(T value) {
+            this.value = value;
+        }
+
+    }
+
+    /**
+     * The number space shared by all intervals.
+     */
+    private static final long SPAN = Long.MAX_VALUE / 2;
+
+    private static final String MSG_CYCLE = "Parent chain contains a cycle: %s";
+
+    /**
+     * Retrieves the parent of the specified object.
+     *
+     * @param value the object
+     * @return the parent or {@code null}
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T parentOf(T value) {
+        return (value instanceof ParentProvider) ? (T) ((ParentProvider<?>) value).getParent() : null;
+    }
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<T, Node<T>> nodes = new HashMap<>();
+    private final TreeMap<Long, Node<T>> nodesByLeft = new TreeMap<>();
+    private final Node<T> root = new Node<>(null);
+
+    /**
+     * Constructs a new empty index.
+     *
+     * @see #add(Object)
+     */
+    public HierarchyIndex() {
+        root.right = SPAN;
+    }
+
+    /**
+     * Constructs a new index of the specified objects and their ancestors.
+     *
+     * @param values the objects
+     * @throws IllegalArgumentException if any parent chain has a cycle
+     * @see #addAll(Collection)
+     */
+    public HierarchyIndex(Collection<? extends T> values) {
+        this();
+        addAll(values);
+    }
+
+    /**
+     * Indexes the specified object, as well as its ancestors which are not yet
+     * indexed. An object already indexed is left as is.
+     *
+     * @param value the object
+     * @throws IllegalArgumentException if the parent chain has a cycle
+     * @throws NullPointerException if the object is {@code null}
+     * @see #addAll(Collection)
+     */
+    public void add(T value) {
+        Objects.requireNonNull(value);
+        lock.writeLock().lock();
+        try {
+            for (Node<T> node : link(value)) {
+                Node<T> parent = parentNode(node.value);
+                long lo = parent.children.isEmpty() ? parent.left : parent.children.get(parent.children.size() - 1).right;
+                long width = (parent.right - lo) / 2;
+                parent.children.add(node);
+                if (width < 2) {
+                    renumber();
+                } else {
+                    // Take the first half of the free space; later siblings take the rest
+                    node.left = lo + 1;
+                    node.right = lo + width;
+                    nodesByLeft.put(node.left, node);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Indexes the specified objects, as well as their ancestors which are not
+     * yet indexed, and renumbers the hierarchy once. This is more efficient
+     * than adding many objects individually. Every object is validated first,
+     * so the index is unchanged upon failure.
+     *
+     * @param values the objects
+     * @throws IllegalArgumentException if any parent chain has a cycle
+     * @throws NullPointerException if any object is {@code null}
+     * @see #add(Object)
+     */
+    public void addAll(Collection<? extends T> values) {
+        lock.writeLock().lock();
+        try {
+            for (T value : values) {
+                Objects.requireNonNull(value);
+                chainOf(value);
+            }
+            for (T value : values) {
+                for (Node<T> node : link(value)) {
+                    parentNode(node.value).children.add(node);
+                }
+            }
+            renumber();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Determines whether the specified object is indexed.
+     *
+     * @param value the object
+     * @return {@code true} if indexed; otherwise {@code false}
+     */
+    public boolean contains(T value) {
+        lock.readLock().lock();
+        try {
+            return nodes.containsKey(value);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Retrieves the descendants of the specified object in pre-order (depth
+     * first, with siblings in order of insertion).
+     *
+     * @param value the object
+     * @return the descendants; empty if none or not indexed
+     */
+    public List<T> getDescendants(T value) {
+        lock.readLock().lock();
+        try {
+            Node<T> node = nodes.get(value);
+            if (node == null) {
+                return new ArrayList<>();
+            }
+            Collection<Node<T>> range = nodesByLeft.subMap(node.left, false, node.right, false).values();
+            List<T> descendants = new ArrayList<>(range.size());
+            for (Node<T> descendant : range) {
+                descendants.add(descendant.value);
+            }
+            return descendants;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Determines whether the first object is a proper ancestor of the second.
+     *
+     * @param ancestor the potential ancestor
+     * @param descendant the potential descendant
+     * @return {@code true} if an ancestor; otherwise {@code false}, including
+     * when either object is not indexed
+     */
+    public boolean isAncestor(T ancestor, T descendant) {
+        lock.readLock().lock();
+        try {
+            Node<T> a = nodes.get(ancestor);
+            Node<T> d = nodes.get(descendant);
+            return (a != null) && (d != null) && (a.left < d.left) && (d.right < a.right);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Collects the specified object and its ancestors which are not yet
+     * indexed, without changing the index.
+     *
+     * @param value the object
+     * @return the objects from the topmost ancestor down
+     * @throws IllegalArgumentException if the parent chain has a cycle
+     */
+    private Deque<T> chainOf(T value) {
+        Deque<T> chain = new ArrayDeque<>();
+        for (T current = value; (current != null) && !nodes.containsKey(current); current = parentOf(current)) {
+            if (chain.contains(current)) {
+                throw new IllegalArgumentException(String.format(MSG_CYCLE, value));
+            }
+            chain.push(current);
+        }
+        return chain;
+    }
+
+    /**
+     * Creates the nodes of the specified object and its ancestors which are not
+     * yet indexed. The nodes are not yet attached to their parents.
+     *
+     * @param value the object
+     * @return the new nodes from the topmost ancestor down
+     * @throws IllegalArgumentException if the parent chain has a cycle
+     */
+    private List<Node<T>> link(T value) {
+        Deque<T> chain = chainOf(value);
+        List<Node<T>> created = new ArrayList<>(chain.size());
+        for (T current : chain) {
+            Node<T> node = new Node<>(current);
+            nodes.put(current, node);
+            created.add(node);
+        }
+        return created;
+    }
+
+    /**
+     * Retrieves the node of the parent of the specified object.
+     *
+     * @param value the object
+     * @return the parent node, or the root node for top-level objects
+     */
+    private Node<T> parentNode(T value) {
+        T parent = parentOf(value);
+        return (parent != null) ? nodes.get(parent) : root;
+    }
+
+    /**
+     * Assigns evenly spaced intervals to the whole hierarchy.
+     */
+    private void renumber() {
+        long gap = SPAN / (2L * nodes.size() + 2);
+        nodesByLeft.clear();
+
+        // Iterative depth-first traversal; the flag marks the exit of a node
+        Deque<Node<T>> stack = new ArrayDeque<>();
+        Deque<Boolean> exits = new ArrayDeque<>();
+        long position = 0;
+        stack.push(root);
+        exits.push(Boolean.FALSE);
+        while (!stack.isEmpty()) {
+            Node<T> node = stack.pop();
+            if (exits.pop()) {
+                position += gap;
+                node.right = position;
+                continue;
+            }
+            node.left = position;
+            if (node != root) {
+                nodesByLeft.put(node.left, node);
+            }
+            stack.push(node);
+            exits.push(Boolean.TRUE);
+            for (int i = node.children.size() - 1; i >= 0; i--) {
+                stack.push(node.children.get(i));
+                exits.push(Boolean.FALSE);
+            }
+            position += gap;
+        }
+        root.right = SPAN;
+    }
+
+    /**
+     * Retrieves the number of indexed objects.
+     *
+     * @return the size
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return nodes.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+}
@@ -20,10 +20,13 @@
 package org.sacredscripturefoundation.commons;
 
 /**
- * This class returns a new instance for the specified class.
+ * This class returns a new instance for the specified class. Each call
+ * instantiates the class reflectively; prefer {@link ConstructorProvider} for
+ * frequent use.
  *
  * @param <T> the instance type
  * @author Paul Benedict
+ * @see ConstructorProvider
  * @since 1.0
  */
 public class InstanceProvider<T> implements Provider<T> {
@@ -0,0 +1,341 @@
+/*
+ * Copyright (c) 2015 Sacred Scripture Foundation.
+ * "All scripture is given by inspiration of God, and is profitable for
+ * doctrine, for reproof, for correction, for instruction in righteousness:
+ * That the man of God may be perfect, throughly furnished unto all good
+ * works." (2 Tim 3:16-17)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sacredscripturefoundation.commons;
+
+import java.util.function.Supplier;
+
+import org.apache.log4j.Level;
+
+/**
+ * This class builds a structured log event of typed key-value fields which is
+ * rendered as a single line of JSON, for example:
+ *
+ * <pre>
+ * log.atInfo("Page loaded").field("entity", "Book").field("rows", 25).field("ms", elapsed).log();
+ * </pre>
+ *
+ * renders {@code {"msg":"Page loaded","entity":"Book","rows":25,"ms":17}}.
+ * <p>
+ * Fields are written straight into a builder reused by the calling thread, so
+ * no intermediate strings are created. When the level is disabled, the
+ * {@code at*} methods of {@link Logger} return a shared builder that ignores
+ * every call; {@link Supplier} fields are then never evaluated. Keys and text
+ * are escaped for JSON.
+ * <p>
+ * A {@code null} literal value matches more than one {@code field} method and
+ * must be cast, e.g. {@code field("key", (Object) null)}; every object
+ * overload writes {@code null} as a JSON {@code null}.
+ * <p>
+ * The rendered line is the Log4J message; use a layout of {@code %m%n} to
+ * produce JSON lines. Instances are not reusable: each must be finished with
+ * {@link #log()} exactly once. If a field's supplier or {@code toString()}
+ * throws, the builder returns its buffer and discards the event. A builder that
+ * is simply abandoned keeps its buffer, and the thread allocates a new one for
+ * its next message; nothing leaks beyond the garbage builder itself.
+ *
+ * @author Paul Benedict
+ * @see Logger#atInfo(String)
+ * @since 1.0
+ */
+public final class LogEventBuilder {
+
+    /**
+     * The builder of disabled levels.
+     */
+    static final LogEventBuilder DISABLED = new LogEventBuilder(null, null, null);
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    /**
+     * Writes the escape sequence of the specified character.
+     *
+     * @param buf the destination
+     * @param c the character which must be escaped
+     * @see #isPlain(char)
+     */
+    private static void escape(StringBuilder buf, char c) {
+        switch (c) {
+        case '"':
+            buf.append("\\\"");
+            break;
+        case '\\':
+            buf.append("\\\\");
+            break;
+        case '\n':
+            buf.append("\\n");
+            break;
+        case '\r':
+            buf.append("\\r");
+            break;
+        case '\t':
+            buf.append("\\t");
+            break;
+        default:
+            buf.append("\\u00").append(HEX[c >> 4]).append(HEX[c & 0xf]);
+            break;
+        }
+    }
+
+    /**
+     * Determines whether the specified character may be written into a JSON
+     * string unescaped.
+     *
+     * @param c the character
+     * @return {@code true} if plain; otherwise {@code false}
+     */
+    private static boolean isPlain(char c) {
+        return (c >= 0x20) && (c != '"') && (c != '\\');
+    }
+
+    /**
+     * Writes the specified text as a quoted JSON string.
+     *
+     * @param buf the destination
+     * @param text the text
+     */
+    private static void quote(StringBuilder buf, CharSequence text) {
+        buf.append('"');
+        int len = text.length();
+        int start = 0;
+        for (int i = 0; i < len; i++) {
+            char c = text.charAt(i);
+            if (isPlain(c)) {
+                continue;
+            }
+            // Copy the run of plain characters and then the escape
+            buf.append(text, start, i);
+            start = i + 1;
+            escape(buf, c);
+        }
+        buf.append(text, start, len).append('"');
+    }
+
+    private final Logger logger;
+    private final Level level;
+    private StringBuilder buf;
+    private Throwable t;
+
+    /**
+     * Constructs a new builder which starts the event with its message.
+     *
+     * @param logger the logger to write to; {@code null} if disabled
+     * @param level the level
+     * @param message the message
+     */
+    LogEventBuilder(Logger logger, Level level, String message) {
+        this.logger = logger;
+        this.level = level;
+        if (logger != null) {
+            buf = Logger.acquireBuffer();
+            buf.append("{\"msg\":");
+            quote(buf, String.valueOf(message));
+        }
+    }
+
+    /**
+     * Attaches the specified throwable to the event.
+     *
+     * @param t the throwable
+     * @return this builder
+     */
+    public LogEventBuilder cause(Throwable t) {
+        // The disabled builder is shared and must stay stateless
+        if (buf != null) {
+            this.t = t;
+        }
+        return this;
+    }
+
+    /**
+     * Adds a boolean field.
+     *
+     * @param key the key
+     * @param value the value
+     * @return this builder
+     */
+    public LogEventBuilder field(String key, boolean value) {
+        if (buf != null) {
+            key(key).append(value);
+        }
+        return this;
+    }
+
+    /**
+     * Adds a character field, which is written as a string of one character
+     * rather than its numeric code.
+     *
+     * @param key the key
+     * @param value the value
+     * @return this builder
+     */
+    public LogEventBuilder field(String key, char value) {
+        if (buf != null) {
+            key(key).append('"');
+            if (isPlain(value)) {
+                buf.append(value);
+            } else {
+                escape(buf, value);
+            }
+            buf.append('"');
+        }
+        return this;
+    }
+
+    /**
+     * Adds a text field.
+     *
+     * @param key the key
+     * @param value the value (can be {@code null})
+     * @return this builder
+     */
+    public LogEventBuilder field(String key, CharSequence value) {
+        if (buf != null) {
+            key(key);
+            if (value != null) {
+                quote(buf, value);
+            } else {
+                buf.append("null");
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Adds a floating-point field. Values which JSON cannot represent, such as
+     * {@code NaN}, are written as strings.
+     *
+     * @param key the key
+     * @param value the value
+     * @return this builder
+     */
+    public LogEventBuilder field(String key, double value) {
+        if (buf != null) {
+            key(key);
+            if (Double.isNaN(value) || Double.isInfinite(value)) {
+                buf.append('"').append(value).append('"');
+            } else {
+                buf.append(value);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Adds an integral field.
+     *
+     * @param key the key
+     * @param value the value
+     * @return this builder
+     */
+    public LogEventBuilder field(String key, long value) {
+        if (buf != null) {
+            key(key).append(value);
+        }
+        return this;
+    }
+
+    /**
+     * Adds a field of any object. Numbers and booleans are written as JSON
+     * literals; all other objects are written as the string of their
+     * {@code toString()}.
+     *
+     * @param key the key
+     * @param value the value (can be {@code null})
+     * @return this builder
+     */
+    public LogEventBuilder field(String key, Object value) {
+        if (buf != null) {
+            if (value instanceof Double || value instanceof Float) {
+                return field(key, ((Number) value).doubleValue());
+            }
+            if ((value == null) || (value instanceof Number) || (value instanceof Boolean)) {
+                key(key).append(value);
+            } else {
+                String text;
+                try {
+                    text = value.toString();
+                } catch (RuntimeException | Error e) {
+                    discard();
+                    throw e;
+                }
+                quote(key(key), text);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Adds a field whose value is computed only if the level is enabled.
+     *
+     * @param key the key
+     * @param value the supplier of the value (can be {@code null})
+     * @return this builder
+     * @see #field(String, Object)
+     */
+    public LogEventBuilder field(String key, Supplier<?> value) {
+        if (buf != null) {
+            Object v;
+            try {
+                v = (value != null) ? value.get() : null;
+            } catch (RuntimeException | Error e) {
+                discard();
+                throw e;
+            }
+            field(key, v);
+        }
+        return this;
+    }
+
+    /**
+     * Returns the buffer of this builder to the thread without writing the
+     * event. Further calls are ignored.
+     */
+    private void discard() {
+        StringBuilder b = buf;
+        buf = null;
+        t = null;
+        Logger.releaseBuffer(b);
+    }
+
+    /**
+     * Writes the key of the next field.
+     *
+     * @param key the key
+     * @return the buffer
+     */
+    private StringBuilder key(String key) {
+        quote(buf.append(','), String.valueOf(key));
+        return buf.append(':');
+    }
+
+    /**
+     * Finishes and writes the event.
+     */
+    public void log() {
+        if (buf != null) {
+            StringBuilder b = buf;
+            buf = null;
+            String line = b.append('}').toString();
+            Logger.releaseBuffer(b);
+            logger.emit(level, line, t);
+        }
+    }
+
+}
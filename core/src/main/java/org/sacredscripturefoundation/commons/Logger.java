@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2014 Sacred Scripture Foundation.
+ * Copyright (c) 2013, 2014 Sacred Scripture Foundation.
  * "All scripture is given by inspiration of God, and is profitable for
  * doctrine, for reproof, for correction, for instruction in righteousness:
  * That the man of God may be perfect, throughly furnished unto all good
@@ -19,12 +19,35 @@
  */
 package org.sacredscripturefoundation.commons;
 
+import java.util.function.Supplier;
+
+import org.apache.log4j.Level;
+
 /**
  * This class is a custom wrapper around Log4J 1.2 functionality to parameterize
  * messages in the vein of Log4J 2. Because the latter is so new, the library is
  * not natively built into application server environments. This is a stop-gap
  * measure; it can then be tossed away.
  * <p>
+ * Messages are only formatted when their level is enabled. Formatting appends
+ * into a builder reused by the calling thread, so the resulting string is the
+ * only allocation. Calls with up to three parameters resolve to fixed-arity
+ * overloads and do not allocate a varargs array.
+ * <p>
+ * Parameters which are expensive to compute may be passed as {@link Supplier}
+ * instances, which are only invoked if the level is enabled and the parameter
+ * is substituted. Suppliers are always passed in a varargs array, and a lambda
+ * which captures a variable is a new object per call, so a disabled statement
+ * may still allocate both. For hot statements, guard the statement with one of
+ * the {@code is*Enabled()} methods.
+ * <p>
+ * By default, events are written synchronously through Log4J. Setting an
+ * {@link AsyncLogDispatcher} switches every logger to asynchronous mode: the
+ * message is still formatted by the caller, but written by the dispatcher's
+ * background thread.
+ * <p>
+ * Structured events of key-value fields are built with the {@code at*}
+ * methods, e.g. {@link #atInfo(String)}, and rendered as JSON.
  *
  * @author Paul Benedict
  * @since 1.0
@@ -32,63 +55,210 @@ package org.sacredscripturefoundation.commons;
 public class Logger {
 
     /**
-     * See http://logging.apache.org/log4j/2.0/manual/messages.html
+     * The largest builder capacity retained by a thread for reuse. Builders
+     * grown by an unusually long message are discarded.
+     */
+    private static final int MAX_RETAINED_CAPACITY = 1024;
+
+    /**
+     * The dispatcher of asynchronous writes, or {@code null} to write
+     * synchronously.
+     *
+     * @see #setDispatcher(AsyncLogDispatcher)
+     */
+    private static volatile AsyncLogDispatcher dispatcher;
+
+    /**
+     * Holds each thread's reusable builder in slot 0. The slot is empty while
+     * the builder is in use, so a message formatted from within a parameter's
+     * {@code toString()} receives its own builder.
+     */
+    private static final ThreadLocal<StringBuilder[]> buffers = new ThreadLocal<StringBuilder[]>() {
+        @Override
+        protected StringBuilder[] initialValue() {
+            return new StringBuilder[] { new StringBuilder(256) };
+        }
+    };
+
+    /**
+     * Takes the calling thread's builder, or creates a new builder if it is
+     * already in use.
+     *
+     * @return the empty builder
+     * @see #releaseBuffer(StringBuilder)
+     */
+    static StringBuilder acquireBuffer() {
+        StringBuilder[] slot = buffers.get();
+        StringBuilder buf = slot[0];
+        if (buf == null) {
+            return new StringBuilder(256);
+        }
+        slot[0] = null;
+        return buf;
+    }
+
+    /**
+     * Formats the message with the specified number of parameters. The
+     * parameters are taken from the array when present; otherwise from the
+     * individual arguments. A {@link Supplier} parameter is replaced by its
+     * value.
      *
      * @param message the message to format
-     * @param params the message parameters (can be {@code null})
+     * @param count the number of parameters
+     * @param p0 the first parameter
+     * @param p1 the second parameter
+     * @param p2 the third parameter
+     * @param params the parameter array or {@code null}
      * @return the formatted message
      */
-    protected static String formatMessage(String message, Object... params) {
-        // Nothing to do if no parameters
-        if (params == null || params.length == 0) {
+    private static String format(String message, int count, Object p0, Object p1, Object p2, Object[] params) {
+        // Nothing to do if no parameters or no substitution token
+        int pos = nextToken(message, 0);
+        if ((count == 0) || (pos == -1)) {
             return message;
         }
 
-        StringBuffer buf = null; // Do not instantiate until needed
-        int len = message.length();
-        int pos = 0;
-        int paramIndex = 0;
+        StringBuilder buf = acquireBuffer();
+        try {
+            int len = message.length();
+            int start = 0;
+            int paramIndex = 0;
 
-        // Go until the string or parameters are finished
-        while ((pos < len) && (paramIndex < params.length)) {
-            // If no opening brace, nothing left to do
-            int lBracePos = message.indexOf('{', pos);
-            if (lBracePos == -1) {
-                break;
+            // Go until the string or parameters are finished
+            while (pos != -1) {
+                // Append the text fragment and then the parameter
+                buf.append(message, start, pos);
+                Object param;
+                if (params != null) {
+                    param = params[paramIndex];
+                } else if (paramIndex == 0) {
+                    param = p0;
+                } else if (paramIndex == 1) {
+                    param = p1;
+                } else {
+                    param = p2;
+                }
+                // Suppliers are only invoked for a substituted parameter
+                buf.append((param instanceof Supplier) ? ((Supplier<?>) param).get() : param);
+                start = pos + 2;
+                if (++paramIndex == count) {
+                    break;
+                }
+                pos = nextToken(message, start);
             }
 
-            // If no closing brace or the closing brace is not adjacent, then
-            // there is nothing left to do
-            int rBracePos = message.indexOf('}', lBracePos);
-            if ((rBracePos == -1) || (rBracePos > (lBracePos + 1))) {
-                break;
+            // Add any potential trailing text fragment
+            if (start < len) {
+                buf.append(message, start, len);
             }
+            return buf.toString();
+        } finally {
+            releaseBuffer(buf);
+        }
+    }
 
-            // Allocate the buffer
-            if (buf == null) {
-                buf = new StringBuffer(message.length() + (params.length * 16));
-            }
+    /**
+     * See http://logging.apache.org/log4j/2.0/manual/messages.html
+     *
+     * @param message the message to format
+     * @param p0 the parameter
+     * @return the formatted message
+     * @see #formatMessage(String, Object...)
+     */
+    protected static String formatMessage(String message, Object p0) {
+        return format(message, 1, p0, null, null, null);
+    }
 
-            // Append the text fragment and then the parameter
-            buf.append(message.substring(pos, lBracePos));
-            buf.append(params[paramIndex++]);
-            pos = rBracePos + 1;
+    /**
+     * See http://logging.apache.org/log4j/2.0/manual/messages.html
+     *
+     * @param message the message to format
+     * @param p0 the first parameter
+     * @param p1 the second parameter
+     * @return the formatted message
+     * @see #formatMessage(String, Object...)
+     */
+    protected static String formatMessage(String message, Object p0, Object p1) {
+        return format(message, 2, p0, p1, null, null);
+    }
+
+    /**
+     * See http://logging.apache.org/log4j/2.0/manual/messages.html
+     *
+     * @param message the message to format
+     * @param p0 the first parameter
+     * @param p1 the second parameter
+     * @param p2 the third parameter
+     * @return the formatted message
+     * @see #formatMessage(String, Object...)
+     */
+    protected static String formatMessage(String message, Object p0, Object p1, Object p2) {
+        return format(message, 3, p0, p1, p2, null);
+    }
+
+    /**
+     * See http://logging.apache.org/log4j/2.0/manual/messages.html
+     *
+     * @param message the message to format
+     * @param params the message parameters (can be {@code null})
+     * @return the formatted message
+     */
+    protected static String formatMessage(String message, Object... params) {
+        if (params == null) {
+            return message;
         }
+        return format(message, params.length, null, null, null, params);
+    }
 
-        // If buffer was created, then add any potential trailing text fragment
-        // before creating the final string; otherwise just return the string
-        // passed in
-        String retMsg;
-        if (buf != null) {
-            if (pos < len) {
-                buf.append(message.substring(pos));
-            }
-            retMsg = buf.toString();
-        } else {
-            retMsg = message;
+    /**
+     * Finds the next substitution token. Parsing stops at the first opening
+     * brace that is not immediately closed.
+     *
+     * @param message the message to search
+     * @param from the index to search from
+     * @return the index of the token or -1 if none
+     */
+    private static int nextToken(String message, int from) {
+        int lBracePos = message.indexOf('{', from);
+        if ((lBracePos == -1) || (lBracePos + 1 == message.length()) || (message.charAt(lBracePos + 1) != '}')) {
+            return -1;
         }
+        return lBracePos;
+    }
 
-        return retMsg;
+    /**
+     * Retrieves the dispatcher of asynchronous mode.
+     *
+     * @return the dispatcher or {@code null} if synchronous
+     * @see #setDispatcher(AsyncLogDispatcher)
+     */
+    public static AsyncLogDispatcher getDispatcher() {
+        return dispatcher;
+    }
+
+    /**
+     * Returns the specified builder to the calling thread for reuse.
+     *
+     * @param buf the builder
+     * @see #acquireBuffer()
+     */
+    static void releaseBuffer(StringBuilder buf) {
+        if (buf.capacity() <= MAX_RETAINED_CAPACITY) {
+            buf.setLength(0);
+            buffers.get()[0] = buf;
+        }
+    }
+
+    /**
+     * Stores the dispatcher of asynchronous mode for all loggers. The caller
+     * remains responsible for closing a replaced dispatcher.
+     *
+     * @param dispatcher the dispatcher to set; {@code null} restores
+     * synchronous mode
+     * @see #getDispatcher()
+     */
+    public static void setDispatcher(AsyncLogDispatcher dispatcher) {
+        Logger.dispatcher = dispatcher;
     }
 
     private final org.apache.log4j.Logger log;
@@ -103,55 +273,428 @@ public class Logger {
         log = org.apache.log4j.Logger.getLogger(c);
     }
 
+    /**
+     * Constructs a logger which wraps the specified Log4J logger.
+     *
+     * @param log the Log4J logger
+     */
+    Logger(org.apache.log4j.Logger log) {
+        this.log = log;
+    }
+
+    /**
+     * Begins a structured event at the debug level.
+     *
+     * @param message the message
+     * @return the event builder; ignores all calls if the level is disabled
+     * @see LogEventBuilder
+     */
+    public LogEventBuilder atDebug(String message) {
+        return log.isDebugEnabled() ? new LogEventBuilder(this, Level.DEBUG, message) : LogEventBuilder.DISABLED;
+    }
+
+    /**
+     * Begins a structured event at the error level.
+     *
+     * @param message the message
+     * @return the event builder; ignores all calls if the level is disabled
+     * @see LogEventBuilder
+     */
+    public LogEventBuilder atError(String message) {
+        return log.isEnabledFor(Level.ERROR) ? new LogEventBuilder(this, Level.ERROR, message) : LogEventBuilder.DISABLED;
+    }
+
+    /**
+     * Begins a structured event at the fatal level.
+     *
+     * @param message the message
+     * @return the event builder; ignores all calls if the level is disabled
+     * @see LogEventBuilder
+     */
+    public LogEventBuilder atFatal(String message) {
+        return log.isEnabledFor(Level.FATAL) ? new LogEventBuilder(this, Level.FATAL, message) : LogEventBuilder.DISABLED;
+    }
+
+    /**
+     * Begins a structured event at the info level.
+     *
+     * @param message the message
+     * @return the event builder; ignores all calls if the level is disabled
+     * @see LogEventBuilder
+     */
+    public LogEventBuilder atInfo(String message) {
+        return log.isInfoEnabled() ? new LogEventBuilder(this, Level.INFO, message) : LogEventBuilder.DISABLED;
+    }
+
+    /**
+     * Begins a structured event at the trace level.
+     *
+     * @param message the message
+     * @return the event builder; ignores all calls if the level is disabled
+     * @see LogEventBuilder
+     */
+    public LogEventBuilder atTrace(String message) {
+        return log.isTraceEnabled() ? new LogEventBuilder(this, Level.TRACE, message) : LogEventBuilder.DISABLED;
+    }
+
+    public void debug(String message) {
+        if (log.isDebugEnabled()) {
+            emit(Level.DEBUG, message, null);
+        }
+    }
+
+    public void debug(String message, Object p0) {
+        if (log.isDebugEnabled()) {
+            emitParam(Level.DEBUG, message, p0);
+        }
+    }
+
+    public void debug(String message, Object p0, Object p1) {
+        if (log.isDebugEnabled()) {
+            emit(Level.DEBUG, formatMessage(message, p0, p1), null);
+        }
+    }
+
+    public void debug(String message, Object p0, Object p1, Object p2) {
+        if (log.isDebugEnabled()) {
+            emit(Level.DEBUG, formatMessage(message, p0, p1, p2), null);
+        }
+    }
+
     public void debug(String message, Object... params) {
         if (log.isDebugEnabled()) {
-            log.debug(formatMessage(message, params));
+            emit(Level.DEBUG, formatMessage(message, params), null);
+        }
+    }
+
+    public void debug(String message, Supplier<?>... params) {
+        if (log.isDebugEnabled()) {
+            emit(Level.DEBUG, formatMessage(message, (Object[]) params), null);
+        }
+    }
+
+    public void debug(String message, Throwable t, Object p0) {
+        if (log.isDebugEnabled()) {
+            emit(Level.DEBUG, formatMessage(message, p0), t);
+        }
+    }
+
+    public void debug(String message, Throwable t, Object p0, Object p1) {
+        if (log.isDebugEnabled()) {
+            emit(Level.DEBUG, formatMessage(message, p0, p1), t);
+        }
+    }
+
+    public void debug(String message, Throwable t, Object p0, Object p1, Object p2) {
+        if (log.isDebugEnabled()) {
+            emit(Level.DEBUG, formatMessage(message, p0, p1, p2), t);
         }
     }
 
     public void debug(String message, Throwable t, Object... params) {
         if (log.isDebugEnabled()) {
-            log.debug(formatMessage(message, params), t);
+            emit(Level.DEBUG, formatMessage(message, params), t);
+        }
+    }
+
+    /**
+     * Writes the event of a single parameter. A throwable parameter is the
+     * cause of the event rather than a message parameter, as it was before the
+     * single-parameter methods existed.
+     *
+     * @param level the level
+     * @param message the message to format
+     * @param p0 the parameter or throwable
+     */
+    private void emitParam(Level level, String message, Object p0) {
+        if (p0 instanceof Throwable) {
+            emit(level, message, (Throwable) p0);
+        } else {
+            emit(level, formatMessage(message, p0), null);
+        }
+    }
+
+    /**
+     * Writes the formatted event directly or through the dispatcher of
+     * asynchronous mode.
+     *
+     * @param level the level
+     * @param message the formatted message
+     * @param t the throwable or {@code null}
+     */
+    void emit(Level level, String message, Throwable t) {
+        AsyncLogDispatcher d = dispatcher;
+        if (d != null) {
+            d.dispatch(log, level, message, t);
+        } else {
+            log.log(level, message, t);
+        }
+    }
+
+    public void error(String message) {
+        if (log.isEnabledFor(Level.ERROR)) {
+            emit(Level.ERROR, message, null);
+        }
+    }
+
+    public void error(String message, Object p0) {
+        if (log.isEnabledFor(Level.ERROR)) {
+            emitParam(Level.ERROR, message, p0);
+        }
+    }
+
+    public void error(String message, Object p0, Object p1) {
+        if (log.isEnabledFor(Level.ERROR)) {
+            emit(Level.ERROR, formatMessage(message, p0, p1), null);
+        }
+    }
+
+    public void error(String message, Object p0, Object p1, Object p2) {
+        if (log.isEnabledFor(Level.ERROR)) {
+            emit(Level.ERROR, formatMessage(message, p0, p1, p2), null);
         }
     }
 
     public void error(String message, Object... params) {
-        log.error(formatMessage(message, params));
+        if (log.isEnabledFor(Level.ERROR)) {
+            emit(Level.ERROR, formatMessage(message, params), null);
+        }
+    }
+
+    public void error(String message, Supplier<?>... params) {
+        if (log.isEnabledFor(Level.ERROR)) {
+            emit(Level.ERROR, formatMessage(message, (Object[]) params), null);
+        }
+    }
+
+    public void error(String message, Throwable t, Object p0) {
+        if (log.isEnabledFor(Level.ERROR)) {
+            emit(Level.ERROR, formatMessage(message, p0), t);
+        }
+    }
+
+    public void error(String message, Throwable t, Object p0, Object p1) {
+        if (log.isEnabledFor(Level.ERROR)) {
+            emit(Level.ERROR, formatMessage(message, p0, p1), t);
+        }
+    }
+
+    public void error(String message, Throwable t, Object p0, Object p1, Object p2) {
+        if (log.isEnabledFor(Level.ERROR)) {
+            emit(Level.ERROR, formatMessage(message, p0, p1, p2), t);
+        }
     }
 
     public void error(String message, Throwable t, Object... params) {
-        log.error(formatMessage(message, params), t);
+        if (log.isEnabledFor(Level.ERROR)) {
+            emit(Level.ERROR, formatMessage(message, params), t);
+        }
+    }
+
+    public void fatal(String message) {
+        if (log.isEnabledFor(Level.FATAL)) {
+            emit(Level.FATAL, message, null);
+        }
+    }
+
+    public void fatal(String message, Object p0) {
+        if (log.isEnabledFor(Level.FATAL)) {
+            emitParam(Level.FATAL, message, p0);
+        }
+    }
+
+    public void fatal(String message, Object p0, Object p1) {
+        if (log.isEnabledFor(Level.FATAL)) {
+            emit(Level.FATAL, formatMessage(message, p0, p1), null);
+        }
+    }
+
+    public void fatal(String message, Object p0, Object p1, Object p2) {
+        if (log.isEnabledFor(Level.FATAL)) {
+            emit(Level.FATAL, formatMessage(message, p0, p1, p2), null);
+        }
     }
 
     public void fatal(String message, Object... params) {
-        log.fatal(formatMessage(message, params));
+        if (log.isEnabledFor(Level.FATAL)) {
+            emit(Level.FATAL, formatMessage(message, params), null);
+        }
+    }
+
+    public void fatal(String message, Supplier<?>... params) {
+        if (log.isEnabledFor(Level.FATAL)) {
+            emit(Level.FATAL, formatMessage(message, (Object[]) params), null);
+        }
+    }
+
+    public void fatal(String message, Throwable t, Object p0) {
+        if (log.isEnabledFor(Level.FATAL)) {
+            emit(Level.FATAL, formatMessage(message, p0), t);
+        }
+    }
+
+    public void fatal(String message, Throwable t, Object p0, Object p1) {
+        if (log.isEnabledFor(Level.FATAL)) {
+            emit(Level.FATAL, formatMessage(message, p0, p1), t);
+        }
+    }
+
+    public void fatal(String message, Throwable t, Object p0, Object p1, Object p2) {
+        if (log.isEnabledFor(Level.FATAL)) {
+            emit(Level.FATAL, formatMessage(message, p0, p1, p2), t);
+        }
     }
 
     public void fatal(String message, Throwable t, Object... params) {
-        log.fatal(formatMessage(message, params), t);
+        if (log.isEnabledFor(Level.FATAL)) {
+            emit(Level.FATAL, formatMessage(message, params), t);
+        }
+    }
+
+    /**
+     * Determines whether the debug level is enabled.
+     *
+     * @return {@code true} if enabled; otherwise {@code false}
+     */
+    public boolean isDebugEnabled() {
+        return log.isDebugEnabled();
+    }
+
+    public void info(String message) {
+        if (log.isInfoEnabled()) {
+            emit(Level.INFO, message, null);
+        }
+    }
+
+    public void info(String message, Object p0) {
+        if (log.isInfoEnabled()) {
+            emitParam(Level.INFO, message, p0);
+        }
+    }
+
+    public void info(String message, Object p0, Object p1) {
+        if (log.isInfoEnabled()) {
+            emit(Level.INFO, formatMessage(message, p0, p1), null);
+        }
+    }
+
+    public void info(String message, Object p0, Object p1, Object p2) {
+        if (log.isInfoEnabled()) {
+            emit(Level.INFO, formatMessage(message, p0, p1, p2), null);
+        }
     }
 
     public void info(String message, Object... params) {
         if (log.isInfoEnabled()) {
-            log.info(formatMessage(message, params));
+            emit(Level.INFO, formatMessage(message, params), null);
+        }
+    }
+
+    public void info(String message, Supplier<?>... params) {
+        if (log.isInfoEnabled()) {
+            emit(Level.INFO, formatMessage(message, (Object[]) params), null);
+        }
+    }
+
+    public void info(String message, Throwable t, Object p0) {
+        if (log.isInfoEnabled()) {
+            emit(Level.INFO, formatMessage(message, p0), t);
+        }
+    }
+
+    public void info(String message, Throwable t, Object p0, Object p1) {
+        if (log.isInfoEnabled()) {
+            emit(Level.INFO, formatMessage(message, p0, p1), t);
+        }
+    }
+
+    public void info(String message, Throwable t, Object p0, Object p1, Object p2) {
+        if (log.isInfoEnabled()) {
+            emit(Level.INFO, formatMessage(message, p0, p1, p2), t);
         }
     }
 
     public void info(String message, Throwable t, Object... params) {
         if (log.isInfoEnabled()) {
-            log.info(formatMessage(message, params), t);
+            emit(Level.INFO, formatMessage(message, params), t);
+        }
+    }
+
+    /**
+     * Determines whether the info level is enabled.
+     *
+     * @return {@code true} if enabled; otherwise {@code false}
+     */
+    public boolean isInfoEnabled() {
+        return log.isInfoEnabled();
+    }
+
+    /**
+     * Determines whether the trace level is enabled.
+     *
+     * @return {@code true} if enabled; otherwise {@code false}
+     */
+    public boolean isTraceEnabled() {
+        return log.isTraceEnabled();
+    }
+
+    public void trace(String message) {
+        if (log.isTraceEnabled()) {
+            emit(Level.TRACE, message, null);
+        }
+    }
+
+    public void trace(String message, Object p0) {
+        if (log.isTraceEnabled()) {
+            emitParam(Level.TRACE, message, p0);
+        }
+    }
+
+    public void trace(String message, Object p0, Object p1) {
+        if (log.isTraceEnabled()) {
+            emit(Level.TRACE, formatMessage(message, p0, p1), null);
+        }
+    }
+
+    public void trace(String message, Object p0, Object p1, Object p2) {
+        if (log.isTraceEnabled()) {
+            emit(Level.TRACE, formatMessage(message, p0, p1, p2), null);
         }
     }
 
     public void trace(String message, Object... params) {
         if (log.isTraceEnabled()) {
-            log.trace(formatMessage(message, params));
+            emit(Level.TRACE, formatMessage(message, params), null);
+        }
+    }
+
+    public void trace(String message, Supplier<?>... params) {
+        if (log.isTraceEnabled()) {
+            emit(Level.TRACE, formatMessage(message, (Object[]) params), null);
+        }
+    }
+
+    public void trace(String message, Throwable t, Object p0) {
+        if (log.isTraceEnabled()) {
+            emit(Level.TRACE, formatMessage(message, p0), t);
+        }
+    }
+
+    public void trace(String message, Throwable t, Object p0, Object p1) {
+        if (log.isTraceEnabled()) {
+            emit(Level.TRACE, formatMessage(message, p0, p1), t);
+        }
+    }
+
+    public void trace(String message, Throwable t, Object p0, Object p1, Object p2) {
+        if (log.isTraceEnabled()) {
+            emit(Level.TRACE, formatMessage(message, p0, p1, p2), t);
         }
     }
 
     public void trace(String message, Throwable t, Object... params) {
         if (log.isTraceEnabled()) {
-            log.trace(formatMessage(message, params), t);
+            emit(Level.TRACE, formatMessage(message, params), t);
         }
     }
 
@@ -25,6 +25,7 @@ package org.sacredscripturefoundation.commons;
  *
  * @param <T> the type of the parent
  * @author Paul Benedict
+ * @see HierarchyIndex
  * @since 1.0
  */
 public interface ParentProvider<T> {
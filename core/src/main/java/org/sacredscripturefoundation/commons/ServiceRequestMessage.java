@@ -25,6 +25,7 @@ import java.io.Serializable;
  * This class is a template for service request payloads.
  *
  * @author Paul Benedict
+ * @see BinaryCodecRegistry
  * @since Sacred Scripture Platform 1.0
  */
 public abstract class ServiceRequestMessage implements Serializable {
@@ -0,0 +1,206 @@
+/*
+ * Copyright (c) 2015 Sacred Scripture Foundation.
+ * "All scripture is given by inspiration of God, and is profitable for
+ * doctrine, for reproof, for correction, for instruction in righteousness:
+ * That the man of God may be perfect, throughly furnished unto all good
+ * works." (2 Tim 3:16-17)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sacredscripturefoundation.commons;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.sacredscripturefoundation.commons.AsyncLogDispatcher.OverflowPolicy;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.log4j.Level;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link AsyncLogDispatcher}.
+ *
+ * @author Paul Benedict
+ * @since 1.0
+ */
+public class AsyncLogDispatcherTest {
+
+    private RecordingLogger log;
+    private AsyncLogDispatcher dispatcher;
+
+    @Before
+    public void setUp() {
+        log = new RecordingLogger(true);
+    }
+
+    @After
+    public void tearDown() {
+        log.released.countDown();
+        if (dispatcher != null) {
+            dispatcher.close();
+        }
+    }
+
+    /**
+     * Occupies the background thread with a first event and then fills the
+     * buffer of capacity 2.
+     */
+    private void fill() throws InterruptedException {
+        dispatcher.dispatch(log, Level.INFO, "1", null);
+        assertTrue(log.entered.await(5, TimeUnit.SECONDS));
+        assertTrue(dispatcher.dispatch(log, Level.INFO, "2", null));
+        assertTrue(dispatcher.dispatch(log, Level.INFO, "3", null));
+    }
+
+    /**
+     * Verifies events are written in order and that closing drains the
+     * buffer.
+     */
+    @Test
+    public void testCloseDrains() {
+        log.released.countDown();
+        dispatcher = new AsyncLogDispatcher(16, OverflowPolicy.BLOCK);
+        for (int i = 0; i < 100; i++) {
+            dispatcher.dispatch(log, Level.INFO, String.valueOf(i), null);
+        }
+        dispatcher.close();
+        assertEquals(100, log.messages.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(String.valueOf(i), log.messages.get(i));
+        }
+        assertEquals(0, dispatcher.getDroppedCount());
+    }
+
+    /**
+     * Verifies an interrupt does not stop closing from draining the buffer.
+     */
+    @Test
+    public void testCloseInterrupted() throws InterruptedException {
+        dispatcher = new AsyncLogDispatcher(2, OverflowPolicy.BLOCK);
+        fill();
+        Thread.currentThread().interrupt();
+        log.released.countDown();
+        dispatcher.close();
+        assertTrue(Thread.interrupted());
+        assertEquals(3, log.messages.size());
+    }
+
+    /**
+     * Verifies no accepted event is lost when producers race against closing,
+     * including producers blocked on a full buffer.
+     */
+    @Test
+    public void testCloseRacingProducers() throws InterruptedException {
+        log.released.countDown();
+        for (int round = 0; round < 20; round++) {
+            final RecordingLogger roundLog = new RecordingLogger();
+            final AsyncLogDispatcher roundDispatcher = new AsyncLogDispatcher(4, OverflowPolicy.BLOCK);
+            final AtomicInteger accepted = new AtomicInteger();
+            final CountDownLatch started = new CountDownLatch(4);
+            Thread[] producers = new Thread[4];
+            for (int i = 0; i < producers.length; i++) {
+                producers[i] = new Thread(new Runnable() {
+                    @Override
+                    public void run() {
+                        started.countDown();
+                        for (int j = 0; j < 500; j++) {
+                            if (roundDispatcher.dispatch(roundLog, Level.INFO, "x", null)) {
+                                accepted.incrementAndGet();
+                            }
+                        }
+                    }
+                });
+                producers[i].start();
+            }
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            roundDispatcher.close();
+            for (Thread producer : producers) {
+                producer.join(TimeUnit.SECONDS.toMillis(10));
+                assertFalse(producer.isAlive());
+            }
+            assertEquals(0, roundDispatcher.getDroppedCount());
+            assertEquals(accepted.get(), roundLog.messages.size());
+        }
+    }
+
+    /**
+     * Verifies the failure to construct with a capacity that is not a power of
+     * two.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructorCapacity() {
+        new AsyncLogDispatcher(3, OverflowPolicy.DROP);
+    }
+
+    /**
+     * Verifies the failure to construct without an overflow policy.
+     */
+    @Test(expected = NullPointerException.class)
+    public void testConstructorPolicyNull() {
+        new AsyncLogDispatcher(2, null);
+    }
+
+    /**
+     * Verifies a closed dispatcher writes on the calling thread.
+     */
+    @Test
+    public void testDispatchAfterClose() {
+        log.released.countDown();
+        dispatcher = new AsyncLogDispatcher();
+        dispatcher.close();
+        assertTrue(dispatcher.dispatch(log, Level.INFO, "late", null));
+        assertEquals("late", log.messages.get(0));
+        assertEquals(Thread.currentThread(), log.threads.get(0));
+    }
+
+    /**
+     * Verifies the drop policy discards and counts events when full.
+     */
+    @Test
+    public void testDrop() throws InterruptedException {
+        dispatcher = new AsyncLogDispatcher(2, OverflowPolicy.DROP);
+        fill();
+        assertFalse(dispatcher.dispatch(log, Level.ERROR, "4", null));
+        assertEquals(1, dispatcher.getDroppedCount());
+
+        log.released.countDown();
+        dispatcher.close();
+        assertEquals(3, log.messages.size());
+    }
+
+    /**
+     * Verifies the drop-below-level policy discards only events below the
+     * threshold and blocks for the others until there is room.
+     */
+    @Test
+    public void testDropBelowLevel() throws InterruptedException {
+        dispatcher = new AsyncLogDispatcher(2, OverflowPolicy.DROP_BELOW_LEVEL, Level.WARN);
+        fill();
+        assertFalse(dispatcher.dispatch(log, Level.DEBUG, "debug", null));
+        assertEquals(1, dispatcher.getDroppedCount());
+
+        log.released.countDown();
+        assertTrue(dispatcher.dispatch(log, Level.WARN, "warn", null));
+        dispatcher.close();
+        assertEquals(4, log.messages.size());
+        assertEquals("warn", log.messages.get(3));
+    }
+
+}
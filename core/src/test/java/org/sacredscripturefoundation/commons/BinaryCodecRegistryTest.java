@@ -0,0 +1,232 @@
+/*
+ * Copyright (c) 2015 Sacred Scripture Foundation.
+ * "All scripture is given by inspiration of God, and is profitable for
+ * doctrine, for reproof, for correction, for instruction in righteousness:
+ * That the man of God may be perfect, throughly furnished unto all good
+ * works." (2 Tim 3:16-17)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sacredscripturefoundation.commons;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.util.Date;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link BinaryCodecRegistry}.
+ *
+ * @author Paul Benedict
+ * @since 1.0
+ */
+public class BinaryCodecRegistryTest {
+
+    /**
+     * This class is a message with a nested model.
+     */
+    @SuppressWarnings("serial")
+    static class MockMessage extends ServiceRequestMessage {
+
+        String name;
+        long id;
+        MockMessage child;
+
+    }
+
+    /**
+     * This class encodes the fields of the first version of the message.
+     */
+    static class MockMessageCodec implements BinaryCodec<MockMessage> {
+
+        @Override
+        public MockMessage decode(BinaryReader in) throws IOException, ClassNotFoundException {
+            MockMessage message = new MockMessage();
+            message.name = in.readString();
+            message.id = in.readLong();
+            message.child = (MockMessage) in.readObject();
+            return message;
+        }
+
+        @Override
+        public void encode(MockMessage value, BinaryWriter out) throws IOException {
+            out.writeString(value.name);
+            out.writeLong(value.id);
+            out.writeObject(value.child);
+        }
+
+    }
+
+    /**
+     * This class encodes the fields of a later version of the message, which
+     * appends a field.
+     */
+    static class MockMessageCodecV2 extends MockMessageCodec {
+
+        @Override
+        public MockMessage decode(BinaryReader in) throws IOException, ClassNotFoundException {
+            MockMessage message = super.decode(in);
+            message.id = in.hasRemaining() ? in.readLong() : -1L;
+            return message;
+        }
+
+        @Override
+        public void encode(MockMessage value, BinaryWriter out) throws IOException {
+            super.encode(value, out);
+            out.writeLong(value.id);
+        }
+
+    }
+
+    private BinaryCodecRegistry registry;
+
+    @Before
+    public void setUp() {
+        registry = new BinaryCodecRegistry();
+        registry.register(1, MockMessage.class, new MockMessageCodec());
+    }
+
+    private static MockMessage newMessage() {
+        MockMessage message = new MockMessage();
+        message.name = "genesis";
+        message.id = 42L;
+        message.child = new MockMessage();
+        message.child.name = "genesis";
+        message.child.id = -1L;
+        return message;
+    }
+
+    /**
+     * Verifies a payload without the appended field is decoded by a later
+     * version with the default value.
+     */
+    @Test
+    public void testDecodeEarlierVersion() throws Exception {
+        byte[] bytes = registry.encode(newMessage());
+        BinaryCodecRegistry later = new BinaryCodecRegistry();
+        later.register(1, MockMessage.class, new MockMessageCodecV2());
+        assertEquals(-1L, later.decode(bytes, MockMessage.class).id);
+    }
+
+    /**
+     * Verifies a payload with an appended field is decoded by an earlier
+     * version, which skips the field.
+     */
+    @Test
+    public void testDecodeLaterVersion() throws Exception {
+        BinaryCodecRegistry later = new BinaryCodecRegistry();
+        later.register(1, MockMessage.class, new MockMessageCodecV2());
+        MockMessage message = registry.decode(later.encode(newMessage()), MockMessage.class);
+        assertEquals(42L, message.id);
+        assertEquals(-1L, message.child.id);
+    }
+
+    /**
+     * Verifies the failure to decode an unregistered tag.
+     */
+    @Test(expected = StreamCorruptedException.class)
+    public void testDecodeUnknownTag() throws Exception {
+        new BinaryCodecRegistry().decode(registry.encode(newMessage()));
+    }
+
+    /**
+     * Verifies the failure to decode an unexpected type.
+     */
+    @Test(expected = StreamCorruptedException.class)
+    public void testDecodeUnexpectedType() throws Exception {
+        registry.decode(registry.encode(newMessage()), String.class);
+    }
+
+    /**
+     * Verifies the encoding is smaller than serialization.
+     */
+    @Test
+    public void testEncodeCompact() throws Exception {
+        MockMessage message = newMessage();
+        int serialized = new BinaryCodecRegistry().encode(message).length;
+        assertTrue(registry.encode(message).length * 10 < serialized);
+    }
+
+    /**
+     * Verifies the round trip of {@code null}.
+     */
+    @Test
+    public void testEncodeNull() throws Exception {
+        assertArrayEquals(new byte[] { BinaryCodecRegistry.FORMAT_VERSION, 0, 0 }, registry.encode(null));
+        assertNull(registry.decode(registry.encode(null)));
+    }
+
+    /**
+     * Verifies the round trip of a registered type.
+     */
+    @Test
+    public void testEncodeRegistered() throws Exception {
+        MockMessage message = registry.decode(registry.encode(newMessage()), MockMessage.class);
+        assertEquals("genesis", message.name);
+        assertEquals(42L, message.id);
+        assertEquals("genesis", message.child.name);
+        assertEquals(-1L, message.child.id);
+        assertNull(message.child.child);
+    }
+
+    /**
+     * Verifies the round trip of an unregistered type by serialization.
+     */
+    @Test
+    public void testEncodeSerialized() throws Exception {
+        Date date = new Date(1L);
+        assertEquals(date, registry.decode(registry.encode(date)));
+    }
+
+    /**
+     * Verifies the failure to register a tag twice.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void testRegisterDuplicateTag() {
+        registry.register(1, String.class, new BinaryCodec<String>() {
+            @Override
+            public String decode(BinaryReader in) throws IOException {
+                return in.readString();
+            }
+
+            @Override
+            public void encode(String value, BinaryWriter out) {
+                out.writeString(value);
+            }
+        });
+    }
+
+    /**
+     * Verifies the failure to register a type twice.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void testRegisterDuplicateType() {
+        registry.register(2, MockMessage.class, new MockMessageCodec());
+    }
+
+    /**
+     * Verifies the failure to register a negative tag.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testRegisterNegativeTag() {
+        registry.register(-1, MockMessage.class, new MockMessageCodec());
+    }
+
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2015 Sacred Scripture Foundation.
+ * "All scripture is given by inspiration of God, and is profitable for
+ * doctrine, for reproof, for correction, for instruction in righteousness:
+ * That the man of God may be perfect, throughly furnished unto all good
+ * works." (2 Tim 3:16-17)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sacredscripturefoundation.commons;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.EOFException;
+import java.io.IOException;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link BinaryWriter} and {@link BinaryReader}.
+ *
+ * @author Paul Benedict
+ * @since 1.0
+ */
+public class BinaryWriterTest {
+
+    private BinaryCodecRegistry registry;
+    private BinaryWriter out;
+
+    @Before
+    public void setUp() {
+        registry = new BinaryCodecRegistry();
+        out = new BinaryWriter(registry);
+    }
+
+    private BinaryReader reader() throws IOException {
+        return new BinaryReader(registry, out.toByteArray());
+    }
+
+    /**
+     * Verifies the round trip of booleans and doubles.
+     */
+    @Test
+    public void testBooleanAndDouble() throws Exception {
+        out.writeBoolean(true);
+        out.writeBoolean(false);
+        out.writeDouble(Double.NaN);
+        out.writeDouble(-0.5);
+        BinaryReader in = reader();
+        assertTrue(in.readBoolean());
+        assertFalse(in.readBoolean());
+        assertTrue(Double.isNaN(in.readDouble()));
+        assertEquals(-0.5, in.readDouble(), 0.0);
+        assertFalse(in.hasRemaining());
+    }
+
+    /**
+     * Verifies the round trip of ints, including the extremes.
+     */
+    @Test
+    public void testInt() throws Exception {
+        int[] values = { 0, 1, -1, 63, -64, 64, Integer.MAX_VALUE, Integer.MIN_VALUE };
+        for (int value : values) {
+            out.writeInt(value);
+        }
+        BinaryReader in = reader();
+        for (int value : values) {
+            assertEquals(value, in.readInt());
+        }
+    }
+
+    /**
+     * Verifies small ints of either sign take one byte.
+     */
+    @Test
+    public void testIntCompact() {
+        out.writeInt(-64);
+        out.writeInt(63);
+        assertEquals(4, out.toByteArray().length);
+    }
+
+    /**
+     * Verifies the round trip of longs, including the extremes.
+     */
+    @Test
+    public void testLong() throws Exception {
+        long[] values = { 0, 1, -1, 1L << 35, Long.MAX_VALUE, Long.MIN_VALUE };
+        for (long value : values) {
+            out.writeLong(value);
+        }
+        BinaryReader in = reader();
+        for (long value : values) {
+            assertEquals(value, in.readLong());
+        }
+    }
+
+    /**
+     * Verifies the failure to read past the end.
+     */
+    @Test(expected = EOFException.class)
+    public void testReadPastEnd() throws Exception {
+        reader().readLong();
+    }
+
+    /**
+     * Verifies the round trip of strings, including {@code null}.
+     */
+    @Test
+    public void testString() throws Exception {
+        out.writeString("Bible");
+        out.writeString(null);
+        out.writeString("בראשית");
+        BinaryReader in = reader();
+        assertEquals("Bible", in.readString());
+        assertNull(in.readString());
+        assertEquals("בראשית", in.readString());
+    }
+
+    /**
+     * Verifies a repeated string is stored once.
+     */
+    @Test
+    public void testStringDeduplicated() throws Exception {
+        out.writeString("Bible");
+        int once = out.toByteArray().length;
+        setUp();
+        out.writeString("Bible");
+        out.writeString("Bible");
+        assertEquals(once + 1, out.toByteArray().length);
+    }
+
+}
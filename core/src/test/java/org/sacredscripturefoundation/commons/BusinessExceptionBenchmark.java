@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2015 Sacred Scripture Foundation.
+ * "All scripture is given by inspiration of God, and is profitable for
+ * doctrine, for reproof, for correction, for instruction in righteousness:
+ * That the man of God may be perfect, throughly furnished unto all good
+ * works." (2 Tim 3:16-17)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sacredscripturefoundation.commons;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * JMH benchmark of the cost to throw and catch a {@link BusinessException}
+ * from a moderately deep call stack. The eagerly formatted exception with a
+ * stack trace is the public constructor; the lazy and stackless exceptions
+ * are the lightweight constructor with and without a stack trace.
+ *
+ * @author Paul Benedict
+ * @since 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BusinessExceptionBenchmark {
+
+    private static final int STACK_DEPTH = 32;
+
+    /**
+     * This class is a concrete business exception.
+     */
+    @SuppressWarnings("serial")
+    private static class MockBusinessException extends BusinessException {
+
+        MockBusinessException(String message, Object... args) {
+            super(message, args);
+        }
+
+        MockBusinessException(boolean writableStackTrace, String message, Object... args) {
+            super(writableStackTrace, message, args);
+        }
+
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(BusinessExceptionBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    private final Long id = 42L;
+
+    @Benchmark
+    public Object eager() {
+        try {
+            return throwAt(STACK_DEPTH, 0);
+        } catch (BusinessException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Object lazy() {
+        try {
+            return throwAt(STACK_DEPTH, 1);
+        } catch (BusinessException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Object stackless() {
+        try {
+            return throwAt(STACK_DEPTH, 2);
+        } catch (BusinessException e) {
+            return e;
+        }
+    }
+
+    private Object throwAt(int depth, int mode) {
+        if (depth > 0) {
+            return throwAt(depth - 1, mode);
+        }
+        switch (mode) {
+        case 0:
+            throw new MockBusinessException("Unknown entity: %d", id);
+        case 1:
+            throw new MockBusinessException(true, "Unknown entity: %d", id);
+        default:
+            throw new MockBusinessException(false, "Unknown entity: %d", id);
+        }
+    }
+
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2015 Sacred Scripture Foundation.
+ * "All scripture is given by inspiration of God, and is profitable for
+ * doctrine, for reproof, for correction, for instruction in righteousness:
+ * That the man of God may be perfect, throughly furnished unto all good
+ * works." (2 Tim 3:16-17)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sacredscripturefoundation.commons;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link BusinessException}.
+ *
+ * @author Paul Benedict
+ * @since 1.0
+ */
+public class BusinessExceptionTest {
+
+    /**
+     * This class is a concrete business exception.
+     */
+    @SuppressWarnings("serial")
+    private static class MockBusinessException extends BusinessException {
+
+        MockBusinessException(String message, Object... args) {
+            super(message, args);
+        }
+
+        MockBusinessException(boolean writableStackTrace, String message, Object... args) {
+            super(writableStackTrace, message, args);
+        }
+
+    }
+
+    /**
+     * This class tallies its string conversions.
+     */
+    private static class CountingArgument {
+
+        int formatted;
+
+        @Override
+        public String toString() {
+            formatted++;
+            return "arg";
+        }
+
+    }
+
+    /**
+     * Verifies the message template is formatted when constructed.
+     */
+    @Test
+    public void testGetMessageFormatsEagerly() {
+        CountingArgument arg = new CountingArgument();
+        BusinessException e = new MockBusinessException("unknown %s", arg);
+        assertEquals(1, arg.formatted);
+        assertEquals("unknown arg", e.getMessage());
+        assertEquals(1, arg.formatted);
+    }
+
+    /**
+     * Verifies the message template of a lightweight exception is formatted
+     * once when first retrieved.
+     */
+    @Test
+    public void testGetMessageFormatsLazily() {
+        CountingArgument arg = new CountingArgument();
+        BusinessException e = new MockBusinessException(true, "unknown %s", arg);
+        assertEquals(0, arg.formatted);
+        assertEquals("unknown arg", e.getMessage());
+        assertEquals("unknown arg", e.getMessage());
+        assertEquals(1, arg.formatted);
+    }
+
+    /**
+     * Verifies the raw template is the message when it does not match its
+     * arguments.
+     */
+    @Test
+    public void testGetMessageMalformed() {
+        assertEquals("unknown %d", new MockBusinessException(false, "unknown %d", "GEN").getMessage());
+        assertEquals("unknown %s %s", new MockBusinessException(false, "unknown %s %s", "GEN").getMessage());
+    }
+
+    /**
+     * Verifies the raw template is the message when an argument cannot be
+     * converted to a string, such as an entity detached from its persistence
+     * context.
+     */
+    @Test
+    public void testGetMessageUnconvertible() {
+        Object detached = new Object() {
+            @Override
+            public String toString() {
+                throw new IllegalStateException("no session");
+            }
+        };
+        assertEquals("unknown %s", new MockBusinessException(false, "unknown %s", detached).getMessage());
+    }
+
+    /**
+     * Verifies the message is {@code null} when no template is provided.
+     */
+    @Test
+    public void testGetMessageNull() {
+        assertNull(new MockBusinessException(false, null, (Object[]) null).getMessage());
+    }
+
+    /**
+     * Verifies the formatted message survives serialization.
+     */
+    @Test
+    public void testSerialization() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(new MockBusinessException(false, "unknown %s", new CountingArgument()));
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            assertEquals("unknown arg", ((BusinessException) in.readObject()).getMessage());
+        }
+    }
+
+    /**
+     * Verifies the stack trace is captured by default.
+     */
+    @Test
+    public void testStackTrace() {
+        assertTrue(new MockBusinessException("unknown").getStackTrace().length > 0);
+    }
+
+    /**
+     * Verifies the lightweight exception has no stack trace and no suppressed
+     * exceptions.
+     */
+    @Test
+    public void testStackless() {
+        BusinessException e = new MockBusinessException(false, "unknown %d", 1);
+        e.addSuppressed(new IllegalStateException());
+        assertEquals(0, e.getStackTrace().length);
+        assertEquals(0, e.getSuppressed().length);
+        assertEquals("unknown 1", e.getMessage());
+    }
+
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) 2015 Sacred Scripture Foundation.
+ * "All scripture is given by inspiration of God, and is profitable for
+ * doctrine, for reproof, for correction, for instruction in righteousness:
+ * That the man of God may be perfect, throughly furnished unto all good
+ * works." (2 Tim 3:16-17)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sacredscripturefoundation.commons;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link CodedRegistry}.
+ *
+ * @author Paul Benedict
+ * @since 1.0
+ */
+public class CodedRegistryTest {
+
+    /**
+     * This class is a mock object with a code.
+     */
+    private static class MockCoded<C> implements Coded<C> {
+
+        private final C code;
+
+        MockCoded(C code) {
+            this.code = code;
+        }
+
+        @Override
+        public C getCode() {
+            return code;
+        }
+
+    }
+
+    private static List<MockCoded<String>> newStringCoded(int size) {
+        List<MockCoded<String>> list = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            list.add(new MockCoded<String>("BOOK" + i));
+        }
+        return list;
+    }
+
+    /**
+     * Verifies the failure to index duplicate codes.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testDuplicateCodes() {
+        List<MockCoded<String>> list = newStringCoded(100);
+        list.add(new MockCoded<String>("BOOK50"));
+        CodedRegistry.of(list);
+    }
+
+    /**
+     * Verifies the failure to index duplicate codes which differ by case.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testDuplicateCodesIgnoreCase() {
+        CodedRegistry.ofIgnoreCase(Arrays.asList(new MockCoded<String>("gen"), new MockCoded<String>("GEN")));
+    }
+
+    /**
+     * Verifies the empty registry has no matches.
+     */
+    @Test
+    public void testEmpty() {
+        CodedRegistry<String, MockCoded<String>> registry = CodedRegistry.of(Collections.<MockCoded<String>> emptyList());
+        assertEquals(0, registry.size());
+        assertNull(registry.get("GEN"));
+    }
+
+    /**
+     * Verifies the empty registry resolves integer codes to no matches.
+     */
+    @Test
+    public void testEmptyIntCodes() {
+        CodedRegistry<Integer, MockCoded<Integer>> registry = CodedRegistry.of(Collections.<MockCoded<Integer>> emptyList());
+        assertNull(registry.get(5));
+        assertNull(registry.get(Integer.valueOf(5)));
+    }
+
+    /**
+     * Verifies integer codes are resolved with and without boxing.
+     */
+    @Test
+    public void testIntCodes() {
+        List<MockCoded<Integer>> list = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            list.add(new MockCoded<Integer>(i * 7 - 3000));
+        }
+        CodedRegistry<Integer, MockCoded<Integer>> registry = CodedRegistry.of(list);
+        for (MockCoded<Integer> coded : list) {
+            assertSame(coded, registry.get(coded.getCode().intValue()));
+            assertSame(coded, registry.get(coded.getCode()));
+        }
+        assertNull(registry.get(1));
+    }
+
+    /**
+     * Verifies the failure to resolve integer codes of other codes.
+     */
+    @Test(expected = UnsupportedOperationException.class)
+    public void testIntCodesUnsupported() {
+        CodedRegistry.of(newStringCoded(3)).get(1);
+    }
+
+    /**
+     * Verifies codes which share hash codes are resolved.
+     */
+    @Test
+    public void testHashCollisions() {
+        List<MockCoded<String>> list = newStringCoded(100);
+        list.add(new MockCoded<String>("Aa"));
+        list.add(new MockCoded<String>("BB"));
+        CodedRegistry<String, MockCoded<String>> registry = CodedRegistry.of(list);
+        for (MockCoded<String> coded : list) {
+            assertSame(coded, registry.get(coded.getCode()));
+        }
+    }
+
+    /**
+     * Verifies string codes are matched without regard to case.
+     */
+    @Test
+    public void testIgnoreCase() {
+        List<MockCoded<String>> list = newStringCoded(100);
+        CodedRegistry<String, MockCoded<String>> registry = CodedRegistry.ofIgnoreCase(list);
+        assertSame(list.get(42), registry.get("book42"));
+        assertSame(list.get(7), registry.get("Book7"));
+        assertNull(registry.get("book100"));
+    }
+
+    /**
+     * Verifies every code of a large set is resolved by perfect hash.
+     */
+    @Test
+    public void testLarge() {
+        List<MockCoded<String>> list = newStringCoded(5000);
+        CodedRegistry<String, MockCoded<String>> registry = CodedRegistry.of(list);
+        assertEquals(5000, registry.size());
+        for (MockCoded<String> coded : list) {
+            assertSame(coded, registry.get(coded.getCode()));
+        }
+        assertNull(registry.get("BOOK5000"));
+        assertNull(registry.get("book1"));
+        assertNull(registry.get(null));
+    }
+
+    /**
+     * Verifies the failure to index a {@code null} code.
+     */
+    @Test(expected = NullPointerException.class)
+    public void testNullCode() {
+        CodedRegistry.of(Arrays.asList(new MockCoded<String>(null)));
+    }
+
+    /**
+     * Verifies every code of a small set is resolved by binary search.
+     */
+    @Test
+    public void testSmall() {
+        List<MockCoded<String>> list = newStringCoded(CodedRegistry.MAX_SORTED_SIZE);
+        CodedRegistry<String, MockCoded<String>> registry = CodedRegistry.of(list);
+        for (MockCoded<String> coded : list) {
+            assertSame(coded, registry.get(coded.getCode()));
+        }
+        assertNull(registry.get("GEN"));
+    }
+
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2015 Sacred Scripture Foundation.
+ * "All scripture is given by inspiration of God, and is profitable for
+ * doctrine, for reproof, for correction, for instruction in righteousness:
+ * That the man of God may be perfect, throughly furnished unto all good
+ * works." (2 Tim 3:16-17)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sacredscripturefoundation.commons;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.AbstractList;
+import java.util.ArrayList;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link ConstructorProvider}.
+ *
+ * @author Paul Benedict
+ * @since 1.0
+ */
+public class ConstructorProviderTest {
+
+    public static class CheckedFailure {
+        public CheckedFailure() throws IOException {
+            throw new IOException("checked");
+        }
+    }
+
+    public static class UncheckedFailure {
+        public UncheckedFailure() {
+            throw new IllegalStateException("unchecked");
+        }
+    }
+
+    public static class NoDefaultConstructor {
+        public NoDefaultConstructor(String s) {
+            // empty
+        }
+    }
+
+    /**
+     * Verifies the failure to provide an abstract class.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testAbstract() {
+        new ConstructorProvider<>(AbstractList.class);
+    }
+
+    /**
+     * Verifies checked constructor exceptions are wrapped.
+     */
+    @Test
+    public void testCheckedException() {
+        try {
+            new ConstructorProvider<>(CheckedFailure.class).get();
+            fail();
+        } catch (RuntimeException e) {
+            assertTrue(e.getCause() instanceof IOException);
+        }
+    }
+
+    /**
+     * Verifies a new instance is provided on every call.
+     */
+    @Test
+    public void testGet() {
+        ConstructorProvider<ArrayList> provider = new ConstructorProvider<>(ArrayList.class);
+        ArrayList<?> list = provider.get();
+        assertEquals(0, list.size());
+        assertNotSame(list, provider.get());
+    }
+
+    /**
+     * Verifies the failure to provide a class without a no-arg constructor.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testNoDefaultConstructor() {
+        new ConstructorProvider<>(NoDefaultConstructor.class);
+    }
+
+    /**
+     * Verifies the failure to provide a {@code null} class.
+     */
+    @Test(expected = NullPointerException.class)
+    public void testNullClass() {
+        new ConstructorProvider<>(null);
+    }
+
+    /**
+     * Verifies unchecked constructor exceptions are thrown as-is.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void testUncheckedException() {
+        new ConstructorProvider<>(UncheckedFailure.class).get();
+    }
+
+}
@@ -128,4 +128,15 @@ public class CountImplTest {
         assertEquals(10, CountImpl.total(counts));
     }
 
+    /**
+     * Verifies the collection of counts tally up beyond the integer range.
+     */
+    @Test
+    public void testTotalLong() {
+        LinkedList<Count<Object>> counts = new LinkedList<Count<Object>>();
+        counts.add(new LongCountImpl<Object>(Integer.MAX_VALUE, new Object()));
+        counts.add(new CountImpl<Object>(1, new Object()));
+        assertEquals(Integer.MAX_VALUE + 1L, CountImpl.totalLong(counts));
+    }
+
 }
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2015 Sacred Scripture Foundation.
+ * "All scripture is given by inspiration of God, and is profitable for
+ * doctrine, for reproof, for correction, for instruction in righteousness:
+ * That the man of God may be perfect, throughly furnished unto all good
+ * works." (2 Tim 3:16-17)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sacredscripturefoundation.commons;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link DeferredCount}.
+ *
+ * @author Paul Benedict
+ * @since 1.0
+ */
+public class DeferredCountTest {
+
+    private int calls;
+    private Callable<Long> counter;
+
+    @Before
+    public void setUp() {
+        counter = new Callable<Long>() {
+            @Override
+            public Long call() {
+                calls++;
+                return 42L;
+            }
+        };
+    }
+
+    /**
+     * Verifies the count completed by a future.
+     */
+    @Test
+    public void testCompletionStage() {
+        CompletableFuture<Long> future = new CompletableFuture<>();
+        Object counted = new Object();
+        DeferredCount<Object> count = new DeferredCount<>(future, counted);
+        assertSame(counted, count.getCounted());
+        assertFalse(count.isCountDone());
+        future.complete(7L);
+        assertTrue(count.isCountDone());
+        assertEquals(7, count.getCount());
+    }
+
+    /**
+     * Verifies a failure to count is thrown as-is.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void testCompletionStageFailed() {
+        CompletableFuture<Long> future = new CompletableFuture<>();
+        future.completeExceptionally(new IllegalStateException());
+        new DeferredCount<>(future, new Object()).getCount();
+    }
+
+    /**
+     * Verifies the failure to construct with a {@code null} counted object.
+     */
+    @Test(expected = NullPointerException.class)
+    public void testConstructorNullCounted() {
+        new DeferredCount<>(counter, null);
+    }
+
+    /**
+     * Verifies the lazy count is computed once on first use.
+     */
+    @Test
+    public void testLazy() {
+        DeferredCount<Object> count = new DeferredCount<>(counter, new Object());
+        assertEquals(0, calls);
+        assertFalse(count.isCountDone());
+        assertEquals(42, count.getCount());
+        assertEquals(42, count.getCount());
+        assertEquals(1, calls);
+    }
+
+    /**
+     * Verifies a negative count fails.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegative() {
+        new DeferredCount<>(CompletableFuture.completedFuture(-1), new Object()).getCount();
+    }
+
+    /**
+     * Verifies a count which does not fit into an {@code int} fails.
+     */
+    @Test(expected = ArithmeticException.class)
+    public void testOverflow() {
+        new DeferredCount<>(CompletableFuture.completedFuture(Long.MAX_VALUE), new Object()).getCount();
+    }
+
+}
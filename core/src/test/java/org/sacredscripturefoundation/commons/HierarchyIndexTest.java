@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2015 Sacred Scripture Foundation.
+ * "All scripture is given by inspiration of God, and is profitable for
+ * doctrine, for reproof, for correction, for instruction in righteousness:
+ * That the man of God may be perfect, throughly furnished unto all good
+ * works." (2 Tim 3:16-17)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sacredscripturefoundation.commons;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link HierarchyIndex}.
+ *
+ * @author Paul Benedict
+ * @since 1.0
+ */
+public class HierarchyIndexTest {
+
+    /**
+     * This class is a mock object of a hierarchy.
+     */
+    private static class MockNode implements ParentProvider<MockNode> {
+
+        private final String name;
+        private MockNode parent;
+
+        MockNode(String name, MockNode parent) {
+            this.name = name;
+            this.parent = parent;
+        }
+
+        @Override
+        public MockNode getParent() {
+            return parent;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+
+    }
+
+    private MockNode genesis;
+    private MockNode genesis1;
+    private MockNode genesis1v1;
+    private MockNode genesis2;
+    private MockNode exodus;
+    private HierarchyIndex<MockNode> index;
+
+    @Before
+    public void setUp() {
+        genesis = new MockNode("Gen", null);
+        genesis1 = new MockNode("Gen 1", genesis);
+        genesis1v1 = new MockNode("Gen 1:1", genesis1);
+        genesis2 = new MockNode("Gen 2", genesis);
+        exodus = new MockNode("Exod", null);
+        index = new HierarchyIndex<>(Arrays.asList(genesis1v1, genesis2, exodus));
+    }
+
+    /**
+     * Verifies the ancestors of the indexed objects are indexed too.
+     */
+    @Test
+    public void testAddsAncestors() {
+        assertEquals(5, index.size());
+        assertTrue(index.contains(genesis));
+        assertTrue(index.contains(genesis1));
+    }
+
+    /**
+     * Verifies incremental inserts keep the ancestry and pre-order, including
+     * when the free space is exhausted.
+     */
+    @Test
+    public void testAddIncremental() {
+        List<MockNode> verses = new ArrayList<>();
+        verses.add(genesis1v1);
+        for (int i = 2; i <= 200; i++) {
+            MockNode verse = new MockNode("Gen 1:" + i, genesis1);
+            index.add(verse);
+            verses.add(verse);
+            assertTrue(index.isAncestor(genesis, verse));
+            assertFalse(index.isAncestor(genesis2, verse));
+        }
+        assertEquals(verses, index.getDescendants(genesis1));
+
+        MockNode numbers = new MockNode("Num", null);
+        MockNode numbers1 = new MockNode("Num 1", numbers);
+        index.add(numbers1);
+        assertTrue(index.isAncestor(numbers, numbers1));
+        assertEquals(Arrays.asList(numbers1), index.getDescendants(numbers));
+    }
+
+    /**
+     * Verifies the failure to index a cyclic parent chain.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testAddCycle() {
+        MockNode a = new MockNode("a", null);
+        MockNode b = new MockNode("b", a);
+        a.parent = b;
+        index.add(a);
+    }
+
+    /**
+     * Verifies a failed bulk insert leaves the index unchanged and usable.
+     */
+    @Test
+    public void testAddAllFailure() {
+        MockNode leviticus = new MockNode("Lev", null);
+        MockNode leviticus1 = new MockNode("Lev 1", leviticus);
+        MockNode a = new MockNode("a", null);
+        MockNode b = new MockNode("b", a);
+        a.parent = b;
+        for (List<MockNode> values : Arrays.asList(Arrays.asList(leviticus1, a), Arrays.asList(leviticus1, null))) {
+            try {
+                index.addAll(values);
+                fail();
+            } catch (IllegalArgumentException | NullPointerException e) {
+                // expected
+            }
+        }
+        assertEquals(5, index.size());
+        assertFalse(index.contains(leviticus1));
+
+        index.add(leviticus1);
+        assertTrue(index.isAncestor(leviticus, leviticus1));
+        assertFalse(index.isAncestor(genesis, leviticus1));
+        assertEquals(Arrays.asList(genesis1, genesis1v1, genesis2), index.getDescendants(genesis));
+    }
+
+    /**
+     * Verifies the descendants are retrieved in pre-order.
+     */
+    @Test
+    public void testGetDescendants() {
+        assertEquals(Arrays.asList(genesis1, genesis1v1, genesis2), index.getDescendants(genesis));
+        assertEquals(Arrays.asList(genesis1v1), index.getDescendants(genesis1));
+        assertTrue(index.getDescendants(exodus).isEmpty());
+        assertTrue(index.getDescendants(new MockNode("Lev", null)).isEmpty());
+    }
+
+    /**
+     * Verifies the ancestor checks.
+     */
+    @Test
+    public void testIsAncestor() {
+        assertTrue(index.isAncestor(genesis, genesis1v1));
+        assertTrue(index.isAncestor(genesis1, genesis1v1));
+        assertFalse(index.isAncestor(genesis1v1, genesis));
+        assertFalse(index.isAncestor(genesis, genesis));
+        assertFalse(index.isAncestor(genesis2, genesis1v1));
+        assertFalse(index.isAncestor(exodus, genesis1));
+        assertFalse(index.isAncestor(new MockNode("Lev", null), genesis1));
+    }
+
+}
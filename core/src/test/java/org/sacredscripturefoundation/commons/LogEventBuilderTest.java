@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2015 Sacred Scripture Foundation.
+ * "All scripture is given by inspiration of God, and is profitable for
+ * doctrine, for reproof, for correction, for instruction in righteousness:
+ * That the man of God may be perfect, throughly furnished unto all good
+ * works." (2 Tim 3:16-17)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sacredscripturefoundation.commons;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.lang.reflect.Field;
+import java.util.function.Supplier;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link LogEventBuilder}.
+ *
+ * @author Paul Benedict
+ * @since 1.0
+ */
+public class LogEventBuilderTest {
+
+    private RecordingLogger log;
+    private Logger logger;
+
+    @Before
+    public void setUp() {
+        log = new RecordingLogger();
+        logger = new Logger(log);
+    }
+
+    /**
+     * Verifies a disabled level evaluates no supplier and writes nothing.
+     */
+    @Test
+    public void testDisabled() {
+        final boolean[] evaluated = new boolean[1];
+        logger.atDebug("skipped").field("expensive", new Supplier<Object>() {
+            @Override
+            public Object get() {
+                evaluated[0] = true;
+                return "value";
+            }
+        }).log();
+        assertTrue(log.messages.isEmpty());
+        assertFalse(evaluated[0]);
+        assertSame(logger.atDebug("a"), logger.atDebug("b"));
+    }
+
+    /**
+     * Verifies the shared builder of a disabled level does not retain a
+     * throwable.
+     */
+    @Test
+    public void testDisabledCause() throws ReflectiveOperationException {
+        LogEventBuilder event = logger.atDebug("skipped").cause(new Exception());
+        Field t = LogEventBuilder.class.getDeclaredField("t");
+        t.setAccessible(true);
+        assertNull(t.get(event));
+    }
+
+    /**
+     * Verifies text is escaped for JSON.
+     */
+    @Test
+    public void testEscaping() {
+        logger.atInfo("say \"hi\"").field("path", "C:\\tmp\n\u0001").log();
+        assertEquals("{\"msg\":\"say \\\"hi\\\"\",\"path\":\"C:\\\\tmp\\n\\u0001\"}", log.messages.get(0));
+    }
+
+    /**
+     * Verifies keys are escaped for JSON.
+     */
+    @Test
+    public void testEscapingKeys() {
+        logger.atInfo("x").field("a\"b\\c", 1).log();
+        assertEquals("{\"msg\":\"x\",\"a\\\"b\\\\c\":1}", log.messages.get(0));
+    }
+
+    /**
+     * Verifies a character is written as a string rather than widened to
+     * its numeric code.
+     */
+    @Test
+    public void testFieldChar() {
+        logger.atInfo("x").field("c", 'A').field("q", '"').field("nl", '\n').log();
+        assertEquals("{\"msg\":\"x\",\"c\":\"A\",\"q\":\"\\\"\",\"nl\":\"\\n\"}", log.messages.get(0));
+    }
+
+    /**
+     * Verifies every object overload writes a cast {@code null} as a JSON
+     * {@code null}.
+     */
+    @Test
+    public void testFieldNull() {
+        logger.atInfo("x")
+                .field("o", (Object) null)
+                .field("s", (CharSequence) null)
+                .field("p", (Supplier<?>) null)
+                .log();
+        assertEquals("{\"msg\":\"x\",\"o\":null,\"s\":null,\"p\":null}", log.messages.get(0));
+    }
+
+    /**
+     * Verifies typed fields are rendered as JSON literals.
+     */
+    @Test
+    public void testFields() {
+        Exception cause = new Exception();
+        logger.atInfo("Page loaded")
+                .field("entity", "Book")
+                .field("rows", 25)
+                .field("ratio", 0.5)
+                .field("cached", true)
+                .field("id", (Object) 42L)
+                .field("none", (Object) null)
+                .field("nan", Double.NaN)
+                .field("lazy", new Supplier<Object>() {
+                    @Override
+                    public Object get() {
+                        return "computed";
+                    }
+                })
+                .cause(cause)
+                .log();
+        assertEquals("{\"msg\":\"Page loaded\",\"entity\":\"Book\",\"rows\":25,\"ratio\":0.5,\"cached\":true,\"id\":42,\"none\":null,\"nan\":\"NaN\",\"lazy\":\"computed\"}", log.messages.get(0));
+        assertSame(cause, log.throwables.get(0));
+    }
+
+    /**
+     * Verifies a failing supplier discards the event and returns the buffer to
+     * the thread.
+     */
+    @Test
+    public void testFieldSupplierFailure() {
+        StringBuilder buf = Logger.acquireBuffer();
+        Logger.releaseBuffer(buf);
+        LogEventBuilder event = logger.atInfo("failed");
+        try {
+            event.field("bad", new Supplier<Object>() {
+                @Override
+                public Object get() {
+                    throw new IllegalStateException();
+                }
+            });
+            fail();
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        event.log();
+        assertTrue(log.messages.isEmpty());
+        assertSame(buf, Logger.acquireBuffer());
+    }
+
+    /**
+     * Verifies a second call to finish the event writes nothing.
+     */
+    @Test
+    public void testLogOnce() {
+        LogEventBuilder event = logger.atInfo("once");
+        event.log();
+        event.log();
+        assertEquals(1, log.messages.size());
+    }
+
+}
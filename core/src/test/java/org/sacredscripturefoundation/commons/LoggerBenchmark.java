@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2015 Sacred Scripture Foundation.
+ * "All scripture is given by inspiration of God, and is profitable for
+ * doctrine, for reproof, for correction, for instruction in righteousness:
+ * That the man of God may be perfect, throughly furnished unto all good
+ * works." (2 Tim 3:16-17)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sacredscripturefoundation.commons;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * JMH benchmark of {@link Logger#formatMessage(String, Object...)} and its
+ * fixed-arity overloads against the original {@code StringBuffer}
+ * implementation. Run with the GC profiler to compare allocation rates.
+ *
+ * @author Paul Benedict
+ * @since 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoggerBenchmark {
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(LoggerBenchmark.class.getSimpleName()).addProfiler(GCProfiler.class).build()).run();
+    }
+
+    /**
+     * The original implementation retained for comparison.
+     */
+    static String legacyFormatMessage(String message, Object... params) {
+        if (params == null || params.length == 0) {
+            return message;
+        }
+
+        StringBuffer buf = null;
+        int len = message.length();
+        int pos = 0;
+        int paramIndex = 0;
+
+        while ((pos < len) && (paramIndex < params.length)) {
+            int lBracePos = message.indexOf('{', pos);
+            if (lBracePos == -1) {
+                break;
+            }
+            int rBracePos = message.indexOf('}', lBracePos);
+            if ((rBracePos == -1) || (rBracePos > (lBracePos + 1))) {
+                break;
+            }
+            if (buf == null) {
+                buf = new StringBuffer(message.length() + (params.length * 16));
+            }
+            buf.append(message.substring(pos, lBracePos));
+            buf.append(params[paramIndex++]);
+            pos = rBracePos + 1;
+        }
+
+        String retMsg;
+        if (buf != null) {
+            if (pos < len) {
+                buf.append(message.substring(pos));
+            }
+            retMsg = buf.toString();
+        } else {
+            retMsg = message;
+        }
+        return retMsg;
+    }
+
+    private final String message1 = "Loaded entity {} from the database";
+    private final String message3 = "Loaded {} rows of {} in {} ms";
+    private final Long id = 42L;
+    private final String name = "Book";
+    private final Integer elapsed = 17;
+
+    @Benchmark
+    public String legacy1() {
+        return legacyFormatMessage(message1, id);
+    }
+
+    @Benchmark
+    public String legacy3() {
+        return legacyFormatMessage(message3, id, name, elapsed);
+    }
+
+    @Benchmark
+    public String reused1() {
+        return Logger.formatMessage(message1, id);
+    }
+
+    @Benchmark
+    public String reused3() {
+        return Logger.formatMessage(message3, id, name, elapsed);
+    }
+
+    @Benchmark
+    public String reusedVarargs() {
+        return Logger.formatMessage(message3, new Object[] { id, name, elapsed });
+    }
+
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2015 Sacred Scripture Foundation.
+ * "All scripture is given by inspiration of God, and is profitable for
+ * doctrine, for reproof, for correction, for instruction in righteousness:
+ * That the man of God may be perfect, throughly furnished unto all good
+ * works." (2 Tim 3:16-17)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sacredscripturefoundation.commons;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.log4j.Level;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * JMH benchmark of disabled debug statements. The eager and varargs forms
+ * compute their arguments or allocate their array before the level is
+ * checked. The supplier form skips the computation, but its lambdas capture
+ * the benchmark and are passed in a varargs array; both are allocated unless
+ * the JIT compiler eliminates them, which the GC profiler shows. Only the
+ * guarded form reliably approaches the cost of the empty baseline.
+ *
+ * @author Paul Benedict
+ * @since 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoggerDisabledBenchmark {
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(LoggerDisabledBenchmark.class.getSimpleName()).addProfiler(GCProfiler.class).build()).run();
+    }
+
+    private final Logger logger = new Logger(LoggerDisabledBenchmark.class);
+    private final List<String> rows = Arrays.asList("Genesis", "Exodus", "Leviticus", "Numbers");
+    private final Long id = 42L;
+
+    @Benchmark
+    public void baseline() {
+        // empty
+    }
+
+    @Benchmark
+    public void eager() {
+        logger.debug("Loaded {} with {}", id, rows.toString());
+    }
+
+    @Benchmark
+    public void guarded() {
+        if (logger.isDebugEnabled()) {
+            logger.debug("Loaded {} with {}", id, rows.toString());
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        org.apache.log4j.Logger.getRootLogger().setLevel(Level.INFO);
+    }
+
+    @Benchmark
+    public void supplier() {
+        logger.debug("Loaded {} with {}", () -> id, () -> rows.toString());
+    }
+
+    @Benchmark
+    public void varargs() {
+        logger.debug("Loaded {}, {}, {} and {}", id, rows.size(), rows.get(0), rows.get(1));
+    }
+
+}
@@ -20,7 +20,15 @@
 package org.sacredscripturefoundation.commons;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+import org.apache.log4j.Level;
 import org.junit.Test;
 
 /**
@@ -31,6 +39,42 @@ import org.junit.Test;
  */
 public class LoggerTest {
 
+    /**
+     * Creates a supplier which fails the test when invoked.
+     */
+    private static Supplier<Object> failingSupplier() {
+        return new Supplier<Object>() {
+            @Override
+            public Object get() {
+                throw new AssertionError("Supplier invoked for a disabled level");
+            }
+        };
+    }
+
+    /**
+     * Writes one event at each level, naming the level, through a
+     * supplier parameter.
+     */
+    private static void logEachLevel(Logger logger, boolean enabled) {
+        logger.trace("{}", enabled ? supplierOf("trace") : failingSupplier());
+        logger.debug("{}", enabled ? supplierOf("debug") : failingSupplier());
+        logger.info("{}", enabled ? supplierOf("info") : failingSupplier());
+        logger.error("{}", enabled ? supplierOf("error") : failingSupplier());
+        logger.fatal("{}", enabled ? supplierOf("fatal") : failingSupplier());
+    }
+
+    /**
+     * Creates a supplier of the specified value.
+     */
+    private static Supplier<Object> supplierOf(final Object value) {
+        return new Supplier<Object>() {
+            @Override
+            public Object get() {
+                return value;
+            }
+        };
+    }
+
     @Test
     public void testFormat1PosEnd1Arg() {
         assertEquals("AB", Logger.formatMessage("A{}", "B"));
@@ -51,6 +95,38 @@ public class LoggerTest {
         assertEquals("AB", Logger.formatMessage("{}{}", "A", "B"));
     }
 
+    /**
+     * Verifies three parameters are substituted by the fixed-arity overload.
+     */
+    @Test
+    public void testFormat3Pos3Args() {
+        assertEquals("1-2-3", Logger.formatMessage("{}-{}-{}", 1, 2, 3));
+    }
+
+    /**
+     * Verifies a parameter whose string form is itself formatted does not
+     * disturb the message being formatted.
+     */
+    @Test
+    public void testFormatNested() {
+        Object nested = new Object() {
+            @Override
+            public String toString() {
+                return Logger.formatMessage("<{}>", "B");
+            }
+        };
+        assertEquals("A<B>C", Logger.formatMessage("A{}C", nested));
+        assertEquals("xy", Logger.formatMessage("x{}", "y"));
+    }
+
+    /**
+     * Verifies a {@code null} parameter is rendered as text.
+     */
+    @Test
+    public void testFormatNullParam() {
+        assertEquals("Anull", Logger.formatMessage("A{}", (Object) null));
+    }
+
     @Test
     public void testFormatBracesTooWide() {
         assertEquals("A { }", Logger.formatMessage("A { }", "B"));
@@ -93,4 +169,122 @@ public class LoggerTest {
         assertEquals("AB", Logger.formatMessage("{}{}", "A", "B", "C"));
     }
 
+    /**
+     * Verifies every level writes when the threshold is the lowest level.
+     */
+    @Test
+    public void testLevelsEnabled() {
+        RecordingLogger log = new RecordingLogger();
+        log.threshold = Level.TRACE;
+        Logger logger = new Logger(log);
+        logEachLevel(logger, true);
+        assertEquals(Arrays.asList("trace", "debug", "info", "error", "fatal"), log.messages);
+        assertTrue(logger.isTraceEnabled());
+        assertTrue(logger.isDebugEnabled());
+        assertTrue(logger.isInfoEnabled());
+    }
+
+    /**
+     * Verifies no level writes or invokes its suppliers when logging is off.
+     */
+    @Test
+    public void testLevelsDisabled() {
+        RecordingLogger log = new RecordingLogger();
+        log.threshold = Level.OFF;
+        Logger logger = new Logger(log);
+        logEachLevel(logger, false);
+        logger.error("x");
+        logger.fatal("x", "y", "z", "w", "v");
+        assertTrue(log.messages.isEmpty());
+        assertFalse(logger.isTraceEnabled());
+        assertFalse(logger.isDebugEnabled());
+        assertFalse(logger.isInfoEnabled());
+    }
+
+    /**
+     * Verifies only the levels at or above the threshold write.
+     */
+    @Test
+    public void testLevelsThreshold() {
+        RecordingLogger log = new RecordingLogger();
+        log.threshold = Level.ERROR;
+        Logger logger = new Logger(log);
+        logger.trace("{}", "trace");
+        logger.debug("{}", "debug");
+        logger.info("{}", "info");
+        logger.error("{}", "error");
+        logger.fatal("{}", "fatal");
+        assertEquals(Arrays.asList("error", "fatal"), log.messages);
+    }
+
+    /**
+     * Verifies a {@code null} literal parameter is an empty parameter list, as
+     * it was before the fixed-arity overloads existed.
+     */
+    @Test
+    public void testNullLiteral() {
+        RecordingLogger log = new RecordingLogger();
+        Logger logger = new Logger(log);
+        logger.info("x {}", null);
+        assertEquals("x {}", log.messages.get(0));
+    }
+
+    /**
+     * Verifies suppliers are not invoked when the level is disabled.
+     */
+    @Test
+    public void testSupplierDisabled() {
+        RecordingLogger log = new RecordingLogger();
+        Logger logger = new Logger(log);
+        logger.debug("{}", failingSupplier());
+        logger.debug("{}{}", failingSupplier(), failingSupplier());
+        logger.debug("{}{}{}", failingSupplier(), failingSupplier(), failingSupplier());
+        assertTrue(log.messages.isEmpty());
+    }
+
+    /**
+     * Verifies suppliers are invoked and substituted when the level is
+     * enabled.
+     */
+    @Test
+    public void testSupplierEnabled() {
+        RecordingLogger log = new RecordingLogger();
+        Logger logger = new Logger(log);
+        logger.info("{}-{}-{}", supplierOf("A"), supplierOf(1), supplierOf(null));
+        assertEquals("A-1-null", log.messages.get(0));
+    }
+
+    /**
+     * Verifies lambda parameters are invoked and substituted when the level is
+     * enabled.
+     */
+    @Test
+    public void testSupplierLambdas() {
+        RecordingLogger log = new RecordingLogger();
+        Logger logger = new Logger(log);
+        logger.info("{}-{}", () -> "A", () -> 1);
+        logger.debug("{}", () -> {
+            throw new AssertionError("Supplier invoked for a disabled level");
+        });
+        assertEquals(1, log.messages.size());
+        assertEquals("A-1", log.messages.get(0));
+    }
+
+    /**
+     * Verifies a sole throwable parameter is the cause of the event and not a
+     * message parameter.
+     */
+    @Test
+    public void testThrowableParam() {
+        RecordingLogger log = new RecordingLogger();
+        Logger logger = new Logger(log);
+        Exception cause = new Exception();
+        logger.info("failed {}", cause);
+        logger.info("failed {}", "X");
+        assertEquals("failed {}", log.messages.get(0));
+        assertSame(cause, log.throwables.get(0));
+        assertEquals("failed X", log.messages.get(1));
+        assertNull(log.throwables.get(1));
+    }
+
 }
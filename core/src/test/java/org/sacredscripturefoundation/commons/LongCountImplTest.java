@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2015 Sacred Scripture Foundation.
+ * "All scripture is given by inspiration of God, and is profitable for
+ * doctrine, for reproof, for correction, for instruction in righteousness:
+ * That the man of God may be perfect, throughly furnished unto all good
+ * works." (2 Tim 3:16-17)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sacredscripturefoundation.commons;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link LongCountImpl}.
+ *
+ * @author Paul Benedict
+ * @since 1.0
+ */
+public class LongCountImplTest {
+
+    private LongCountImpl<Object> count;
+
+    @Before
+    public void setUp() throws Exception {
+        count = new LongCountImpl<Object>();
+    }
+
+    /**
+     * Verifies the initial values after construction.
+     */
+    @Test
+    public void testConstructor() {
+        assertEquals(0L, count.getLongCount());
+        assertNull(count.getCounted());
+    }
+
+    /**
+     * Verifies constructing with the provided count and object.
+     */
+    @Test
+    public void testConstructorWithCountAndObject() {
+        Object o = new Object();
+        count = new LongCountImpl<Object>(1L, o);
+        assertEquals(1, count.getCount());
+        assertEquals(1L, count.getLongCount());
+        assertSame(o, count.getCounted());
+    }
+
+    /**
+     * Verifies the failure to narrow a count beyond the integer range.
+     */
+    @Test(expected = ArithmeticException.class)
+    public void testGetCountOverflow() {
+        count.setCount(Integer.MAX_VALUE + 1L);
+        count.getCount();
+    }
+
+    /**
+     * Verifies the count is preserved beyond the integer range.
+     */
+    @Test
+    public void testSetCountLong() {
+        count.setCount(Long.MAX_VALUE);
+        assertEquals(Long.MAX_VALUE, count.getLongCount());
+    }
+
+    /**
+     * Verifies the failure to set a null counted.
+     */
+    @Test(expected = NullPointerException.class)
+    public void testSetCountedNull() {
+        count.setCounted(null);
+    }
+
+    /**
+     * Verifies the failure to set a negative count.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testSetCountNegative() {
+        count.setCount(-1L);
+    }
+
+}
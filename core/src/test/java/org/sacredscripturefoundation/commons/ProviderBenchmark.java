@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2015 Sacred Scripture Foundation.
+ * "All scripture is given by inspiration of God, and is profitable for
+ * doctrine, for reproof, for correction, for instruction in righteousness:
+ * That the man of God may be perfect, throughly furnished unto all good
+ * works." (2 Tim 3:16-17)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sacredscripturefoundation.commons;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * JMH benchmark of {@link ConstructorProvider} and {@link RecyclingProvider}
+ * against the reflective {@link InstanceProvider} and a direct constructor
+ * call. The recycled object is a large buffer, which is where pooling pays
+ * off.
+ *
+ * @author Paul Benedict
+ * @since 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProviderBenchmark {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ProviderBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    @SuppressWarnings("rawtypes")
+    private final InstanceProvider<ArrayList> reflective = new InstanceProvider<>(ArrayList.class);
+    @SuppressWarnings("rawtypes")
+    private final ConstructorProvider<ArrayList> handle = new ConstructorProvider<>(ArrayList.class);
+    private final Provider<byte[]> buffers = new Provider<byte[]>() {
+        @Override
+        public byte[] get() {
+            return new byte[BUFFER_SIZE];
+        }
+    };
+    private final RecyclingProvider<byte[]> recycled = new RecyclingProvider<>(buffers, 16);
+
+    @Benchmark
+    public Object bufferNew() {
+        return buffers.get();
+    }
+
+    @Benchmark
+    public Object bufferRecycled() {
+        byte[] buffer = recycled.get();
+        recycled.recycle(buffer);
+        return buffer;
+    }
+
+    @Benchmark
+    public Object constructorProvider() {
+        return handle.get();
+    }
+
+    @Benchmark
+    public Object direct() {
+        return new ArrayList<Object>();
+    }
+
+    @Benchmark
+    public Object instanceProvider() {
+        return reflective.get();
+    }
+
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2015 Sacred Scripture Foundation.
+ * "All scripture is given by inspiration of God, and is profitable for
+ * doctrine, for reproof, for correction, for instruction in righteousness:
+ * That the man of God may be perfect, throughly furnished unto all good
+ * works." (2 Tim 3:16-17)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sacredscripturefoundation.commons;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.log4j.Level;
+import org.apache.log4j.Priority;
+
+/**
+ * This class is a Log4J logger which records the written messages, their
+ * throwables and the writing threads. Levels below the {@link #threshold},
+ * which is info unless changed, are disabled. A held logger blocks every write until {@link #released}, which lets tests
+ * occupy a background writer.
+ *
+ * @author Paul Benedict
+ * @since 1.0
+ */
+class RecordingLogger extends org.apache.log4j.Logger {
+
+    final List<Object> messages = Collections.synchronizedList(new ArrayList<Object>());
+    final List<Throwable> throwables = Collections.synchronizedList(new ArrayList<Throwable>());
+    final List<Thread> threads = Collections.synchronizedList(new ArrayList<Thread>());
+    final CountDownLatch entered = new CountDownLatch(1);
+    final CountDownLatch released;
+    volatile Level threshold = Level.INFO;
+
+    /**
+     * Constructs a logger which writes without blocking.
+     */
+    RecordingLogger() {
+        this(false);
+    }
+
+    /**
+     * Constructs a logger which optionally blocks writes until released.
+     *
+     * @param held {@code true} to block writes; otherwise {@code false}
+     */
+    RecordingLogger(boolean held) {
+        super("test");
+        released = new CountDownLatch(held ? 1 : 0);
+    }
+
+    @Override
+    public boolean isDebugEnabled() {
+        return isEnabledFor(Level.DEBUG);
+    }
+
+    @Override
+    public boolean isEnabledFor(Priority level) {
+        return level.isGreaterOrEqual(threshold);
+    }
+
+    @Override
+    public boolean isInfoEnabled() {
+        return isEnabledFor(Level.INFO);
+    }
+
+    @Override
+    public boolean isTraceEnabled() {
+        return isEnabledFor(Level.TRACE);
+    }
+
+    @Override
+    public void log(Priority priority, Object message, Throwable t) {
+        entered.countDown();
+        try {
+            released.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        messages.add(message);
+        throwables.add(t);
+        threads.add(Thread.currentThread());
+    }
+
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2015 Sacred Scripture Foundation.
+ * "All scripture is given by inspiration of God, and is profitable for
+ * doctrine, for reproof, for correction, for instruction in righteousness:
+ * That the man of God may be perfect, throughly furnished unto all good
+ * works." (2 Tim 3:16-17)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sacredscripturefoundation.commons;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.function.Consumer;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link RecyclingProvider}.
+ *
+ * @author Paul Benedict
+ * @since 1.0
+ */
+public class RecyclingProviderTest {
+
+    private int created;
+    private RecyclingProvider<StringBuilder> provider;
+
+    @Before
+    public void setUp() {
+        provider = new RecyclingProvider<>(new Provider<StringBuilder>() {
+            @Override
+            public StringBuilder get() {
+                created++;
+                return new StringBuilder();
+            }
+        }, 1, new Consumer<StringBuilder>() {
+            @Override
+            public void accept(StringBuilder sb) {
+                sb.setLength(0);
+            }
+        });
+    }
+
+    /**
+     * Verifies the failure to construct with a non-positive capacity.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructorCapacity() {
+        new RecyclingProvider<>(new ConstructorProvider<>(StringBuilder.class), 0);
+    }
+
+    /**
+     * Verifies new instances are created while the pool is empty.
+     */
+    @Test
+    public void testGetCreates() {
+        assertNotSame(provider.get(), provider.get());
+        assertEquals(2, created);
+    }
+
+    /**
+     * Verifies a recycled instance is reset and provided again.
+     */
+    @Test
+    public void testRecycle() {
+        StringBuilder sb = provider.get();
+        sb.append("dirty");
+        assertTrue(provider.recycle(sb));
+        assertEquals(1, provider.getIdleCount());
+
+        StringBuilder again = provider.get();
+        assertSame(sb, again);
+        assertEquals(0, again.length());
+        assertEquals(1, created);
+        assertEquals(0, provider.getIdleCount());
+    }
+
+    /**
+     * Verifies instances are discarded when the pool is full.
+     */
+    @Test
+    public void testRecycleFull() {
+        StringBuilder a = provider.get();
+        StringBuilder b = provider.get();
+        assertTrue(provider.recycle(a));
+        assertFalse(provider.recycle(b));
+        assertEquals(1, provider.getIdleCount());
+    }
+
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2015 Sacred Scripture Foundation.
+ * "All scripture is given by inspiration of God, and is profitable for
+ * doctrine, for reproof, for correction, for instruction in righteousness:
+ * That the man of God may be perfect, throughly furnished unto all good
+ * works." (2 Tim 3:16-17)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sacredscripturefoundation.commons.entity;
+
+import org.sacredscripturefoundation.commons.AbstractModel;
+
+import java.util.Objects;
+
+import javax.persistence.MappedSuperclass;
+
+/**
+ * This abstract class is the base of the entity implementations. It validates
+ * and prints the identifier, but leaves its mapping to the subclasses, which
+ * differ in how the identifier is produced and how the audit information is
+ * kept:
+ * <ul>
+ * <li>{@link EntityImpl} and {@link InstantEntityImpl} map an identifier
+ * generated by an {@code IDENTITY} column.</li>
+ * <li>{@link AssignedEntityImpl} maps an identifier assigned before the insert,
+ * such as by a
+ * {@link org.sacredscripturefoundation.commons.entity.util.BlockIdGenerator},
+ * which permits the persistence provider to batch inserts.</li>
+ * </ul>
+ *
+ * @param <ID> the identifier (primary key) type
+ * @author Paul Benedict
+ * @since 1.0
+ */
+@MappedSuperclass
+public abstract class AbstractEntityImpl<ID> extends AbstractModel implements Entity<ID>, AssignableNativeId<ID> {
+
+    /**
+     * Constructs a new entity without an identifier.
+     */
+    protected AbstractEntityImpl() {
+        // empty
+    }
+
+    /**
+     * Constructs a new instance with the specified identifier.
+     *
+     * @param id the identifier
+     * @throws NullPointerException if id is {@code null}
+     */
+    protected AbstractEntityImpl(ID id) {
+        Objects.requireNonNull(id);
+        setId(id);
+    }
+
+    /**
+     * Stores the new identifier for this entity.
+     *
+     * @param id the id
+     * @see #getId()
+     * @throws IllegalArgumentException if the identifier is numeric and less
+     * than zero
+     */
+    @Override
+    public void setId(ID id) {
+        if (id instanceof Number && ((Number) id).intValue() < 0) {
+            throw new IllegalArgumentException(id.toString());
+        }
+        storeId(id);
+    }
+
+    /**
+     * Stores the validated identifier into the mapped field of the subclass.
+     *
+     * @param id the id
+     * @see #setId(Object)
+     */
+    protected abstract void storeId(ID id);
+
+    /**
+     * Prints out the identifier. For subclasses which override this method,
+     * only minimum information should be appended in case this object is
+     * accidentally dumped to the user.
+     */
+    @Override
+    public String toString() {
+        return "id=" + getId();
+    }
+
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2015 Sacred Scripture Foundation.
+ * "All scripture is given by inspiration of God, and is profitable for
+ * doctrine, for reproof, for correction, for instruction in righteousness:
+ * That the man of God may be perfect, throughly furnished unto all good
+ * works." (2 Tim 3:16-17)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sacredscripturefoundation.commons.entity;
+
+import javax.persistence.Access;
+import javax.persistence.AccessType;
+import javax.persistence.Id;
+import javax.persistence.MappedSuperclass;
+
+/**
+ * This abstract class is the base for entity objects whose identifier is
+ * assigned before the insert rather than generated by the database. Knowing
+ * the identifier ahead of the insert permits the persistence provider to batch
+ * inserts. It otherwise maps the same columns as {@link EntityImpl}.
+ * <p>
+ * The identifier is typically assigned by a data access object with an
+ * {@link org.sacredscripturefoundation.commons.entity.dao.JpaDaoImpl#setIdGenerator
+ * identifier generator}.
+ *
+ * @param <ID> the identifier (primary key) type
+ * @author Paul Benedict
+ * @since 1.0
+ */
+@MappedSuperclass
+@Access(AccessType.FIELD)
+public abstract class AssignedEntityImpl<ID> extends AuditedEntityImpl<ID> {
+
+    @Id
+    private ID id;
+
+    /**
+     * Constructs a new entity without an identifier.
+     */
+    public AssignedEntityImpl() {
+        // empty
+    }
+
+    /**
+     * Constructs a new instance with the specified identifier.
+     *
+     * @param id the identifier
+     * @throws NullPointerException if id is {@code null}
+     */
+    public AssignedEntityImpl(ID id) {
+        super(id);
+    }
+
+    @Override
+    public ID getId() {
+        return id;
+    }
+
+    @Override
+    protected void storeId(ID id) {
+        this.id = id;
+    }
+
+}
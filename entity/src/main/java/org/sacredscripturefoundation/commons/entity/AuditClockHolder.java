@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2015 Sacred Scripture Foundation.
+ * "All scripture is given by inspiration of God, and is profitable for
+ * doctrine, for reproof, for correction, for instruction in righteousness:
+ * That the man of God may be perfect, throughly furnished unto all good
+ * works." (2 Tim 3:16-17)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sacredscripturefoundation.commons.entity;
+
+import org.sacredscripturefoundation.commons.InstantiationNotIntendedError;
+
+import java.time.Clock;
+
+/**
+ * This class holds the clock from which entities read the current time when
+ * they are {@link Audited#touch() touched}. The system UTC clock is used
+ * unless another is set. Because entities are instantiated by the persistence
+ * provider, the clock is shared by all threads rather than injected.
+ * <p>
+ * Tests may set a fixed clock to control time. Batch jobs may set a
+ * {@link org.sacredscripturefoundation.commons.entity.util.CoarseClock} so
+ * that entities written within the same millisecond share one instant.
+ *
+ * @author Paul Benedict
+ * @since 1.0
+ */
+public final class AuditClockHolder {
+
+    private static volatile Clock clock = Clock.systemUTC();
+
+    /**
+     * Retrieves the clock of this holder.
+     *
+     * @return the clock; never {@code null}
+     * @see #setClock(Clock)
+     */
+    public static Clock getClock() {
+        return clock;
+    }
+
+    /**
+     * Restores the system UTC clock to this holder.
+     *
+     * @see #setClock(Clock)
+     */
+    public static void resetClock() {
+        clock = Clock.systemUTC();
+    }
+
+    /**
+     * Stores the new clock of this holder.
+     *
+     * @param clock the clock to set; {@code null} restores the system UTC clock
+     * @see #getClock()
+     * @see #resetClock()
+     */
+    public static void setClock(Clock clock) {
+        AuditClockHolder.clock = (clock != null) ? clock : Clock.systemUTC();
+    }
+
+    /**
+     * Suppresses default constructor for noninstantiability.
+     *
+     * @throws InstantiationNotIntendedError always
+     */
+    private AuditClockHolder() {
+        throw new InstantiationNotIntendedError();
+    }
+
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2015 Sacred Scripture Foundation.
+ * "All scripture is given by inspiration of God, and is profitable for
+ * doctrine, for reproof, for correction, for instruction in righteousness:
+ * That the man of God may be perfect, throughly furnished unto all good
+ * works." (2 Tim 3:16-17)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sacredscripturefoundation.commons.entity;
+
+import java.util.Date;
+
+import javax.persistence.Access;
+import javax.persistence.AccessType;
+import javax.persistence.Column;
+import javax.persistence.MappedSuperclass;
+import javax.persistence.PrePersist;
+import javax.persistence.PreUpdate;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+
+/**
+ * This abstract class keeps the audit information of an entity as dates. The
+ * identifier is mapped by the subclasses: {@link EntityImpl} generates it and
+ * {@link AssignedEntityImpl} accepts an assigned one.
+ * <p>
+ * Audit dates are mutable and therefore copied when set and when retrieved.
+ * Prefer {@link InstantEntityImpl}, which maps the same columns to immutable
+ * instants, for entities written in bulk.
+ *
+ * @param <ID> the identifier (primary key) type
+ * @author Paul Benedict
+ * @since 1.0
+ */
+@MappedSuperclass
+@Access(AccessType.FIELD)
+public abstract class AuditedEntityImpl<ID> extends AbstractEntityImpl<ID> {
+
+    @Column(name = "created", nullable = false, updatable = false)
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date created;
+
+    @Column(name = "updated")
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date updated;
+
+    /**
+     * Constructs a new entity without an identifier.
+     */
+    protected AuditedEntityImpl() {
+        // empty
+    }
+
+    /**
+     * Constructs a new instance with the specified identifier.
+     *
+     * @param id the identifier
+     * @throws NullPointerException if id is {@code null}
+     */
+    protected AuditedEntityImpl(ID id) {
+        super(id);
+    }
+
+    /**
+     * Retrieves a copy of the created date.
+     */
+    @Override
+    public Date getCreated() {
+        return (created != null) ? (Date) created.clone() : null;
+    }
+
+    /**
+     * Retrieves a copy of the updated date.
+     */
+    @Override
+    public Date getUpdated() {
+        return (updated != null) ? (Date) updated.clone() : null;
+    }
+
+    @Override
+    public void setCreated(Date created) {
+        this.created = (Date) (created != null ? created.clone() : null);
+    }
+
+    @Override
+    public void setUpdated(Date updated) {
+        this.updated = (Date) (updated != null ? updated.clone() : null);
+    }
+
+    /**
+     * Updates the audit information for this entity from the audit clock. If
+     * there is no created time, one will be set. The updated time will always
+     * be set. The dates are created here and need no defensive copies.
+     *
+     * @see #getCreated()
+     * @see #getUpdated()
+     * @see AuditClockHolder
+     */
+    @Override
+    @PrePersist
+    @PreUpdate
+    public void touch() {
+        long now = AuditClockHolder.getClock().millis();
+        if (created == null) {
+            created = new Date(now);
+        }
+        updated = new Date(now);
+    }
+
+}
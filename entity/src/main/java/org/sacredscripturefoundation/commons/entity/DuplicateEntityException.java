@@ -56,6 +56,20 @@ public class DuplicateEntityException extends BusinessException {
         super(message, args);
     }
 
+    /**
+     * Constructs a new exception with the specified message template and
+     * arguments, but optionally without a stack trace. The message is
+     * formatted lazily, so pass immutable arguments such as identifiers.
+     *
+     * @param writableStackTrace whether or not the stack trace is captured
+     * @param message the message template
+     * @param args the message arguments
+     * @see #DuplicateEntityException(String, Object...)
+     */
+    public DuplicateEntityException(boolean writableStackTrace, String message, Object... args) {
+        super(writableStackTrace, message, args);
+    }
+
     /**
      * Constructs a new exception and specifies the root cause.
      *
@@ -19,27 +19,21 @@
  */
 package org.sacredscripturefoundation.commons.entity;
 
-import org.sacredscripturefoundation.commons.AbstractModel;
-
-import java.util.Date;
-import java.util.Objects;
-
 import javax.persistence.Access;
 import javax.persistence.AccessType;
-import javax.persistence.Column;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.MappedSuperclass;
-import javax.persistence.PrePersist;
-import javax.persistence.PreUpdate;
-import javax.persistence.Temporal;
-import javax.persistence.TemporalType;
 
 /**
  * This abstract class is the base for all entity objects. An entity is a model
  * that is persisted to a repository (like a database or file system) and
  * identified by a unique key.
+ * <p>
+ * Identifiers are generated by an {@code IDENTITY} column, which costs a round
+ * trip per insert and defeats JDBC batching. Extend {@link AssignedEntityImpl}
+ * instead for entities inserted in bulk.
  *
  * @param <ID> the identifier (primary key) type
  * @author Paul Benedict
@@ -47,20 +41,12 @@ import javax.persistence.TemporalType;
  */
 @MappedSuperclass
 @Access(AccessType.FIELD)
-public abstract class EntityImpl<ID> extends AbstractModel implements Entity<ID>, AssignableNativeId<ID> {
+public abstract class EntityImpl<ID> extends AuditedEntityImpl<ID> {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private ID id;
 
-    @Column(name = "created", nullable = false, updatable = false)
-    @Temporal(TemporalType.TIMESTAMP)
-    private Date created;
-
-    @Column(name = "updated")
-    @Temporal(TemporalType.TIMESTAMP)
-    private Date updated;
-
     /**
      * Constructs a new entity without an identifier.
      */
@@ -75,13 +61,7 @@ public abstract class EntityImpl<ID> extends AbstractModel implements Entity<ID>
      * @throws NullPointerException if id is {@code null}
      */
     public EntityImpl(ID id) {
-        Objects.requireNonNull(id);
-        setId(id);
-    }
-
-    @Override
-    public Date getCreated() {
-        return created;
+        super(id);
     }
 
     @Override
@@ -90,62 +70,8 @@ public abstract class EntityImpl<ID> extends AbstractModel implements Entity<ID>
     }
 
     @Override
-    public Date getUpdated() {
-        return updated;
-    }
-
-    @Override
-    public void setCreated(Date created) {
-        this.created = (Date) (created != null ? created.clone() : null);
-    }
-
-    /**
-     * Stores the new identifier for this entity.
-     *
-     * @param id the id
-     * @see #getId()
-     * @throws IllegalArgumentException if the identifier is numeric and less
-     * than zero
-     */
-    @Override
-    public void setId(ID id) {
-        if (id instanceof Number && ((Number) id).intValue() < 0) {
-            throw new IllegalArgumentException(id.toString());
-        }
+    protected void storeId(ID id) {
         this.id = id;
     }
 
-    @Override
-    public void setUpdated(Date updated) {
-        this.updated = (Date) (updated != null ? updated.clone() : null);
-    }
-
-    /**
-     * Prints out the identifier. For subclasses which override this method,
-     * only minimum information should be appended in case this object is
-     * accidentally dumped to the user.
-     */
-    @Override
-    public String toString() {
-        return "id=" + id;
-    }
-
-    /**
-     * Updates the audit information for this entity. If there is no created
-     * time, one will be set. The updated time will always be set.
-     *
-     * @see #getCreated()
-     * @see #getUpdated()
-     */
-    @Override
-    @PrePersist
-    @PreUpdate
-    public void touch() {
-        Date now = new Date();
-        if (created == null) {
-            setCreated(now);
-        }
-        setUpdated(now);
-    }
-
 }
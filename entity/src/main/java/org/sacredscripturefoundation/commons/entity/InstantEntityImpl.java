@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2015 Sacred Scripture Foundation.
+ * "All scripture is given by inspiration of God, and is profitable for
+ * doctrine, for reproof, for correction, for instruction in righteousness:
+ * That the man of God may be perfect, throughly furnished unto all good
+ * works." (2 Tim 3:16-17)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sacredscripturefoundation.commons.entity;
+
+import org.sacredscripturefoundation.commons.entity.util.InstantConverter;
+
+import java.time.Instant;
+import java.util.Date;
+
+import javax.persistence.Access;
+import javax.persistence.AccessType;
+import javax.persistence.Column;
+import javax.persistence.Convert;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.MappedSuperclass;
+import javax.persistence.PrePersist;
+import javax.persistence.PreUpdate;
+
+/**
+ * This abstract class is the base for entity objects whose audit information
+ * is kept as immutable {@link Instant instants}. It maps the same columns as
+ * {@link EntityImpl} and may replace it without a schema change.
+ * <p>
+ * Touching the entity reads the {@link AuditClockHolder#getClock() audit
+ * clock} once and stores the resulting instant without copying; the getters
+ * and setters of {@link InstantAudited} never copy either. The {@link Date}
+ * accessors of {@link Audited} remain for compatibility and convert on each
+ * call.
+ *
+ * @param <ID> the identifier (primary key) type
+ * @author Paul Benedict
+ * @see AuditClockHolder
+ * @since 1.0
+ */
+@MappedSuperclass
+@Access(AccessType.FIELD)
+public abstract class InstantEntityImpl<ID> extends AbstractEntityImpl<ID> implements InstantAudited {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private ID id;
+
+    @Column(name = "created", nullable = false, updatable = false)
+    @Convert(converter = InstantConverter.class)
+    private Instant created;
+
+    @Column(name = "updated")
+    @Convert(converter = InstantConverter.class)
+    private Instant updated;
+
+    /**
+     * Constructs a new entity without an identifier.
+     */
+    public InstantEntityImpl() {
+        // empty
+    }
+
+    /**
+     * Constructs a new instance with the specified identifier.
+     *
+     * @param id the identifier
+     * @throws NullPointerException if id is {@code null}
+     */
+    public InstantEntityImpl(ID id) {
+        super(id);
+    }
+
+    /**
+     * Retrieves a copy of the created instant as a date.
+     *
+     * @see #getCreatedInstant()
+     */
+    @Override
+    public Date getCreated() {
+        return (created != null) ? Date.from(created) : null;
+    }
+
+    @Override
+    public Instant getCreatedInstant() {
+        return created;
+    }
+
+    @Override
+    public ID getId() {
+        return id;
+    }
+
+    /**
+     * Retrieves a copy of the updated instant as a date.
+     *
+     * @see #getUpdatedInstant()
+     */
+    @Override
+    public Date getUpdated() {
+        return (updated != null) ? Date.from(updated) : null;
+    }
+
+    @Override
+    public Instant getUpdatedInstant() {
+        return updated;
+    }
+
+    @Override
+    public void setCreated(Date created) {
+        this.created = (created != null) ? created.toInstant() : null;
+    }
+
+    @Override
+    public void setCreatedInstant(Instant created) {
+        this.created = created;
+    }
+
+    @Override
+    public void setUpdated(Date updated) {
+        this.updated = (updated != null) ? updated.toInstant() : null;
+    }
+
+    @Override
+    public void setUpdatedInstant(Instant updated) {
+        this.updated = updated;
+    }
+
+    @Override
+    protected void storeId(ID id) {
+        this.id = id;
+    }
+
+    /**
+     * Updates the audit information for this entity from the audit clock. If
+     * there is no created time, one will be set. The updated time will always
+     * be set. Both share the same instant.
+     *
+     * @see #getCreatedInstant()
+     * @see #getUpdatedInstant()
+     * @see AuditClockHolder
+     */
+    @Override
+    @PrePersist
+    @PreUpdate
+    public void touch() {
+        Instant now = AuditClockHolder.getClock().instant();
+        if (created == null) {
+            created = now;
+        }
+        updated = now;
+    }
+
+}
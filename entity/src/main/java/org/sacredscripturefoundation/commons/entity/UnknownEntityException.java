@@ -64,4 +64,20 @@ public class UnknownEntityException extends BusinessException {
         super(message, args);
     }
 
+    /**
+     * Constructs a new exception with the specified message template and
+     * arguments, but optionally without a stack trace. The lightweight variant
+     * is suited to ordinary "not found" outcomes that are thrown frequently.
+     * The message is formatted lazily, so pass immutable arguments such as
+     * identifiers.
+     *
+     * @param writableStackTrace whether or not the stack trace is captured
+     * @param message the message template
+     * @param args the message arguments
+     * @see #UnknownEntityException(String, Object...)
+     */
+    public UnknownEntityException(boolean writableStackTrace, String message, Object... args) {
+        super(writableStackTrace, message, args);
+    }
+
 }
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2015 Sacred Scripture Foundation.
+ * "All scripture is given by inspiration of God, and is profitable for
+ * doctrine, for reproof, for correction, for instruction in righteousness:
+ * That the man of God may be perfect, throughly furnished unto all good
+ * works." (2 Tim 3:16-17)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sacredscripturefoundation.commons.entity;
+
+import javax.persistence.Column;
+import javax.persistence.MappedSuperclass;
+import javax.persistence.Version;
+
+/**
+ * This abstract class is the base for entities protected by optimistic
+ * concurrency rather than row locks. Concurrent editors do not block each
+ * other; instead, the transaction that commits a stale version fails with an
+ * {@link javax.persistence.OptimisticLockException} and may be retried.
+ * <p>
+ * The table requires a numeric {@code version} column.
+ *
+ * @param <ID> the identifier (primary key) type
+ * @author Paul Benedict
+ * @see org.sacredscripturefoundation.commons.entity.dao.OptimisticLockRetry
+ * @since 1.0
+ */
+@MappedSuperclass
+public abstract class VersionedEntityImpl<ID> extends EntityImpl<ID> implements Versioned {
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
+
+    /**
+     * Constructs a new entity without an identifier.
+     */
+    public VersionedEntityImpl() {
+        // empty
+    }
+
+    /**
+     * Constructs a new instance with the specified identifier.
+     *
+     * @param id the identifier
+     * @throws NullPointerException if id is {@code null}
+     */
+    public VersionedEntityImpl(ID id) {
+        super(id);
+    }
+
+    @Override
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Stores the version of this entity. The persistence provider manages the
+     * version; this method is only for restoring the version of a detached
+     * copy, such as one rebuilt from a form, so that merging it is checked.
+     *
+     * @param version the version
+     * @see #getVersion()
+     */
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2015 Sacred Scripture Foundation.
+ * "All scripture is given by inspiration of God, and is profitable for
+ * doctrine, for reproof, for correction, for instruction in righteousness:
+ * That the man of God may be perfect, throughly furnished unto all good
+ * works." (2 Tim 3:16-17)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sacredscripturefoundation.commons.entity.dao;
+
+import org.sacredscripturefoundation.commons.Count;
+import org.sacredscripturefoundation.commons.DeferredCount;
+import org.sacredscripturefoundation.commons.entity.Entity;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+
+/**
+ * This class counts the total of a page concurrently with fetching the page.
+ * The counter is submitted to an executor before the page query runs, so the
+ * time to the first row no longer includes counting. Pages without a separate
+ * counter are passed to the delegate helper unchanged.
+ * <p>
+ * Because an {@code EntityManager} must not be shared across threads, the
+ * counter must use its own, and therefore counts outside the caller's
+ * transaction; see
+ * {@link JpaDaoImpl#page(Query, javax.persistence.criteria.CriteriaQuery, int, int)}.
+ *
+ * @param <T> the entity type
+ * @param <ID> the entity identifier type
+ * @author Paul Benedict
+ * @since 1.0
+ */
+public class ConcurrentCountVendorHelper<T extends Entity<ID>, ID extends Serializable> implements VendorHelper<T, ID> {
+
+    private static final String MSG_DELEGATE_NULL = "Delegate vendor helper is required";
+    private static final String MSG_EXECUTOR_NULL = "Executor is required";
+
+    private final VendorHelper<T, ID> delegate;
+    private final Executor executor;
+
+    /**
+     * Constructs a new helper.
+     *
+     * @param delegate the helper of pages without a separate counter
+     * @param executor the executor of the counters
+     * @throws NullPointerException if any argument is {@code null}
+     */
+    public ConcurrentCountVendorHelper(VendorHelper<T, ID> delegate, Executor executor) {
+        Objects.requireNonNull(delegate, MSG_DELEGATE_NULL);
+        Objects.requireNonNull(executor, MSG_EXECUTOR_NULL);
+        this.delegate = delegate;
+        this.executor = executor;
+    }
+
+    @Override
+    public long estimateCount(EntityManager em, Class<? extends T> entityClass) {
+        return delegate.estimateCount(em, entityClass);
+    }
+
+    @Override
+    public void lock(EntityManager em, Query query, LockOptions options) {
+        delegate.lock(em, query, options);
+    }
+
+    @Override
+    public Count<List<T>> page(Query query, int beginRow, int endRow) {
+        return delegate.page(query, beginRow, endRow);
+    }
+
+    @Override
+    public Count<List<T>> page(Query query, final Callable<? extends Number> counter, int beginRow, int endRow) {
+        // Start counting before fetching
+        CompletableFuture<Number> total = CompletableFuture.supplyAsync(new Supplier<Number>() {
+            @Override
+            public Number get() {
+                try {
+                    return counter.call();
+                } catch (RuntimeException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        }, executor);
+
+        List<T> results = VendorHelper.fetchPage(query, beginRow, endRow);
+        return new DeferredCount<List<T>>(total, results);
+    }
+
+}
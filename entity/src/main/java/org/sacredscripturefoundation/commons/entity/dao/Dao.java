@@ -19,9 +19,11 @@
  */
 package org.sacredscripturefoundation.commons.entity.dao;
 
+import org.sacredscripturefoundation.commons.Count;
 import org.sacredscripturefoundation.commons.entity.Entity;
 
 import java.io.Serializable;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -37,6 +39,10 @@ import java.util.List;
  * "http://www.ibm.com/developerworks/java/library/j-genericdao.html">Don't
  * repeat the DAO!"</a> by Per Mellqvist, 2006-05-12</li>
  * </ul>
+ * <p>
+ * Methods added since the first release are {@code default} methods, so that
+ * implementations outside this library remain source compatible; they should
+ * be overridden.
  *
  * @param <T> the type of entity
  * @param <ID> the identifier of the entity
@@ -52,21 +58,77 @@ public interface Dao<T extends Entity<ID>, ID extends Serializable> {
      */
     long count();
 
+    /**
+     * Counts the entities stored in this repository grouped by the distinct
+     * values of the specified property, in one query. Entities whose property
+     * is {@code null} are not counted.
+     *
+     * @param <K> the property type
+     * @param property the property path (e.g., "locale" or "book.name")
+     * @return the count per property value in ascending order of value
+     * @throws ArithmeticException if any count exceeds
+     * {@code Integer.MAX_VALUE}
+     * @throws NullPointerException if the property is {@code null}
+     * @throws UnsupportedOperationException if not implemented
+     * @see #longCountBy(String)
+     */
+    default <K> Collection<Count<K>> countBy(String property) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Estimates the number of entities stored in this repository. Unlike
+     * {@link #count()}, the result may be stale or inexact, but it is cheap to
+     * obtain on very large tables; it is intended for dashboards and
+     * pagination headers.
+     * <p>
+     * The default implementation returns the exact {@link #count()}.
+     *
+     * @return the estimated count
+     * @see #count()
+     */
+    default long estimateCount() {
+        return count();
+    }
+
     /**
      * Forces any cached operations to be written to the repository.
      */
     void flush();
 
     /**
-     * Retrieves the entity represented by the specified identifier.
+     * Retrieves the entity represented by the specified identifier, optionally
+     * locked for modification. Versioned entities are locked optimistically.
      *
      * @param id the identifier
+     * @param lock {@code true} to lock the entity; otherwise {@code false}
      * @return the entity if found; otherwise {@code null}
      * @throws NullPointerException if identifier is {@code null}
      * @see #getAll()
      */
     T get(ID id, boolean lock);
 
+    /**
+     * Retrieves the entity represented by the specified identifier with a
+     * pessimistic row lock, waiting for another transaction's lock as
+     * specified. Versioned entities are row locked too.
+     *
+     * @param id the identifier
+     * @param options how to wait for a row locked by another transaction
+     * @return the entity if found, or {@code null} if not found or skipped
+     * because it is locked
+     * @throws javax.persistence.PessimisticLockException if the lock cannot be
+     * obtained in time
+     * @throws javax.persistence.LockTimeoutException if the lock cannot be
+     * obtained in time, but the transaction remains usable
+     * @throws NullPointerException if any argument is {@code null}
+     * @throws UnsupportedOperationException if not implemented
+     * @see #get(Serializable, boolean)
+     */
+    default T get(ID id, LockOptions options) {
+        throw new UnsupportedOperationException();
+    }
+
     /**
      * Generic method used to get all objects of a particular type. This is the
      * same as lookup up all rows in a table.
@@ -124,12 +186,29 @@ public interface Dao<T extends Entity<ID>, ID extends Serializable> {
      */
     boolean isDupe(T entity);
 
+    /**
+     * Counts the entities stored in this repository grouped by the distinct
+     * values of the specified property, as {@link #countBy(String)}, but with
+     * counts that may exceed {@code Integer.MAX_VALUE}.
+     *
+     * @param <K> the property type
+     * @param property the property path (e.g., "locale" or "book.name")
+     * @return the count per property value in ascending order of value
+     * @throws NullPointerException if the property is {@code null}
+     * @throws UnsupportedOperationException if not implemented
+     * @see Count#getLongCount()
+     */
+    default <K> Collection<Count<K>> longCountBy(String property) {
+        throw new UnsupportedOperationException();
+    }
+
     /**
      * Obtains a concurrency lock from the repository for the specified entity.
      *
      * @param entity the entity to lock
      * @param optimistic {@code true} for version checking; otherwise row
-     * locking
+     * locking, or version incrementing for versioned entities
+     * @see org.sacredscripturefoundation.commons.entity.Versioned
      */
     void lock(T entity, boolean optimistic);
 
@@ -26,6 +26,8 @@ import org.sacredscripturefoundation.commons.entity.Entity;
 import java.io.Serializable;
 import java.util.List;
 
+import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
 import javax.persistence.Query;
 
 import org.eclipse.persistence.queries.ScrollableCursor;
@@ -39,6 +41,25 @@ import org.eclipse.persistence.queries.ScrollableCursor;
  */
 public class EclipselinkVendorHelper<T extends Entity<ID>, ID extends Serializable> implements VendorHelper<T, ID> {
 
+    private static final String PESSIMISTIC_LOCK_HINT = "eclipselink.pessimistic-lock";
+    private static final String LOCK_NOWAIT = "LockNoWait";
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This implementation requests {@code NOWAIT} through Eclipselink's own
+     * pessimistic lock hint. Eclipselink cannot skip locked rows.
+     */
+    @Override
+    public void lock(EntityManager em, Query query, LockOptions options) {
+        if (options.isNoWait()) {
+            query.setLockMode(LockModeType.PESSIMISTIC_WRITE);
+            query.setHint(PESSIMISTIC_LOCK_HINT, LOCK_NOWAIT);
+            return;
+        }
+        VendorHelper.super.lock(em, query, options);
+    }
+
     @Override
     public Count<List<T>> page(Query query, int beginRow, int endRow) {
         query.setHint("eclipselink.cursor.scrollable", true);
@@ -25,13 +25,37 @@ import org.sacredscripturefoundation.commons.entity.Entity;
 
 import java.io.Serializable;
 import java.util.List;
+import java.util.Locale;
 
+import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
 import javax.persistence.Query;
 
+import org.hibernate.LockMode;
 import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.MySQLDialect;
+import org.hibernate.dialect.Oracle8iDialect;
+import org.hibernate.dialect.PostgreSQL81Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.metadata.ClassMetadata;
+import org.hibernate.persister.entity.AbstractEntityPersister;
 
 /**
  * This class is the implementation for functionality specific to Hibernate.
+ * <p>
+ * Count estimates are read from the statistics catalog of PostgreSQL, MySQL
+ * and Oracle as determined by the configured dialect. Other databases have no
+ * estimate. The catalog is searched by name, with the quoting and case rules
+ * of each database, and within the schema when the table name is qualified.
+ * A table that cannot be found
+ * has no estimate rather than failing the query; on PostgreSQL a failed query
+ * would abort the caller's transaction.
+ * <p>
+ * Locked rows can be skipped only on databases whose dialect renders
+ * {@code SKIP LOCKED} or its equivalent; elsewhere such a lock is refused
+ * rather than silently degraded to a blocking row lock.
  *
  * @param <T> the entity type
  * @param <ID> the entity identifier type
@@ -39,6 +63,150 @@ import org.hibernate.ScrollableResults;
  */
 public class HibernateVendorHelper<T extends Entity<ID>, ID extends Serializable> implements VendorHelper<T, ID> {
 
+    private static final String MSG_SKIP_LOCKED_UNSUPPORTED = "Dialect cannot skip locked rows: %s";
+
+    private static final String MYSQL_ESTIMATE_SQL = "SELECT table_rows FROM information_schema.tables WHERE table_name = ? AND table_schema = DATABASE()";
+    private static final String MYSQL_SCHEMA_ESTIMATE_SQL = "SELECT table_rows FROM information_schema.tables WHERE table_name = ? AND table_schema = ?";
+    private static final String ORACLE_ESTIMATE_SQL = "SELECT num_rows FROM user_tables WHERE table_name = ?";
+    private static final String ORACLE_SCHEMA_ESTIMATE_SQL = "SELECT num_rows FROM all_tables WHERE table_name = ? AND owner = ?";
+    private static final String POSTGRESQL_ESTIMATE_SQL = "SELECT c.reltuples FROM pg_class c WHERE c.relname = ? AND pg_table_is_visible(c.oid)";
+    private static final String POSTGRESQL_SCHEMA_ESTIMATE_SQL = "SELECT c.reltuples FROM pg_class c JOIN pg_namespace n ON n.oid = c.relnamespace WHERE c.relname = ? AND n.nspname = ?";
+
+    /**
+     * Converts the specified SQL identifier to the name stored in the catalog
+     * of the specified dialect: quoted identifiers lose their quotes and keep
+     * their case, while unquoted identifiers are folded to the case of the
+     * database.
+     *
+     * @param dialect the dialect
+     * @param identifier the identifier as written in SQL
+     * @return the catalog name
+     */
+    static String catalogName(Dialect dialect, String identifier) {
+        if (dialect instanceof MySQLDialect) {
+            // MySQL keeps the case of unquoted identifiers
+            String unquoted = unquote(identifier, '`');
+            return (unquoted != null) ? unquoted : identifier;
+        }
+        String unquoted = unquote(identifier, '"');
+        if (unquoted != null) {
+            return unquoted;
+        }
+        return (dialect instanceof Oracle8iDialect) ? identifier.toUpperCase(Locale.ROOT) : identifier.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Retrieves the dialect of the specified entity manager.
+     *
+     * @param em the entity manager
+     * @return the dialect
+     */
+    private static Dialect dialectOf(EntityManager em) {
+        return ((SessionFactoryImplementor) em.unwrap(Session.class).getSessionFactory()).getDialect();
+    }
+
+    /**
+     * Determines the statistics query for the specified dialect. The first
+     * parameter is the table name and the second, if qualified, is the schema.
+     *
+     * @param dialect the dialect
+     * @param qualified whether the table name is qualified by a schema
+     * @return the query selecting the row estimate; otherwise {@code null} if
+     * unsupported
+     */
+    static String estimateSql(Dialect dialect, boolean qualified) {
+        if (dialect instanceof PostgreSQL81Dialect) {
+            return qualified ? POSTGRESQL_SCHEMA_ESTIMATE_SQL : POSTGRESQL_ESTIMATE_SQL;
+        }
+        if (dialect instanceof MySQLDialect) {
+            return qualified ? MYSQL_SCHEMA_ESTIMATE_SQL : MYSQL_ESTIMATE_SQL;
+        }
+        if (dialect instanceof Oracle8iDialect) {
+            return qualified ? ORACLE_SCHEMA_ESTIMATE_SQL : ORACLE_ESTIMATE_SQL;
+        }
+        return null;
+    }
+
+    /**
+     * Removes the specified quotes from an identifier, unescaping doubled
+     * quotes within.
+     *
+     * @param identifier the identifier
+     * @param quote the quote character
+     * @return the unquoted identifier; otherwise {@code null} if not quoted
+     */
+    private static String unquote(String identifier, char quote) {
+        int len = identifier.length();
+        if ((len >= 2) && (identifier.charAt(0) == quote) && (identifier.charAt(len - 1) == quote)) {
+            String q = String.valueOf(quote);
+            return identifier.substring(1, len - 1).replace(q + q, q);
+        }
+        return null;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Tables which have never been analyzed report no estimate. So do empty
+     * tables, which are cheap to count exactly.
+     */
+    @Override
+    public long estimateCount(EntityManager em, Class<? extends T> entityClass) {
+        SessionFactoryImplementor sf = (SessionFactoryImplementor) em.unwrap(Session.class).getSessionFactory();
+        Dialect dialect = sf.getDialect();
+        ClassMetadata metadata = sf.getClassMetadata(entityClass);
+        if (!(metadata instanceof AbstractEntityPersister)) {
+            return -1;
+        }
+
+        // Catalog tables are searched by the unqualified name and its schema
+        String table = ((AbstractEntityPersister) metadata).getTableName();
+        int dot = table.lastIndexOf('.');
+        String sql = estimateSql(dialect, dot != -1);
+        if (sql == null) {
+            return -1;
+        }
+        Query query = em.createNativeQuery(sql).setParameter(1, catalogName(dialect, table.substring(dot + 1)));
+        if (dot != -1) {
+            String schema = table.substring(table.lastIndexOf('.', dot - 1) + 1, dot);
+            query.setParameter(2, catalogName(dialect, schema));
+        }
+
+        @SuppressWarnings("unchecked")
+        List<Number> rows = query.getResultList();
+        if (rows.isEmpty() || (rows.get(0) == null)) {
+            return -1;
+        }
+        long estimate = rows.get(0).longValue();
+        return (estimate > 0) ? estimate : -1;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This implementation skips locked rows with Hibernate's
+     * {@link LockMode#UPGRADE_SKIPLOCKED}, which the dialect renders in its
+     * own syntax. Dialects without such syntax render a plain
+     * {@code FOR UPDATE} instead, whose blocking lock defeats the purpose, so
+     * they are refused.
+     *
+     * @throws UnsupportedOperationException if locked rows are to be skipped
+     * but the dialect cannot
+     */
+    @Override
+    public void lock(EntityManager em, Query query, LockOptions options) {
+        if (!options.isSkipLocked()) {
+            VendorHelper.super.lock(em, query, options);
+            return;
+        }
+        Dialect dialect = dialectOf(em);
+        if (dialect.getForUpdateSkipLockedString().equals(dialect.getForUpdateString())) {
+            throw new UnsupportedOperationException(String.format(MSG_SKIP_LOCKED_UNSUPPORTED, dialect));
+        }
+        query.setLockMode(LockModeType.PESSIMISTIC_WRITE);
+        query.unwrap(org.hibernate.Query.class).setLockOptions(new org.hibernate.LockOptions(LockMode.UPGRADE_SKIPLOCKED));
+    }
+
     @Override
     public Count<List<T>> page(Query query, int beginRow, int endRow) {
         // Get total result count
@@ -52,11 +220,7 @@ public class HibernateVendorHelper<T extends Entity<ID>, ID extends Serializable
         }
 
         // Get page of data
-        query.setFirstResult(beginRow);
-        query.setMaxResults(endRow - beginRow + 1);
-
-        @SuppressWarnings("unchecked")
-        List<T> results = query.getResultList();
+        List<T> results = VendorHelper.fetchPage(query, beginRow, endRow);
         return new CountImpl<List<T>>(total, results);
     }
 
@@ -20,15 +20,28 @@
 package org.sacredscripturefoundation.commons.entity.dao;
 
 import org.sacredscripturefoundation.commons.Count;
+import org.sacredscripturefoundation.commons.CountImpl;
+import org.sacredscripturefoundation.commons.LongCountImpl;
+import org.sacredscripturefoundation.commons.entity.AssignableNativeId;
 import org.sacredscripturefoundation.commons.entity.Entity;
 import org.sacredscripturefoundation.commons.entity.NaturalOrdering;
+import org.sacredscripturefoundation.commons.entity.Versioned;
+import org.sacredscripturefoundation.commons.entity.util.IdGenerator;
 
 import java.io.Serializable;
+import java.lang.reflect.AccessibleObject;
 import java.lang.reflect.ParameterizedType;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
 
 import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.GeneratedValue;
+import javax.persistence.Id;
 import javax.persistence.LockModeType;
 import javax.persistence.NoResultException;
 import javax.persistence.PersistenceContext;
@@ -47,6 +60,12 @@ import org.apache.log4j.Logger;
  * This class serves as the Base class for all other Daos - namely to hold
  * common methods that they might all use. Can be used for standard CRUD
  * operations.
+ * <p>
+ * Entities that are {@link Versioned} are protected by optimistic concurrency
+ * instead of row locks: locked retrievals, locks and refreshes verify the
+ * version at commit, and those that intend to write also increment it, so
+ * concurrent editors never block each other. A transaction that loses the
+ * race fails and may be retried with {@link OptimisticLockRetry}.
  *
  * @param <T> the entity type interface
  * @param <U> the entity type implementation registered with JPA
@@ -57,7 +76,33 @@ import org.apache.log4j.Logger;
  */
 public class JpaDaoImpl<T extends Entity<ID>, U extends T, ID extends Serializable> implements Dao<T, ID> {
 
+    /**
+     * The default time-to-live of the cached exact count (in seconds).
+     *
+     * @see #setCountCacheTtl(long, TimeUnit)
+     */
+    public static final long DEFAULT_COUNT_CACHE_TTL = 60;
+
     private static final String MSG_NO_GENERICIZED_SUBCLASS = "Constructor requires genericized subclass";
+    private static final String MSG_NONPOSITIVE_MAX = "Maximum results must be positive: %d";
+    private static final String MSG_NEGATIVE_TTL = "Count cache time-to-live cannot be negative: %d";
+    private static final String MSG_GENERATED_ID = "Cannot assign identifiers to %s: its @Id is mapped with @GeneratedValue";
+    private static final String ID_PROPERTY = "id";
+
+    /**
+     * This class is an immutable exact count and the time it expires.
+     */
+    private static final class CachedCount {
+
+        final long count;
+        final long expiresAt;
+
+        CachedCount(long count, long expiresAt) {
+            this.count = count;
+            this.expiresAt = expiresAt;
+        }
+
+    }
 
     /**
      * Convenience method that executes the specified query for a single result.
@@ -78,8 +123,12 @@ public class JpaDaoImpl<T extends Entity<ID>, U extends T, ID extends Serializab
     protected final Logger log = LogManager.getLogger(JpaDaoImpl.class);
     private final Class<U> entityClass;
     private final NaturalOrdering ordering;
+    private final boolean versioned;
     private EntityManager em;
     private VendorHelper<T, ID> vendorHelper;
+    private IdGenerator<? extends ID> idGenerator;
+    private volatile long countCacheTtlNanos = TimeUnit.SECONDS.toNanos(DEFAULT_COUNT_CACHE_TTL);
+    private volatile CachedCount cachedCount;
 
     /**
      * Constructs a new JPA DAO implementation. This constructor is solely for
@@ -94,6 +143,7 @@ public class JpaDaoImpl<T extends Entity<ID>, U extends T, ID extends Serializab
             throw new IllegalStateException(MSG_NO_GENERICIZED_SUBCLASS, e);
         }
         ordering = entityClass.getAnnotation(NaturalOrdering.class);
+        versioned = Versioned.class.isAssignableFrom(entityClass);
     }
 
     /**
@@ -106,6 +156,59 @@ public class JpaDaoImpl<T extends Entity<ID>, U extends T, ID extends Serializab
         Objects.requireNonNull(entityClass);
         this.entityClass = entityClass;
         ordering = entityClass.getAnnotation(NaturalOrdering.class);
+        versioned = Versioned.class.isAssignableFrom(entityClass);
+    }
+
+    /**
+     * Claims up to the specified number of entities which are not locked by
+     * other transactions, in the natural ordering, and locks them until the
+     * current transaction ends. Workers pulling from a table used as a job
+     * queue thereby receive distinct entities without waiting for each other.
+     * Requires a vendor helper which supports skipping locked rows; otherwise
+     * an {@code UnsupportedOperationException} is thrown.
+     *
+     * @param max the maximum number of entities
+     * @return the claimed entities; empty if none are available
+     * @throws IllegalArgumentException if the maximum is not positive
+     * @see #claimNext(CriteriaQuery, int)
+     * @see LockOptions#SKIP_LOCKED
+     */
+    public List<T> claimNext(int max) {
+        checkMax(max);
+        return claimNext(newQuery(em.getCriteriaBuilder()), max);
+    }
+
+    /**
+     * Claims up to the specified number of entities selected by the specified
+     * criteria which are not locked by other transactions, as
+     * {@link #claimNext(int)}. Subclasses use the criteria to select the
+     * pending work (e.g., by status).
+     *
+     * @param criteria the criteria of the claimable entities
+     * @param max the maximum number of entities
+     * @return the claimed entities; empty if none are available
+     * @throws IllegalArgumentException if the maximum is not positive
+     * @see #newQuery(CriteriaBuilder)
+     */
+    @SuppressWarnings("unchecked")
+    protected final List<T> claimNext(CriteriaQuery<U> criteria, int max) {
+        checkMax(max);
+        TypedQuery<U> query = em.createQuery(criteria);
+        query.setMaxResults(max);
+        lock(query, LockOptions.SKIP_LOCKED);
+        return (List<T>) query.getResultList();
+    }
+
+    /**
+     * Verifies the specified maximum number of claimed entities is positive.
+     *
+     * @param max the maximum number of entities
+     * @throws IllegalArgumentException if the maximum is not positive
+     */
+    private static void checkMax(int max) {
+        if (max <= 0) {
+            throw new IllegalArgumentException(String.format(MSG_NONPOSITIVE_MAX, max));
+        }
     }
 
     @Override
@@ -116,22 +219,96 @@ public class JpaDaoImpl<T extends Entity<ID>, U extends T, ID extends Serializab
         return em.createQuery(cq).getSingleResult();
     }
 
+    @Override
+    public <K> Collection<Count<K>> countBy(String property) {
+        List<Object[]> rows = groupCount(property);
+        List<Count<K>> counts = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            @SuppressWarnings("unchecked")
+            K key = (K) row[0];
+            counts.add(new CountImpl<K>(Math.toIntExact((Long) row[1]), key));
+        }
+        return counts;
+    }
+
     protected final Class<U> entityClass() {
         return entityClass;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This implementation prefers the planner statistics provided by the
+     * {@link VendorHelper#estimateCount(EntityManager, Class) vendor helper}.
+     * Without them, the {@link #count() exact count} is cached and reused
+     * until its time-to-live expires.
+     *
+     * @see #setCountCacheTtl(long, TimeUnit)
+     */
+    @Override
+    public long estimateCount() {
+        if (vendorHelper != null) {
+            long estimate = vendorHelper.estimateCount(em, entityClass);
+            if (estimate >= 0) {
+                return estimate;
+            }
+        }
+
+        long now = System.nanoTime();
+        CachedCount cached = cachedCount;
+        if ((cached == null) || (now - cached.expiresAt >= 0)) {
+            // Racing threads may both count; either result is acceptable
+            cached = new CachedCount(count(), now + countCacheTtlNanos);
+            cachedCount = cached;
+        }
+        return cached.count;
+    }
+
     @Override
     public void flush() {
         em.flush();
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The lock is a row lock ({@code PESSIMISTIC_WRITE}), unless the entity is
+     * versioned, in which case the version is incremented and verified at
+     * commit ({@code OPTIMISTIC_FORCE_INCREMENT}).
+     */
     @Override
     public T get(ID id, boolean lock) {
         Objects.requireNonNull(id);
-        LockModeType lockMode = lock ? LockModeType.PESSIMISTIC_WRITE : LockModeType.NONE;
+        LockModeType lockMode = LockModeType.NONE;
+        if (lock) {
+            lockMode = versioned ? LockModeType.OPTIMISTIC_FORCE_INCREMENT : LockModeType.PESSIMISTIC_WRITE;
+        }
         return em.find(entityClass, id, lockMode);
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The entity is selected by its {@code id} property with the lock applied
+     * by the vendor helper, or by standard JPA when there is no vendor helper.
+     *
+     * @see VendorHelper#lock(EntityManager, Query, LockOptions)
+     */
+    @Override
+    public T get(ID id, LockOptions options) {
+        Objects.requireNonNull(id);
+        Objects.requireNonNull(options);
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<U> cq = cb.createQuery(entityClass);
+        Root<U> root = cq.from(entityClass);
+        cq.select(root).where(cb.equal(root.get(ID_PROPERTY), id));
+
+        TypedQuery<U> query = em.createQuery(cq);
+        lock(query, options);
+        List<U> results = query.getResultList();
+        return results.isEmpty() ? null : results.get(0);
+    }
+
     @SuppressWarnings("unchecked")
     @Override
     public List<T> getAll() {
@@ -144,21 +321,156 @@ public class JpaDaoImpl<T extends Entity<ID>, U extends T, ID extends Serializab
         throw new UnsupportedOperationException();
     }
 
+    /**
+     * Assigns the next generated identifier to the specified entity, but only
+     * if an identifier generator is configured, the entity is
+     * {@link AssignableNativeId assignable}, and the entity has no identifier.
+     *
+     * @param entity the entity to receive the identifier
+     * @see #setIdGenerator(IdGenerator)
+     */
+    @SuppressWarnings("unchecked")
+    protected void assignId(T entity) {
+        if ((idGenerator != null) && (entity.getId() == null) && (entity instanceof AssignableNativeId)) {
+            ((AssignableNativeId<ID>) entity).setId(idGenerator.generate());
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * If an identifier generator is configured, the entity is first
+     * {@link #assignId(Object) assigned} its identifier.
+     */
     @Override
     public void insert(T entity) {
         Objects.requireNonNull(entity);
+        assignId(entity);
         em.persist(entity);
     }
 
+    /**
+     * Executes a query which counts the entities grouped by the specified
+     * property.
+     *
+     * @param property the property path
+     * @return the rows of property value and count
+     * @see #countBy(String)
+     * @see #longCountBy(String)
+     */
+    private List<Object[]> groupCount(String property) {
+        Objects.requireNonNull(property);
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Object[]> cq = cb.createQuery(Object[].class);
+        Root<U> root = cq.from(entityClass);
+        String[] names = property.split("\\.");
+        Path<Object> path = root.get(names[0]);
+        for (int i = 1; i < names.length; i++) {
+            path = path.get(names[i]);
+        }
+        cq.multiselect(path, cb.count(root));
+        cq.where(cb.isNotNull(path));
+        cq.groupBy(path);
+        cq.orderBy(cb.asc(path));
+        return em.createQuery(cq).getResultList();
+    }
+
     @Override
     public boolean isDupe(T entity) {
         return false;
     }
 
+    /**
+     * Determines whether the identifier of the entity type is generated by the
+     * persistence provider, which then rejects assigned identifiers. By
+     * default, the annotations of the {@code @Id} field or property decide;
+     * subclasses whose mapping is overridden in {@code orm.xml} should
+     * override this method accordingly.
+     *
+     * @return {@code true} if generated; otherwise {@code false}
+     * @see #setIdGenerator(IdGenerator)
+     */
+    protected boolean isGeneratedId() {
+        for (Class<?> c = entityClass; c != null; c = c.getSuperclass()) {
+            for (AccessibleObject member : c.getDeclaredFields()) {
+                if (member.isAnnotationPresent(Id.class)) {
+                    return member.isAnnotationPresent(GeneratedValue.class);
+                }
+            }
+            for (AccessibleObject member : c.getDeclaredMethods()) {
+                if (member.isAnnotationPresent(Id.class)) {
+                    return member.isAnnotationPresent(GeneratedValue.class);
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Determines whether the entities of this data access object are
+     * {@link Versioned versioned}.
+     *
+     * @return {@code true} if versioned; otherwise {@code false}
+     */
+    protected final boolean isVersioned() {
+        return versioned;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The optimistic lock verifies the version at commit. Otherwise, the lock
+     * is a shared row lock ({@code PESSIMISTIC_READ}), unless the entity is
+     * versioned, in which case the version is also incremented
+     * ({@code OPTIMISTIC_FORCE_INCREMENT}).
+     */
     @Override
     public void lock(T entity, boolean optimistic) {
         Objects.requireNonNull(entity);
-        em.lock(entity, optimistic ? LockModeType.OPTIMISTIC : LockModeType.PESSIMISTIC_READ);
+        em.lock(entity, lockMode(optimistic));
+    }
+
+    /**
+     * Applies a pessimistic write lock with the specified options to the
+     * specified query, through the vendor helper if there is one.
+     *
+     * @param query the query
+     * @param options the lock options
+     * @throws UnsupportedOperationException if the options are unsupported
+     * @see VendorHelper#standardLock(Query, LockOptions)
+     */
+    private void lock(Query query, LockOptions options) {
+        if (vendorHelper != null) {
+            vendorHelper.lock(em, query, options);
+        } else {
+            VendorHelper.standardLock(query, options);
+        }
+    }
+
+    /**
+     * Determines the lock mode of the specified kind of lock.
+     *
+     * @param optimistic {@code true} for version checking; otherwise the
+     * strongest lock short of a row lock for versioned entities, or a row lock
+     * @return the lock mode
+     */
+    private LockModeType lockMode(boolean optimistic) {
+        if (optimistic) {
+            return LockModeType.OPTIMISTIC;
+        }
+        return versioned ? LockModeType.OPTIMISTIC_FORCE_INCREMENT : LockModeType.PESSIMISTIC_READ;
+    }
+
+    @Override
+    public <K> Collection<Count<K>> longCountBy(String property) {
+        List<Object[]> rows = groupCount(property);
+        List<Count<K>> counts = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            @SuppressWarnings("unchecked")
+            K key = (K) row[0];
+            counts.add(new LongCountImpl<K>((Long) row[1], key));
+        }
+        return counts;
     }
 
     /**
@@ -208,22 +520,71 @@ public class JpaDaoImpl<T extends Entity<ID>, U extends T, ID extends Serializab
         return vendorHelper.page(query, beginRow, endRow);
     }
 
+    /**
+     * Executes the specified query for pagination purposes, with the total
+     * number of would-be results counted by the specified count query. The
+     * page is returned without waiting for the total, which is counted lazily
+     * or concurrently depending on the vendor helper.
+     * <p>
+     * The count query runs in its own entity manager, created from the same
+     * factory and closed afterwards, so that it may run on another thread or
+     * after this entity manager is closed. Consequently it runs outside the
+     * caller's transaction: it does not see rows the caller has inserted,
+     * updated or removed but not yet committed, and it reads its own snapshot,
+     * so under concurrent writes the total may disagree with the page. When the
+     * total must be consistent with the page, use
+     * {@link #page(Query, int, int)}, which counts with this entity manager.
+     *
+     * @param query the query
+     * @param countQuery the query of the total
+     * @param beginRow the beginning row index from 0
+     * @param endRow the ending row index inclusive
+     * @return the list of data plus its deferred total count
+     * @see ConcurrentCountVendorHelper
+     */
+    protected final Count<List<T>> page(Query query, final CriteriaQuery<Long> countQuery, int beginRow, int endRow) {
+        final EntityManagerFactory emf = em.getEntityManagerFactory();
+        Callable<Long> counter = new Callable<Long>() {
+            @Override
+            public Long call() {
+                EntityManager countEm = emf.createEntityManager();
+                try {
+                    return countEm.createQuery(countQuery).getSingleResult();
+                } finally {
+                    countEm.close();
+                }
+            }
+        };
+        return vendorHelper.page(query, counter, beginRow, endRow);
+    }
+
     @Override
     public void refresh(T entity) {
         Objects.requireNonNull(entity);
         em.refresh(entity);
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The lock mode is chosen as {@link #lock(Entity, boolean)}.
+     */
     @Override
     public void refresh(T entity, boolean optimistic) {
         Objects.requireNonNull(entity);
-        em.refresh(entity, optimistic ? LockModeType.OPTIMISTIC : LockModeType.PESSIMISTIC_READ);
+        em.refresh(entity, lockMode(optimistic));
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The entity is row locked before its removal, unless it is versioned, in
+     * which case the removal itself is checked against the version.
+     */
     @Override
     public void remove(ID id) {
         Objects.requireNonNull(id);
-        em.remove(get(id, true));
+        em.remove(get(id, !versioned));
     }
 
     @Override
@@ -232,6 +593,23 @@ public class JpaDaoImpl<T extends Entity<ID>, U extends T, ID extends Serializab
         em.remove(entity);
     }
 
+    /**
+     * Stores the new time-to-live of the exact count cached by
+     * {@link #estimateCount()}. The cached count, if any, is discarded.
+     *
+     * @param ttl the time-to-live; zero disables caching
+     * @param unit the unit of the time-to-live
+     * @throws IllegalArgumentException if the time-to-live is negative
+     * @see #DEFAULT_COUNT_CACHE_TTL
+     */
+    public final void setCountCacheTtl(long ttl, TimeUnit unit) {
+        if (ttl < 0) {
+            throw new IllegalArgumentException(String.format(MSG_NEGATIVE_TTL, ttl));
+        }
+        countCacheTtlNanos = unit.toNanos(ttl);
+        cachedCount = null;
+    }
+
     /**
      * Stores the entity manager for this data access object. This method is
      * annotated to be the injection point for the default persitence context.
@@ -245,6 +623,33 @@ public class JpaDaoImpl<T extends Entity<ID>, U extends T, ID extends Serializab
         this.em = em;
     }
 
+    /**
+     * Stores the new identifier generator for this data access object. When
+     * set, inserted entities without an identifier are assigned one before
+     * being persisted. Knowing the identifier ahead of the insert permits the
+     * persistence provider to batch inserts, which is not possible with
+     * {@code IDENTITY} columns.
+     * <p>
+     * The entity must map its {@code @Id} without {@code @GeneratedValue},
+     * such as by extending
+     * {@link org.sacredscripturefoundation.commons.entity.AssignedEntityImpl};
+     * otherwise the provider rejects the assigned identifier when persisting
+     * (e.g., as a detached entity). Entities with a {@link #isGeneratedId()
+     * generated identifier} are refused here.
+     *
+     * @param idGenerator the generator to set; may be {@code null} to defer to
+     * the mapping
+     * @throws IllegalStateException if the entity type maps a generated
+     * identifier
+     * @see org.sacredscripturefoundation.commons.entity.util.BlockIdGenerator
+     */
+    public final void setIdGenerator(IdGenerator<? extends ID> idGenerator) {
+        if ((idGenerator != null) && isGeneratedId()) {
+            throw new IllegalStateException(String.format(MSG_GENERATED_ID, entityClass.getName()));
+        }
+        this.idGenerator = idGenerator;
+    }
+
     /**
      * Stores the new vendor helper for this data access object.
      *
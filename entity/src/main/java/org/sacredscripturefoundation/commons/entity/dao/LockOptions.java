@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2015 Sacred Scripture Foundation.
+ * "All scripture is given by inspiration of God, and is profitable for
+ * doctrine, for reproof, for correction, for instruction in righteousness:
+ * That the man of God may be perfect, throughly furnished unto all good
+ * works." (2 Tim 3:16-17)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sacredscripturefoundation.commons.entity.dao;
+
+/**
+ * This class specifies how a pessimistic row lock waits for rows already
+ * locked by other transactions: indefinitely, for a bounded time, not at all
+ * ({@code NOWAIT}), or by skipping those rows ({@code SKIP LOCKED}). A lock
+ * that cannot wait fails with a
+ * {@link javax.persistence.PessimisticLockException} or
+ * {@link javax.persistence.LockTimeoutException}, depending on the database.
+ * <p>
+ * Skipping locked rows lets many workers pull distinct rows from a table used
+ * as a job queue without contention. It is not standard JPA and requires
+ * support from the {@link VendorHelper}. Instances are immutable.
+ *
+ * @author Paul Benedict
+ * @see Dao#get(java.io.Serializable, LockOptions)
+ * @see JpaDaoImpl#claimNext(int)
+ * @since 1.0
+ */
+public final class LockOptions {
+
+    /**
+     * The standard query hint of the lock timeout (in milliseconds).
+     */
+    public static final String TIMEOUT_HINT = "javax.persistence.lock.timeout";
+
+    /**
+     * The timeout of waiting indefinitely.
+     */
+    public static final long WAIT_FOREVER = -1;
+
+    /**
+     * Waits indefinitely for locked rows.
+     */
+    public static final LockOptions WAIT = new LockOptions(WAIT_FOREVER, false);
+
+    /**
+     * Fails immediately on locked rows.
+     */
+    public static final LockOptions NOWAIT = new LockOptions(0, false);
+
+    /**
+     * Skips locked rows.
+     */
+    public static final LockOptions SKIP_LOCKED = new LockOptions(0, true);
+
+    private static final String MSG_NEGATIVE_TIMEOUT = "Timeout cannot be negative: %d";
+
+    /**
+     * Creates the options of waiting at most the specified time for locked
+     * rows. A zero timeout is the same as {@link #NOWAIT}.
+     *
+     * @param millis the timeout in milliseconds
+     * @return the options
+     * @throws IllegalArgumentException if the timeout is negative
+     */
+    public static LockOptions timeout(long millis) {
+        if (millis < 0) {
+            throw new IllegalArgumentException(String.format(MSG_NEGATIVE_TIMEOUT, millis));
+        }
+        return (millis == 0) ? NOWAIT : new LockOptions(millis, false);
+    }
+
+    private final long timeout;
+    private final boolean skipLocked;
+
+    /**
+     * Constructs new options.
+     *
+     * @param timeout the timeout
+     * @param skipLocked whether or not locked rows are skipped
+     */
+    private LockOptions(long timeout, boolean skipLocked) {
+        this.timeout = timeout;
+        this.skipLocked = skipLocked;
+    }
+
+    /**
+     * Retrieves the time to wait for locked rows.
+     *
+     * @return the timeout in milliseconds; otherwise {@link #WAIT_FOREVER}
+     */
+    public long getTimeout() {
+        return timeout;
+    }
+
+    /**
+     * Determines whether locked rows fail immediately.
+     *
+     * @return {@code true} if not waiting; otherwise {@code false}
+     */
+    public boolean isNoWait() {
+        return (timeout == 0) && !skipLocked;
+    }
+
+    /**
+     * Determines whether locked rows are skipped.
+     *
+     * @return {@code true} if skipped; otherwise {@code false}
+     */
+    public boolean isSkipLocked() {
+        return skipLocked;
+    }
+
+    @Override
+    public String toString() {
+        if (skipLocked) {
+            return "SKIP LOCKED";
+        }
+        return (timeout == WAIT_FOREVER) ? "WAIT" : (timeout == 0) ? "NOWAIT" : "WAIT " + timeout + "ms";
+    }
+
+}
@@ -0,0 +1,424 @@
+/*
+ * Copyright (c) 2015 Sacred Scripture Foundation.
+ * "All scripture is given by inspiration of God, and is profitable for
+ * doctrine, for reproof, for correction, for instruction in righteousness:
+ * That the man of God may be perfect, throughly furnished unto all good
+ * works." (2 Tim 3:16-17)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sacredscripturefoundation.commons.entity.dao;
+
+import org.sacredscripturefoundation.commons.BinaryCodecRegistry;
+import org.sacredscripturefoundation.commons.entity.Entity;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * This class caches snapshots of entities outside of the Java heap, so that
+ * large caches do not lengthen garbage collection pauses. Each entity is
+ * encoded by a {@link BinaryCodecRegistry} into a direct buffer and is
+ * rehydrated into a new detached instance when retrieved. Only the keys and
+ * small buffer handles remain on the heap.
+ * <p>
+ * The least recently used snapshots are evicted once the total size exceeds
+ * the byte budget. Buffers are allocated in power-of-two size classes of at
+ * least {@value #MIN_CAPACITY} bytes, and the buffers of evicted, replaced and
+ * removed snapshots are pooled and reused. The snapshots and the pool together
+ * stay within the byte budget. Only when the mix of size classes shifts, or
+ * the cache is cleared, are pooled buffers dropped; their memory is then
+ * reclaimed by the garbage collector, so until it runs the cache may hold more
+ * direct memory than the budget. Size {@code -XX:MaxDirectMemorySize} with
+ * headroom above the budget and the other direct buffers of the application.
+ * <p>
+ * Snapshots never leave the cache: they are copied out under the lock, since
+ * their buffers are reused. The created and updated times are stored at fixed
+ * offsets and can be read without rehydration, such as to answer conditional
+ * requests.
+ * <p>
+ * The cache is a tier in front of any {@link Dao} through
+ * {@link #get(Serializable, Dao)}; the caller is responsible for removing the
+ * snapshots of updated or removed entities. Instances are thread-safe.
+ *
+ * @param <T> the entity type
+ * @param <ID> the entity identifier type
+ * @author Paul Benedict
+ * @since 1.0
+ */
+public class OffHeapEntityCache<T extends Entity<ID>, ID extends Serializable> {
+
+    /**
+     * The sentinel time of a {@code null} date.
+     */
+    public static final long NO_TIME = Long.MIN_VALUE;
+
+    private static final String MSG_ID_NULL = "Entity identifier is required";
+    private static final String MSG_NONPOSITIVE_BUDGET = "Byte budget must be positive: %d";
+    private static final String MSG_UNENCODABLE = "Cannot encode entity: %s";
+    private static final String MSG_UNDECODABLE = "Cannot decode snapshot of entity: %s";
+
+    private static final int CREATED_OFFSET = 0;
+    private static final int UPDATED_OFFSET = 8;
+    private static final int PAYLOAD_OFFSET = 16;
+
+    /**
+     * The capacity of the smallest size class.
+     */
+    private static final int MIN_CAPACITY = 64;
+
+    /**
+     * The capacity of the largest size class.
+     */
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private final BinaryCodecRegistry registry;
+    private final Class<T> entityClass;
+    private final long maxBytes;
+    private final LinkedHashMap<ID, ByteBuffer> snapshots;
+    private final ArrayDeque<ByteBuffer>[] pool;
+    private long usedBytes;
+    private long pooledBytes;
+    private long allocatedBytes;
+
+    /**
+     * Constructs a new cache.
+     *
+     * @param registry the codecs of the entities
+     * @param entityClass the entity type
+     * @param maxBytes the byte budget of the snapshots and pooled buffers
+     * @throws IllegalArgumentException if the budget is not positive
+     * @throws NullPointerException if the registry or type is {@code null}
+     */
+    @SuppressWarnings("unchecked")
+    public OffHeapEntityCache(BinaryCodecRegistry registry, Class<T> entityClass, long maxBytes) {
+        Objects.requireNonNull(registry);
+        Objects.requireNonNull(entityClass);
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException(String.format(MSG_NONPOSITIVE_BUDGET, maxBytes));
+        }
+        this.registry = registry;
+        this.entityClass = entityClass;
+        this.maxBytes = maxBytes;
+        snapshots = new LinkedHashMap<>(16, 0.75f, true);
+        pool = new ArrayDeque[Integer.numberOfTrailingZeros(MAX_CAPACITY) + 1];
+    }
+
+    /**
+     * Computes the size class of the specified snapshot size.
+     *
+     * @param size the snapshot size
+     * @return the power-of-two capacity
+     */
+    private static int capacityOf(int size) {
+        return Math.max(MIN_CAPACITY, Integer.highestOneBit(size - 1) << 1);
+    }
+
+    /**
+     * Converts the specified date to its time.
+     *
+     * @param date the date
+     * @return the time or {@link #NO_TIME}
+     */
+    private static long timeOf(Date date) {
+        return (date != null) ? date.getTime() : NO_TIME;
+    }
+
+    /**
+     * Takes a buffer of the specified capacity from the pool or else allocates
+     * one, first dropping pooled buffers of other capacities to stay within
+     * the byte budget. The caller must hold the lock.
+     *
+     * @param capacity the power-of-two capacity
+     * @return the cleared buffer
+     */
+    private ByteBuffer acquire(int capacity) {
+        ArrayDeque<ByteBuffer> free = pool[Integer.numberOfTrailingZeros(capacity)];
+        if (free != null && !free.isEmpty()) {
+            pooledBytes -= capacity;
+            ByteBuffer buffer = free.pop();
+            buffer.clear();
+            return buffer;
+        }
+
+        for (int i = pool.length - 1; i >= 0 && usedBytes + pooledBytes + capacity > maxBytes; i--) {
+            free = pool[i];
+            while (free != null && !free.isEmpty() && usedBytes + pooledBytes + capacity > maxBytes) {
+                pooledBytes -= free.pop().capacity();
+            }
+        }
+        allocatedBytes += capacity;
+        return ByteBuffer.allocateDirect(capacity);
+    }
+
+    /**
+     * Removes all snapshots and releases their memory, pooled or not, to the
+     * garbage collector.
+     */
+    public synchronized void clear() {
+        snapshots.clear();
+        Arrays.fill(pool, null);
+        usedBytes = 0;
+        pooledBytes = 0;
+    }
+
+    /**
+     * Copies the encoded payload of the specified snapshot. The copy is taken
+     * under the lock since the buffer may be reused once the snapshot is
+     * discarded.
+     *
+     * @param id the entity identifier
+     * @return the payload or {@code null} if not cached
+     */
+    private synchronized byte[] copyPayload(ID id) {
+        ByteBuffer snapshot = snapshots.get(id);
+        if (snapshot == null) {
+            return null;
+        }
+        byte[] bytes = new byte[snapshot.limit() - PAYLOAD_OFFSET];
+        ByteBuffer view = snapshot.duplicate();
+        view.position(PAYLOAD_OFFSET);
+        view.get(bytes);
+        return bytes;
+    }
+
+    /**
+     * Retrieves a new detached instance of the cached entity.
+     *
+     * @param id the entity identifier
+     * @return the entity or {@code null} if not cached
+     * @throws IllegalStateException if the snapshot cannot be decoded
+     * @see #get(Serializable, Dao)
+     */
+    public T get(ID id) {
+        byte[] bytes = copyPayload(id);
+        if (bytes == null) {
+            return null;
+        }
+        try {
+            return registry.decode(bytes, entityClass);
+        } catch (IOException | ClassNotFoundException e) {
+            throw new IllegalStateException(String.format(MSG_UNDECODABLE, id), e);
+        }
+    }
+
+    /**
+     * Retrieves a new detached instance of the cached entity, or else
+     * retrieves the entity from the specified data access object and caches
+     * it.
+     *
+     * @param id the entity identifier
+     * @param dao the data access object of uncached entities
+     * @return the entity or {@code null} if not found
+     * @see #get(Serializable)
+     */
+    public T get(ID id, Dao<? extends T, ID> dao) {
+        T entity = get(id);
+        if (entity == null) {
+            entity = dao.get(id, false);
+            if (entity != null) {
+                put(entity);
+            }
+        }
+        return entity;
+    }
+
+    /**
+     * Retrieves the created time of the cached entity without rehydrating it.
+     *
+     * @param id the entity identifier
+     * @return the time in milliseconds; otherwise {@link #NO_TIME} if not
+     * cached or not created
+     */
+    public long getCreatedTime(ID id) {
+        return getTime(id, CREATED_OFFSET);
+    }
+
+    /**
+     * Retrieves the byte budget of this cache.
+     *
+     * @return the maximum number of bytes
+     */
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * Retrieves a read-only copy of the encoded snapshot of the specified
+     * entity, such as to decode it with another codec. The copy is on the heap
+     * and is unaffected by later changes to the cache.
+     *
+     * @param id the entity identifier
+     * @return the encoded payload or {@code null} if not cached
+     * @see BinaryCodecRegistry#decode(byte[])
+     */
+    public ByteBuffer getSnapshot(ID id) {
+        byte[] bytes = copyPayload(id);
+        return (bytes != null) ? ByteBuffer.wrap(bytes).asReadOnlyBuffer() : null;
+    }
+
+    /**
+     * Reads the time at the specified offset of the snapshot.
+     *
+     * @param id the entity identifier
+     * @param offset the offset
+     * @return the time or {@link #NO_TIME}
+     */
+    private synchronized long getTime(ID id, int offset) {
+        ByteBuffer snapshot = snapshots.get(id);
+        return (snapshot != null) ? snapshot.getLong(offset) : NO_TIME;
+    }
+
+    /**
+     * Retrieves the updated time of the cached entity without rehydrating it.
+     *
+     * @param id the entity identifier
+     * @return the time in milliseconds; otherwise {@link #NO_TIME} if not
+     * cached or not updated
+     */
+    public long getUpdatedTime(ID id) {
+        return getTime(id, UPDATED_OFFSET);
+    }
+
+    /**
+     * Retrieves the cumulative number of bytes of direct memory allocated by
+     * this cache, to observe how often the pool is missed.
+     *
+     * @return the allocated bytes
+     */
+    synchronized long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    /**
+     * Retrieves the number of bytes held by the pooled buffers awaiting reuse.
+     *
+     * @return the pooled bytes
+     */
+    public synchronized long getPooledBytes() {
+        return pooledBytes;
+    }
+
+    /**
+     * Retrieves the number of bytes held by the snapshots, counting the full
+     * capacity of their size classes.
+     *
+     * @return the used bytes
+     */
+    public synchronized long getUsedBytes() {
+        return usedBytes;
+    }
+
+    /**
+     * Caches a snapshot of the specified entity, replacing any previous
+     * snapshot, and evicts the least recently used snapshots beyond the byte
+     * budget. Later changes to the entity are not reflected in the cache.
+     *
+     * @param entity the entity
+     * @return {@code true} if cached; {@code false} if the snapshot alone,
+     * rounded up to its size class, exceeds the byte budget
+     * @throws IllegalArgumentException if the entity cannot be encoded
+     * @throws NullPointerException if the entity or its identifier is
+     * {@code null}
+     */
+    public boolean put(T entity) {
+        ID id = entity.getId();
+        Objects.requireNonNull(id, MSG_ID_NULL);
+
+        byte[] payload;
+        try {
+            payload = registry.encode(entity);
+        } catch (IOException e) {
+            throw new IllegalArgumentException(String.format(MSG_UNENCODABLE, id), e);
+        }
+        int size = PAYLOAD_OFFSET + payload.length;
+        if (size > MAX_CAPACITY || capacityOf(size) > maxBytes) {
+            remove(id);
+            return false;
+        }
+        int capacity = capacityOf(size);
+        long created = timeOf(entity.getCreated());
+        long updated = timeOf(entity.getUpdated());
+
+        synchronized (this) {
+            // Free the space before acquiring so the buffers can be reused
+            remove(id);
+            Iterator<Map.Entry<ID, ByteBuffer>> lru = snapshots.entrySet().iterator();
+            while (usedBytes + capacity > maxBytes) {
+                ByteBuffer evicted = lru.next().getValue();
+                lru.remove();
+                release(evicted);
+            }
+
+            ByteBuffer snapshot = acquire(capacity);
+            snapshot.putLong(created);
+            snapshot.putLong(updated);
+            snapshot.put(payload);
+            snapshot.flip();
+            snapshots.put(id, snapshot);
+            usedBytes += capacity;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the buffer of a discarded snapshot to the pool. The caller must
+     * hold the lock.
+     *
+     * @param snapshot the discarded snapshot
+     */
+    private void release(ByteBuffer snapshot) {
+        int capacity = snapshot.capacity();
+        usedBytes -= capacity;
+        int sizeClass = Integer.numberOfTrailingZeros(capacity);
+        if (pool[sizeClass] == null) {
+            pool[sizeClass] = new ArrayDeque<>();
+        }
+        pool[sizeClass].push(snapshot);
+        pooledBytes += capacity;
+    }
+
+    /**
+     * Removes the snapshot of the specified entity. Its buffer is pooled for
+     * reuse.
+     *
+     * @param id the entity identifier
+     * @return {@code true} if removed; otherwise {@code false}
+     */
+    public synchronized boolean remove(ID id) {
+        ByteBuffer snapshot = snapshots.remove(id);
+        if (snapshot == null) {
+            return false;
+        }
+        release(snapshot);
+        return true;
+    }
+
+    /**
+     * Retrieves the number of cached snapshots.
+     *
+     * @return the number of snapshots
+     */
+    public synchronized int size() {
+        return snapshots.size();
+    }
+
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2015 Sacred Scripture Foundation.
+ * "All scripture is given by inspiration of God, and is profitable for
+ * doctrine, for reproof, for correction, for instruction in righteousness:
+ * That the man of God may be perfect, throughly furnished unto all good
+ * works." (2 Tim 3:16-17)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sacredscripturefoundation.commons.entity.dao;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import javax.persistence.OptimisticLockException;
+
+/**
+ * This class retries a unit of work that fails because of a concurrent update
+ * of a {@link org.sacredscripturefoundation.commons.entity.Versioned versioned}
+ * entity. The failure is recognized by an {@link OptimisticLockException}
+ * anywhere in the cause chain, so exceptions translated by a framework are
+ * recognized as well.
+ * <p>
+ * Each attempt must run in its own transaction, with entities read anew; the
+ * unit of work is typically a call to a transactional service method. The
+ * attempts are separated by a randomized backoff so that competing editors
+ * do not collide again. Instances are thread-safe.
+ *
+ * @author Paul Benedict
+ * @since 1.0
+ */
+public class OptimisticLockRetry {
+
+    /**
+     * The default maximum number of attempts.
+     */
+    public static final int DEFAULT_MAX_ATTEMPTS = 3;
+
+    /**
+     * The default backoff between attempts (in milliseconds).
+     */
+    public static final long DEFAULT_BACKOFF = 10;
+
+    private static final String MSG_NONPOSITIVE_ATTEMPTS = "Maximum attempts must be positive: %d";
+    private static final String MSG_NEGATIVE_BACKOFF = "Backoff cannot be negative: %d";
+
+    /**
+     * Determines whether the specified exception was caused by a stale
+     * version.
+     *
+     * @param e the exception
+     * @return {@code true} if an optimistic lock failure; otherwise
+     * {@code false}
+     */
+    static boolean isOptimisticLockFailure(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof OptimisticLockException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private final int maxAttempts;
+    private final long backoffNanos;
+
+    /**
+     * Constructs a new helper with the default attempts and backoff.
+     *
+     * @see #DEFAULT_MAX_ATTEMPTS
+     * @see #DEFAULT_BACKOFF
+     */
+    public OptimisticLockRetry() {
+        this(DEFAULT_MAX_ATTEMPTS, DEFAULT_BACKOFF, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Constructs a new helper.
+     *
+     * @param maxAttempts the maximum number of attempts
+     * @param backoff the base backoff between attempts, which grows with each
+     * attempt
+     * @param unit the unit of the backoff
+     * @throws IllegalArgumentException if the attempts are not positive or the
+     * backoff is negative
+     */
+    public OptimisticLockRetry(int maxAttempts, long backoff, TimeUnit unit) {
+        if (maxAttempts <= 0) {
+            throw new IllegalArgumentException(String.format(MSG_NONPOSITIVE_ATTEMPTS, maxAttempts));
+        }
+        if (backoff < 0) {
+            throw new IllegalArgumentException(String.format(MSG_NEGATIVE_BACKOFF, backoff));
+        }
+        this.maxAttempts = maxAttempts;
+        backoffNanos = unit.toNanos(backoff);
+    }
+
+    /**
+     * Sleeps before the next attempt for a random time up to the base backoff
+     * multiplied by the number of attempts so far.
+     *
+     * @param attempt the number of failed attempts
+     * @throws InterruptedException if interrupted
+     */
+    private void backoff(int attempt) throws InterruptedException {
+        if (backoffNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(ThreadLocalRandom.current().nextLong(backoffNanos * attempt + 1));
+        }
+    }
+
+    /**
+     * Executes the specified unit of work, and again after each optimistic
+     * lock failure until the maximum number of attempts.
+     *
+     * @param <V> the result type
+     * @param work the unit of work
+     * @return the result of the first successful attempt
+     * @throws RuntimeException the failure of the last attempt, or of any
+     * attempt which failed otherwise
+     * @throws IllegalStateException if the work throws a checked exception or
+     * the thread is interrupted during the backoff
+     */
+    public <V> V execute(Callable<V> work) {
+        for (int attempt = 1;; attempt++) {
+            try {
+                return work.call();
+            } catch (RuntimeException e) {
+                if ((attempt >= maxAttempts) || !isOptimisticLockFailure(e)) {
+                    throw e;
+                }
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+
+            try {
+                backoff(attempt);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    /**
+     * Retrieves the maximum number of attempts.
+     *
+     * @return the attempts
+     */
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+}
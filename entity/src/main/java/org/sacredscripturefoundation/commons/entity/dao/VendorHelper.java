@@ -1,11 +1,15 @@
 package org.sacredscripturefoundation.commons.entity.dao;
 
 import org.sacredscripturefoundation.commons.Count;
+import org.sacredscripturefoundation.commons.DeferredCount;
 import org.sacredscripturefoundation.commons.entity.Entity;
 
 import java.io.Serializable;
 import java.util.List;
+import java.util.concurrent.Callable;
 
+import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
 import javax.persistence.Query;
 
 /**
@@ -19,6 +23,60 @@ import javax.persistence.Query;
  */
 public interface VendorHelper<T extends Entity<ID>, ID extends Serializable> {
 
+    /**
+     * Estimates the number of rows stored for the specified entity type from
+     * the statistics kept by the database planner, without scanning the table.
+     * The estimate may be stale or inexact.
+     * <p>
+     * This default implementation has no estimate.
+     *
+     * @param em the entity manager
+     * @param entityClass the entity type
+     * @return the estimated count; otherwise {@code -1} if no estimate is
+     * available
+     */
+    default long estimateCount(EntityManager em, Class<? extends T> entityClass) {
+        return -1;
+    }
+
+    /**
+     * Applies a pessimistic write lock with the specified options to the rows
+     * selected by the specified query.
+     * <p>
+     * This default implementation applies the
+     * {@link #standardLock(Query, LockOptions) standard JPA lock}.
+     *
+     * @param em the entity manager of the query
+     * @param query the query
+     * @param options the lock options
+     * @throws UnsupportedOperationException if the options are unsupported
+     */
+    default void lock(EntityManager em, Query query, LockOptions options) {
+        standardLock(query, options);
+    }
+
+    /**
+     * Applies a pessimistic write lock with the specified options to the rows
+     * selected by the specified query using standard JPA only: the lock mode
+     * and the {@link LockOptions#TIMEOUT_HINT timeout hint}, which providers
+     * translate to {@code NOWAIT} when zero. Skipping locked rows is not
+     * standard and is unsupported.
+     *
+     * @param query the query
+     * @param options the lock options
+     * @throws UnsupportedOperationException if locked rows are to be skipped
+     * @see #lock(EntityManager, Query, LockOptions)
+     */
+    static void standardLock(Query query, LockOptions options) {
+        if (options.isSkipLocked()) {
+            throw new UnsupportedOperationException(options.toString());
+        }
+        query.setLockMode(LockModeType.PESSIMISTIC_WRITE);
+        if (options.getTimeout() != LockOptions.WAIT_FOREVER) {
+            query.setHint(LockOptions.TIMEOUT_HINT, options.getTimeout());
+        }
+    }
+
     /**
      * Executes the specified query for pagination purposes. The page of data is
      * fetched within the specified row boundaries, and a second reporting query
@@ -31,4 +89,43 @@ public interface VendorHelper<T extends Entity<ID>, ID extends Serializable> {
      */
     Count<List<T>> page(Query query, int beginRow, int endRow);
 
+    /**
+     * Executes the specified query for pagination purposes, but obtains the
+     * total number of would-be results from the specified counter rather than
+     * the query. The page is returned without waiting for the total.
+     * <p>
+     * This default implementation fetches the page and defers the counter
+     * until the count is first retrieved. The total is therefore counted
+     * apart from the page and may not agree with it; see
+     * {@link JpaDaoImpl#page(Query, javax.persistence.criteria.CriteriaQuery, int, int)}.
+     *
+     * @param query the query
+     * @param counter the computation of the total
+     * @param beginRow the beginning row index from 0
+     * @param endRow the ending row index inclusive
+     * @return the list of data plus its deferred total count
+     * @see DeferredCount
+     */
+    default Count<List<T>> page(Query query, Callable<? extends Number> counter, int beginRow, int endRow) {
+        List<T> results = fetchPage(query, beginRow, endRow);
+        return new DeferredCount<List<T>>(counter, results);
+    }
+
+    /**
+     * Fetches the rows of the specified query within the specified row
+     * boundaries.
+     *
+     * @param <T> the entity type
+     * @param query the query
+     * @param beginRow the beginning row index from 0
+     * @param endRow the ending row index inclusive
+     * @return the page of data
+     */
+    @SuppressWarnings("unchecked")
+    static <T> List<T> fetchPage(Query query, int beginRow, int endRow) {
+        query.setFirstResult(beginRow);
+        query.setMaxResults(endRow - beginRow + 1);
+        return query.getResultList();
+    }
+
 }
@@ -19,6 +19,15 @@
  */
 package org.sacredscripturefoundation.commons.entity.util;
 
+import org.sacredscripturefoundation.commons.Provider;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
 import java.util.UUID;
 
 /**
@@ -29,22 +38,70 @@ import java.util.UUID;
  * The no-arg constructor uses standard Base-64 encoding. Standard encoding is
  * not safe for the web because the "{@code /}" and "{@code +}" characters
  * require URI escaping. When {@link #Base64UuidGenerator(boolean) web safety is
- * enabled}, then "{@code _}" and "{@code -}" are substituted for "{@code /}"
- * and "{@code +}", respectively.
+ * enabled}, the URL-safe alphabet is used instead: "{@code _}" and "{@code -}"
+ * are substituted for "{@code /}" and "{@code +}", respectively.
  * <p>
- * Note: This class requires a VM with {@code sun.misc} package access. This
- * requirement can go away with JDK 8 since its java.util package provides
- * Base-64 tools.
+ * The identifiers are version 4 (random) UUIDs. The randomness is drawn from a
+ * pluggable {@link EntropySource}, {@link EntropySource#SECURE secure} by
+ * default, and each thread encodes into its own reused buffers; the only
+ * allocation per identifier is the resulting string. The bulk operations draw
+ * the randomness for up to {@value #BATCH_SIZE} identifiers at once, which
+ * spares the per-call overhead of the random generator (notably the locking
+ * inside {@code SecureRandom}).
  *
  * @author Paul Benedict
  * @since 1.0
  * @see UUID
  */
-@SuppressWarnings("restriction")
 public class Base64UuidGenerator implements IdGenerator<String> {
 
-    private final sun.misc.BASE64Encoder encoder;
-    private final boolean webSafe;
+    private static final int ID_BYTES = 16;
+    private static final int ID_LENGTH = 22;
+
+    /**
+     * The maximum number of identifiers whose randomness is drawn at once.
+     */
+    private static final int BATCH_SIZE = 256;
+
+    private static final String MSG_ENTROPY_NULL = "Entropy source is required";
+
+    /**
+     * The buffers reused by one thread.
+     */
+    private static final class Buffers {
+
+        /**
+         * The 16 bytes of the identifier being encoded.
+         */
+        final byte[] id = new byte[ID_BYTES];
+
+        /**
+         * The encoded characters of the identifier.
+         */
+        final byte[] chars = new byte[ID_LENGTH];
+
+        /**
+         * The randomness of a full batch; allocated on first bulk use.
+         */
+        byte[] batch;
+
+        /**
+         * The randomness of the last partial batch, sized exactly; allocated on
+         * first use.
+         */
+        byte[] partial;
+
+    }
+
+    private static final ThreadLocal<Buffers> buffers = new ThreadLocal<Buffers>() {
+        @Override
+        protected Buffers initialValue() {
+            return new Buffers();
+        }
+    };
+
+    private final Base64.Encoder encoder;
+    private final Provider<? extends Random> entropy;
 
     /**
      * Constructs a Base-64 generator that is not web-safe. See class
@@ -63,26 +120,83 @@ public class Base64UuidGenerator implements IdGenerator<String> {
      * @param webSafe {@code true} to enable web-safe encoding; otherwise
      * {@code false}
      * @see #Base64UuidGenerator()
+     * @see #Base64UuidGenerator(boolean, Provider)
      */
     public Base64UuidGenerator(boolean webSafe) {
-        encoder = new sun.misc.BASE64Encoder();
-        this.webSafe = webSafe;
+        this(webSafe, EntropySource.SECURE);
     }
 
-    // http://stackoverflow.com/questions/772802/storing-uuid-as-base64-string
-    private byte[] asByteArray(UUID uuid) {
-        long msb = uuid.getMostSignificantBits();
-        long lsb = uuid.getLeastSignificantBits();
-        byte[] buffer = new byte[16];
+    /**
+     * Constructs a Base-64 generator with the specified encoding and source of
+     * randomness. The provider is consulted on every generation and should
+     * return a generator confined to the calling thread.
+     *
+     * @param webSafe {@code true} to enable web-safe encoding; otherwise
+     * {@code false}
+     * @param entropy the provider of randomness
+     * @throws NullPointerException if the provider is {@code null}
+     * @see EntropySource
+     */
+    public Base64UuidGenerator(boolean webSafe, Provider<? extends Random> entropy) {
+        Objects.requireNonNull(entropy, MSG_ENTROPY_NULL);
+        encoder = (webSafe ? Base64.getUrlEncoder() : Base64.getEncoder()).withoutPadding();
+        this.entropy = entropy;
+    }
 
-        for (int i = 0; i < 8; i++) {
-            buffer[i] = (byte) (msb >>> (8 * (7 - i)));
+    /**
+     * Encodes the 16 bytes of the identifier buffer into an identifier.
+     *
+     * @param buffer the thread's buffers
+     * @return the identifier
+     */
+    private String encode(Buffers buffer) {
+        encoder.encode(buffer.id, buffer.chars);
+        return new String(buffer.chars, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Stamps the version (4) and IETF variant like {@link UUID#randomUUID()}
+     * onto the 16 bytes at the specified offset.
+     *
+     * @param bytes the random bytes
+     * @param off the offset of the identifier
+     */
+    private static void stamp(byte[] bytes, int off) {
+        bytes[off + 6] = (byte) ((bytes[off + 6] & 0x0f) | 0x40);
+        bytes[off + 8] = (byte) ((bytes[off + 8] & 0x3f) | 0x80);
+    }
+
+    /**
+     * Generates identifiers in batches of up to {@value #BATCH_SIZE}, drawing
+     * the randomness of each batch in a single call. Since {@link Random} cannot
+     * fill part of an array, the final partial batch is drawn into a second
+     * buffer of its exact size, which the thread keeps until a partial batch of
+     * another size is requested.
+     */
+    @Override
+    public void fill(String[] ids) {
+        Buffers buffer = buffers.get();
+        byte[] batch = buffer.batch;
+        if (batch == null) {
+            batch = buffer.batch = new byte[ID_BYTES * BATCH_SIZE];
         }
-        for (int i = 8; i < 16; i++) {
-            buffer[i] = (byte) (lsb >>> (8 * (7 - i)));
+        Random random = entropy.get();
+        for (int i = 0; i < ids.length; i += BATCH_SIZE) {
+            int count = Math.min(BATCH_SIZE, ids.length - i);
+            byte[] bytes = batch;
+            if (count < BATCH_SIZE) {
+                bytes = buffer.partial;
+                if (bytes == null || bytes.length != ID_BYTES * count) {
+                    bytes = buffer.partial = new byte[ID_BYTES * count];
+                }
+            }
+            random.nextBytes(bytes);
+            for (int j = 0; j < count; j++) {
+                stamp(bytes, j * ID_BYTES);
+                System.arraycopy(bytes, j * ID_BYTES, buffer.id, 0, ID_BYTES);
+                ids[i + j] = encode(buffer);
+            }
         }
-
-        return buffer;
     }
 
     /**
@@ -90,7 +204,24 @@ public class Base64UuidGenerator implements IdGenerator<String> {
      */
     @Override
     public String generate() {
-        return generate0(UUID.randomUUID());
+        Buffers buffer = buffers.get();
+        byte[] bytes = buffer.id;
+        entropy.get().nextBytes(bytes);
+        stamp(bytes, 0);
+        return encode(buffer);
+    }
+
+    /**
+     * @see #fill(String[])
+     */
+    @Override
+    public List<String> generate(int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException(String.format(MSG_NEGATIVE_COUNT, n));
+        }
+        String[] ids = new String[n];
+        fill(ids);
+        return Collections.unmodifiableList(Arrays.asList(ids));
     }
 
     /**
@@ -102,11 +233,15 @@ public class Base64UuidGenerator implements IdGenerator<String> {
      * @see #generate()
      */
     String generate0(UUID uuid) {
-        String id = encoder.encode(asByteArray(uuid)).split("=")[0];
-        if (webSafe) {
-            id = id.replace('/', '_').replace('+', '-');
+        Buffers buffer = buffers.get();
+        byte[] bytes = buffer.id;
+        long msb = uuid.getMostSignificantBits();
+        long lsb = uuid.getLeastSignificantBits();
+        for (int i = 0; i < 8; i++) {
+            bytes[i] = (byte) (msb >>> (8 * (7 - i)));
+            bytes[i + 8] = (byte) (lsb >>> (8 * (7 - i)));
         }
-        return id;
+        return encode(buffer);
     }
 
 }
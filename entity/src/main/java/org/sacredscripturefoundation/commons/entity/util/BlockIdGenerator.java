@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2015 Sacred Scripture Foundation.
+ * "All scripture is given by inspiration of God, and is profitable for
+ * doctrine, for reproof, for correction, for instruction in righteousness:
+ * That the man of God may be perfect, throughly furnished unto all good
+ * works." (2 Tim 3:16-17)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sacredscripturefoundation.commons.entity.util;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * This class generates numeric identifiers from blocks reserved in advance
+ * (the "pooled" optimization). Only one round trip to the
+ * {@link IdBlockSource} is made per block; every other identifier is handed
+ * out from memory.
+ * <p>
+ * Unlike {@code IDENTITY} columns, the identifier is known before the insert,
+ * which permits the persistence provider to batch JDBC inserts. Assign the
+ * identifiers to entities extending
+ * {@link org.sacredscripturefoundation.commons.entity.AssignedEntityImpl},
+ * for example with
+ * {@link org.sacredscripturefoundation.commons.entity.dao.JpaDaoImpl#setIdGenerator(IdGenerator)
+ * a data access object}. Unused identifiers of a block are lost on shutdown,
+ * leaving gaps.
+ * <p>
+ * The bulk operations acquire the lock of the generator once per call and copy
+ * out runs of consecutive identifiers, reserving as many blocks as required.
+ *
+ * @author Paul Benedict
+ * @see SequenceIdBlockSource
+ * @see TableIdBlockSource
+ * @since 1.0
+ */
+public class BlockIdGenerator implements IdGenerator<Long> {
+
+    /**
+     * The default number of identifiers per block.
+     */
+    public static final int DEFAULT_BLOCK_SIZE = 50;
+
+    private static final String MSG_BLOCK_SIZE = "Block size must be positive: %d";
+    private static final String MSG_SOURCE_NULL = "Block source is required";
+
+    private final IdBlockSource source;
+    private final int blockSize;
+    private long next;
+    private long limit;
+
+    /**
+     * Constructs a generator that reserves blocks of the
+     * {@link #DEFAULT_BLOCK_SIZE default size}.
+     *
+     * @param source the source of blocks
+     * @throws NullPointerException if the source is {@code null}
+     * @see #BlockIdGenerator(IdBlockSource, int)
+     */
+    public BlockIdGenerator(IdBlockSource source) {
+        this(source, DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * Constructs a generator that reserves blocks of the specified size. The
+     * size must agree with the configuration of the source (e.g., the
+     * increment of a database sequence).
+     *
+     * @param source the source of blocks
+     * @param blockSize the number of identifiers per block
+     * @throws IllegalArgumentException if the size is not positive
+     * @throws NullPointerException if the source is {@code null}
+     */
+    public BlockIdGenerator(IdBlockSource source, int blockSize) {
+        Objects.requireNonNull(source, MSG_SOURCE_NULL);
+        if (blockSize < 1) {
+            throw new IllegalArgumentException(String.format(MSG_BLOCK_SIZE, blockSize));
+        }
+        this.source = source;
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * @see #fill(long[])
+     */
+    @Override
+    public synchronized void fill(Long[] ids) {
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = generateLong();
+        }
+    }
+
+    /**
+     * Stores a newly generated identifier into every element of the specified
+     * array without boxing.
+     *
+     * @param ids the array to fill
+     * @throws NullPointerException if the array is {@code null}
+     * @see #fill(Long[])
+     */
+    public synchronized void fill(long[] ids) {
+        int i = 0;
+        while (i < ids.length) {
+            if (next == limit) {
+                next = source.reserve(blockSize);
+                limit = next + blockSize;
+            }
+            int run = (int) Math.min(limit - next, ids.length - i);
+            for (int j = 0; j < run; j++) {
+                ids[i++] = next++;
+            }
+        }
+    }
+
+    @Override
+    public Long generate() {
+        return generateLong();
+    }
+
+    /**
+     * @see #fill(Long[])
+     */
+    @Override
+    public List<Long> generate(int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException(String.format(MSG_NEGATIVE_COUNT, n));
+        }
+        Long[] ids = new Long[n];
+        fill(ids);
+        return Collections.unmodifiableList(Arrays.asList(ids));
+    }
+
+    /**
+     * Generates the next identifier without boxing.
+     *
+     * @return the identifier
+     * @see #generate()
+     */
+    public synchronized long generateLong() {
+        if (next == limit) {
+            next = source.reserve(blockSize);
+            limit = next + blockSize;
+        }
+        return next++;
+    }
+
+    /**
+     * Retrieves the number of identifiers per block.
+     *
+     * @return the block size
+     */
+    public final int getBlockSize() {
+        return blockSize;
+    }
+
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2015 Sacred Scripture Foundation.
+ * "All scripture is given by inspiration of God, and is profitable for
+ * doctrine, for reproof, for correction, for instruction in righteousness:
+ * That the man of God may be perfect, throughly furnished unto all good
+ * works." (2 Tim 3:16-17)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sacredscripturefoundation.commons.entity.util;
+
+import java.io.Serializable;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.Objects;
+
+/**
+ * This class is a clock with millisecond resolution which caches its current
+ * instant. The underlying clock is still read on every call, but a new
+ * {@link Instant} is created only when the millisecond changes; all readers
+ * within the same millisecond share one instance. It suits batch jobs that
+ * stamp thousands of entities per second, where every entity would otherwise
+ * allocate its own timestamp.
+ * <p>
+ * Instances are safe for concurrent use.
+ *
+ * @author Paul Benedict
+ * @see org.sacredscripturefoundation.commons.entity.AuditClockHolder
+ * @since 1.0
+ */
+public final class CoarseClock extends Clock implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final String MSG_SOURCE_NULL = "Source clock is required";
+
+    private final Clock source;
+    private transient volatile Instant cached;
+
+    /**
+     * Constructs a coarse clock of the system UTC clock.
+     *
+     * @see #CoarseClock(Clock)
+     */
+    public CoarseClock() {
+        this(Clock.systemUTC());
+    }
+
+    /**
+     * Constructs a coarse clock of the specified clock.
+     *
+     * @param source the clock to read
+     * @throws NullPointerException if the clock is {@code null}
+     */
+    public CoarseClock(Clock source) {
+        Objects.requireNonNull(source, MSG_SOURCE_NULL);
+        this.source = source;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return (obj instanceof CoarseClock) && source.equals(((CoarseClock) obj).source);
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return source.getZone();
+    }
+
+    @Override
+    public int hashCode() {
+        return source.hashCode() ^ 0x1;
+    }
+
+    /**
+     * Retrieves the current instant truncated to the millisecond. The same
+     * instance is returned until the millisecond changes.
+     */
+    @Override
+    public Instant instant() {
+        long millis = source.millis();
+        Instant now = cached;
+        if ((now == null) || (now.toEpochMilli() != millis)) {
+            now = Instant.ofEpochMilli(millis);
+            cached = now;
+        }
+        return now;
+    }
+
+    @Override
+    public long millis() {
+        return source.millis();
+    }
+
+    @Override
+    public String toString() {
+        return "CoarseClock[" + source + "]";
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+        return zone.equals(getZone()) ? this : new CoarseClock(source.withZone(zone));
+    }
+
+}
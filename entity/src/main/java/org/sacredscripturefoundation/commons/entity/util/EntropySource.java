@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2015 Sacred Scripture Foundation.
+ * "All scripture is given by inspiration of God, and is profitable for
+ * doctrine, for reproof, for correction, for instruction in righteousness:
+ * That the man of God may be perfect, throughly furnished unto all good
+ * works." (2 Tim 3:16-17)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sacredscripturefoundation.commons.entity.util;
+
+import org.sacredscripturefoundation.commons.Provider;
+
+import java.security.SecureRandom;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * This enumeration provides the sources of randomness available to identifier
+ * generators. Each constant provides a generator bound to the calling thread,
+ * so concurrent threads never contend on a shared instance.
+ *
+ * @author Paul Benedict
+ * @since 1.0
+ */
+public enum EntropySource implements Provider<Random> {
+
+    /**
+     * Cryptographically strong randomness from a {@link SecureRandom} per
+     * thread. Use when identifiers must be unguessable.
+     */
+    SECURE {
+        @Override
+        public Random get() {
+            return secureRandoms.get();
+        }
+    },
+
+    /**
+     * Fast, non-cryptographic randomness from {@link ThreadLocalRandom}. Use
+     * for identifiers that need only be unique, not secret.
+     */
+    FAST {
+        @Override
+        public Random get() {
+            return ThreadLocalRandom.current();
+        }
+    };
+
+    private static final ThreadLocal<SecureRandom> secureRandoms = new ThreadLocal<SecureRandom>() {
+        @Override
+        protected SecureRandom initialValue() {
+            return new SecureRandom();
+        }
+    };
+
+}
@@ -19,14 +19,29 @@
  */
 package org.sacredscripturefoundation.commons.entity.util;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 /**
  * This interface defines a contract to generate an identifier.
+ * <p>
+ * Bulk operations are provided for generating many identifiers at once. Their
+ * default implementations simply invoke {@link #generate()} repeatedly;
+ * implementors are encouraged to override them when a batch can amortize a
+ * per-identifier cost such as locking or drawing randomness.
  *
  * @author Paul Benedict
  * @since 1.0
  */
 public interface IdGenerator<T> {
 
+    /**
+     * The message of the failure to generate a negative number of identifiers.
+     * Implementors overriding {@link #generate(int)} should report the same.
+     */
+    String MSG_NEGATIVE_COUNT = "Count must not be negative: %d";
+
     /**
      * Generates an identifier.
      *
@@ -34,4 +49,38 @@ public interface IdGenerator<T> {
      */
     T generate();
 
+    /**
+     * Generates the specified number of identifiers. The returned list cannot
+     * be modified; copy it to add or remove elements.
+     *
+     * @param n the number of identifiers
+     * @return the unmodifiable list of identifiers in generation order
+     * @throws IllegalArgumentException if {@code n} is negative
+     * @see #fill(Object[])
+     */
+    default List<T> generate(int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException(String.format(MSG_NEGATIVE_COUNT, n));
+        }
+        List<T> ids = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            ids.add(generate());
+        }
+        return Collections.unmodifiableList(ids);
+    }
+
+    /**
+     * Stores a newly generated identifier into every element of the specified
+     * array.
+     *
+     * @param ids the array to fill
+     * @throws NullPointerException if the array is {@code null}
+     * @see #generate(int)
+     */
+    default void fill(T[] ids) {
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = generate();
+        }
+    }
+
 }
@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2015 Sacred Scripture Foundation.
+ * "All scripture is given by inspiration of God, and is profitable for
+ * doctrine, for reproof, for correction, for instruction in righteousness:
+ * That the man of God may be perfect, throughly furnished unto all good
+ * works." (2 Tim 3:16-17)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sacredscripturefoundation.commons.entity.util;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+
+import javax.persistence.AttributeConverter;
+import javax.persistence.Converter;
+
+/**
+ * This class converts an {@link Instant} to and from a SQL timestamp for
+ * persistence, which JPA 2.1 does not map natively.
+ *
+ * @author Paul Benedict
+ * @since 1.0
+ */
+@Converter
+public class InstantConverter implements AttributeConverter<Instant, Timestamp> {
+
+    @Override
+    public Timestamp convertToDatabaseColumn(Instant attribute) {
+        return (attribute != null) ? Timestamp.from(attribute) : null;
+    }
+
+    @Override
+    public Instant convertToEntityAttribute(Timestamp dbData) {
+        return (dbData != null) ? dbData.toInstant() : null;
+    }
+
+}
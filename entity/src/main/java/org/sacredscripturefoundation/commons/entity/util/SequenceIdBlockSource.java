@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2015 Sacred Scripture Foundation.
+ * "All scripture is given by inspiration of God, and is profitable for
+ * doctrine, for reproof, for correction, for instruction in righteousness:
+ * That the man of God may be perfect, throughly furnished unto all good
+ * works." (2 Tim 3:16-17)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sacredscripturefoundation.commons.entity.util;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Objects;
+
+import javax.persistence.PersistenceException;
+import javax.sql.DataSource;
+
+/**
+ * This class reserves identifier blocks from a database sequence. Each
+ * reservation reads one value from the sequence, which becomes the first
+ * identifier of the block. The sequence must therefore be created to
+ * {@code INCREMENT BY} the block size of the generator.
+ * <p>
+ * Because sequence syntax is vendor-specific, the query that reads the next
+ * value is supplied by the caller, for example:
+ * <ul>
+ * <li>PostgreSQL: {@code SELECT nextval('entity_seq')}</li>
+ * <li>Oracle: {@code SELECT entity_seq.NEXTVAL FROM DUAL}</li>
+ * <li>H2, SQL Server: {@code SELECT NEXT VALUE FOR entity_seq}</li>
+ * </ul>
+ *
+ * @author Paul Benedict
+ * @see BlockIdGenerator
+ * @since 1.0
+ */
+public class SequenceIdBlockSource implements IdBlockSource {
+
+    private static final String MSG_DATA_SOURCE_NULL = "Data source is required";
+    private static final String MSG_NO_VALUE = "Sequence query returned no value: %s";
+    private static final String MSG_QUERY_NULL = "Sequence query is required";
+
+    private final DataSource dataSource;
+    private final String nextValueQuery;
+
+    /**
+     * Constructs a new block source.
+     *
+     * @param dataSource the data source of the sequence
+     * @param nextValueQuery the query that reads the next sequence value
+     * @throws NullPointerException if any argument is {@code null}
+     */
+    public SequenceIdBlockSource(DataSource dataSource, String nextValueQuery) {
+        Objects.requireNonNull(dataSource, MSG_DATA_SOURCE_NULL);
+        Objects.requireNonNull(nextValueQuery, MSG_QUERY_NULL);
+        this.dataSource = dataSource;
+        this.nextValueQuery = nextValueQuery;
+    }
+
+    /**
+     * Reads the next sequence value. The size is not consulted; it is a
+     * property of the sequence.
+     */
+    @Override
+    public long reserve(int size) {
+        try (Connection con = dataSource.getConnection(); Statement stmt = con.createStatement(); ResultSet rs = stmt.executeQuery(nextValueQuery)) {
+            if (!rs.next()) {
+                throw new PersistenceException(String.format(MSG_NO_VALUE, nextValueQuery));
+            }
+            return rs.getLong(1);
+        } catch (SQLException e) {
+            throw new PersistenceException(e);
+        }
+    }
+
+}
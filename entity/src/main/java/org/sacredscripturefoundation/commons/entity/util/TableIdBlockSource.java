@@ -0,0 +1,203 @@
+/*
+ * Copyright (c) 2015 Sacred Scripture Foundation.
+ * "All scripture is given by inspiration of God, and is profitable for
+ * doctrine, for reproof, for correction, for instruction in righteousness:
+ * That the man of God may be perfect, throughly furnished unto all good
+ * works." (2 Tim 3:16-17)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sacredscripturefoundation.commons.entity.util;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.util.Objects;
+
+import javax.persistence.PersistenceException;
+import javax.sql.DataSource;
+
+/**
+ * This class reserves identifier blocks from a table of named counters, which
+ * is portable to databases without sequences. The table holds one row per
+ * counter:
+ *
+ * <pre>
+ * CREATE TABLE id_block (
+ *     name     VARCHAR(64) PRIMARY KEY,
+ *     next_val BIGINT NOT NULL
+ * )
+ * </pre>
+ * <p>
+ * Each reservation advances the counter by the block size in its own local
+ * transaction on a separate connection, so the row lock is held only
+ * momentarily and never joins the caller's transaction. A missing counter row
+ * is created on first use, starting at 1. If another process creates the same
+ * row concurrently, the losing insert fails on the primary key and the
+ * reservation is retried as an update of the row just created.
+ *
+ * @author Paul Benedict
+ * @see BlockIdGenerator
+ * @since 1.0
+ */
+public class TableIdBlockSource implements IdBlockSource {
+
+    /**
+     * The default name of the counter table.
+     */
+    public static final String DEFAULT_TABLE = "id_block";
+
+    private static final String MSG_DATA_SOURCE_NULL = "Data source is required";
+    private static final String MSG_NAME_NULL = "Counter name is required";
+    private static final String MSG_TABLE_NULL = "Table name is required";
+
+    /**
+     * The SQLSTATE class of integrity constraint violations.
+     */
+    private static final String INTEGRITY_VIOLATION_CLASS = "23";
+
+    /**
+     * Determines whether the specified exception is a violation of an
+     * integrity constraint, such as a duplicate primary key.
+     *
+     * @param e the exception
+     * @return {@code true} if a constraint violation; otherwise {@code false}
+     */
+    private static boolean isIntegrityViolation(SQLException e) {
+        if (e instanceof SQLIntegrityConstraintViolationException) {
+            return true;
+        }
+        String state = e.getSQLState();
+        return (state != null) && state.startsWith(INTEGRITY_VIOLATION_CLASS);
+    }
+
+    private final DataSource dataSource;
+    private final String name;
+    private final String insertSql;
+    private final String selectSql;
+    private final String updateSql;
+
+    /**
+     * Constructs a new block source for the specified counter in the
+     * {@link #DEFAULT_TABLE default table}.
+     *
+     * @param dataSource the data source of the table
+     * @param name the counter name (e.g., the entity table name)
+     * @throws NullPointerException if any argument is {@code null}
+     * @see #TableIdBlockSource(DataSource, String, String)
+     */
+    public TableIdBlockSource(DataSource dataSource, String name) {
+        this(dataSource, DEFAULT_TABLE, name);
+    }
+
+    /**
+     * Constructs a new block source for the specified counter and table.
+     *
+     * @param dataSource the data source of the table
+     * @param table the counter table name
+     * @param name the counter name (e.g., the entity table name)
+     * @throws NullPointerException if any argument is {@code null}
+     */
+    public TableIdBlockSource(DataSource dataSource, String table, String name) {
+        Objects.requireNonNull(dataSource, MSG_DATA_SOURCE_NULL);
+        Objects.requireNonNull(table, MSG_TABLE_NULL);
+        Objects.requireNonNull(name, MSG_NAME_NULL);
+        this.dataSource = dataSource;
+        this.name = name;
+        insertSql = "INSERT INTO " + table + " (name, next_val) VALUES (?, ?)";
+        selectSql = "SELECT next_val FROM " + table + " WHERE name = ?";
+        updateSql = "UPDATE " + table + " SET next_val = next_val + ? WHERE name = ?";
+    }
+
+    @Override
+    public long reserve(int size) {
+        try (Connection con = dataSource.getConnection()) {
+            boolean autoCommit = con.getAutoCommit();
+            con.setAutoCommit(false);
+            try {
+                return reserveRetrying(con, size);
+            } finally {
+                con.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            throw new PersistenceException(e);
+        }
+    }
+
+    /**
+     * Advances the counter in a transaction of the specified connection. A
+     * transaction whose insert of the counter row lost the race to another
+     * process is rolled back and retried once; by then the row exists.
+     *
+     * @param con the connection
+     * @param size the block size
+     * @return the first identifier of the block
+     * @throws SQLException if a database error occurs
+     */
+    private long reserveRetrying(Connection con, int size) throws SQLException {
+        for (boolean retry = true;; retry = false) {
+            try {
+                long first = reserve(con, size);
+                con.commit();
+                return first;
+            } catch (SQLException e) {
+                con.rollback();
+                if (!retry || !isIntegrityViolation(e)) {
+                    throw e;
+                }
+            } catch (RuntimeException e) {
+                con.rollback();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Advances the counter within the transaction of the specified
+     * connection.
+     *
+     * @param con the connection
+     * @param size the block size
+     * @return the first identifier of the block
+     * @throws SQLException if a database error occurs
+     */
+    private long reserve(Connection con, int size) throws SQLException {
+        // The update locks the row until commit, serializing reservations
+        int updated;
+        try (PreparedStatement stmt = con.prepareStatement(updateSql)) {
+            stmt.setLong(1, size);
+            stmt.setString(2, name);
+            updated = stmt.executeUpdate();
+        }
+
+        if (updated == 0) {
+            try (PreparedStatement stmt = con.prepareStatement(insertSql)) {
+                stmt.setString(1, name);
+                stmt.setLong(2, 1L + size);
+                stmt.executeUpdate();
+            }
+            return 1L;
+        }
+
+        try (PreparedStatement stmt = con.prepareStatement(selectSql)) {
+            stmt.setString(1, name);
+            try (ResultSet rs = stmt.executeQuery()) {
+                rs.next();
+                return rs.getLong(1) - size;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) 2015 Sacred Scripture Foundation.
+ * "All scripture is given by inspiration of God, and is profitable for
+ * doctrine, for reproof, for correction, for instruction in righteousness:
+ * That the man of God may be perfect, throughly furnished unto all good
+ * works." (2 Tim 3:16-17)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sacredscripturefoundation.commons.entity.util;
+
+import org.sacredscripturefoundation.commons.Provider;
+
+import java.time.Clock;
+import java.util.Objects;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * This class generates 128-bit identifiers ordered by creation time, encoded
+ * to 26-character strings in Crockford's Base-32 alphabet. Example:
+ * "01HF3Q8Z5N7ZR4C9W2TQJ3K6MB"
+ * <p>
+ * Random identifiers scatter inserts across a primary-key index. Time-ordered
+ * identifiers append to it, which avoids page splits on large tables and lets
+ * keyset pagination order by identifier. The bit layout is that of a version 7
+ * UUID: a 48-bit Unix millisecond timestamp, a 12-bit counter and 62 random
+ * bits. Within one generator, the identifiers are strictly increasing even
+ * when generated in the same millisecond or when the clock moves backwards.
+ * <p>
+ * The alphabet has no lowercase letters and sorts in ASCII order, so the
+ * string identifiers sort by time under both binary and case-insensitive
+ * collations. Use {@link #generateUuid()} to store the same identifiers in a
+ * binary or native UUID column.
+ *
+ * @author Paul Benedict
+ * @see TimeOrderedLongIdGenerator
+ * @since 1.0
+ */
+public class TimeOrderedIdGenerator implements IdGenerator<String> {
+
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+
+    private static final int ID_LENGTH = 26;
+
+    private static final int COUNTER_MASK = 0xfff;
+
+    /**
+     * A fresh millisecond seeds the counter below this bound to leave headroom
+     * for identifiers generated in the same millisecond.
+     */
+    private static final int COUNTER_SEED_BOUND = 0x800;
+
+    private static final String MSG_CLOCK_NULL = "Clock is required";
+    private static final String MSG_ENTROPY_NULL = "Entropy source is required";
+
+    /**
+     * Encodes the specified 128-bit value in Crockford's Base-32 alphabet.
+     *
+     * @param msb the most significant bits
+     * @param lsb the least significant bits
+     * @return the 26-character string
+     */
+    static String encode(long msb, long lsb) {
+        char[] buf = new char[ID_LENGTH];
+        for (int i = ID_LENGTH - 1, shift = 0; i >= 0; i--, shift += 5) {
+            long bits;
+            if (shift >= 64) {
+                bits = msb >>> (shift - 64);
+            } else if (shift > 59) {
+                bits = (lsb >>> shift) | (msb << (64 - shift));
+            } else {
+                bits = lsb >>> shift;
+            }
+            buf[i] = ALPHABET[(int) (bits & 0x1f)];
+        }
+        return new String(buf);
+    }
+
+    private final Clock clock;
+    private final Provider<? extends Random> entropy;
+    private long lastMillis;
+    private int counter;
+
+    /**
+     * Constructs a generator using the system clock and secure randomness.
+     *
+     * @see #TimeOrderedIdGenerator(Clock, Provider)
+     */
+    public TimeOrderedIdGenerator() {
+        this(Clock.systemUTC(), EntropySource.SECURE);
+    }
+
+    /**
+     * Constructs a generator using the specified clock and source of
+     * randomness.
+     *
+     * @param clock the clock that timestamps identifiers
+     * @param entropy the provider of randomness
+     * @throws NullPointerException if any argument is {@code null}
+     * @see EntropySource
+     */
+    public TimeOrderedIdGenerator(Clock clock, Provider<? extends Random> entropy) {
+        Objects.requireNonNull(clock, MSG_CLOCK_NULL);
+        Objects.requireNonNull(entropy, MSG_ENTROPY_NULL);
+        this.clock = clock;
+        this.entropy = entropy;
+    }
+
+    /**
+     * @see #generateUuid()
+     */
+    @Override
+    public String generate() {
+        long[] bits = nextBits();
+        return encode(bits[0], bits[1]);
+    }
+
+    /**
+     * Generates the next identifier as a version 7 UUID. The UUIDs are ordered
+     * by time when compared as unsigned 128-bit values (e.g., by a database).
+     *
+     * @return the identifier
+     * @see #generate()
+     */
+    public UUID generateUuid() {
+        long[] bits = nextBits();
+        return new UUID(bits[0], bits[1]);
+    }
+
+    /**
+     * Generates the bits of the next identifier.
+     *
+     * @return the most and least significant bits
+     */
+    private long[] nextBits() {
+        Random random = entropy.get();
+        long millis;
+        int sequence;
+        synchronized (this) {
+            long now = clock.millis();
+            if (now > lastMillis) {
+                lastMillis = now;
+                counter = random.nextInt(COUNTER_SEED_BOUND);
+            } else if (counter < COUNTER_MASK) {
+                counter++;
+            } else {
+                // Counter exhausted or clock moved backwards; borrow the next
+                // millisecond to remain strictly increasing
+                lastMillis++;
+                counter = 0;
+            }
+            millis = lastMillis;
+            sequence = counter;
+        }
+        long msb = (millis << 16) | 0x7000L | sequence;
+        long lsb = (random.nextLong() & 0x3fffffffffffffffL) | 0x8000000000000000L;
+        return new long[] { msb, lsb };
+    }
+
+}
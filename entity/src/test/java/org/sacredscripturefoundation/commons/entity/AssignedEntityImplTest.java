@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2015 Sacred Scripture Foundation.
+ * "All scripture is given by inspiration of God, and is profitable for
+ * doctrine, for reproof, for correction, for instruction in righteousness:
+ * That the man of God may be perfect, throughly furnished unto all good
+ * works." (2 Tim 3:16-17)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sacredscripturefoundation.commons.entity;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.Date;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link AssignedEntityImpl}.
+ *
+ * @author Paul Benedict
+ * @since 1.0
+ */
+public class AssignedEntityImplTest {
+
+    /**
+     * Verifies the failure to construct with a {@code null} identifier.
+     */
+    @Test(expected = NullPointerException.class)
+    public void testConstructorNullId() {
+        new MockAssignedEntity(null);
+    }
+
+    /**
+     * Verifies the identifier is kept as assigned.
+     */
+    @Test
+    public void testSetId() {
+        MockAssignedEntity entity = new MockAssignedEntity();
+        assertNull(entity.getId());
+        entity.setId(42L);
+        assertEquals(Long.valueOf(42L), entity.getId());
+        assertEquals("id=42", entity.toString());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSetIdNumberLessThanOne() {
+        new MockAssignedEntity().setId(-1L);
+    }
+
+    /**
+     * Verifies the audit dates are kept like those of {@link EntityImpl}.
+     */
+    @Test
+    public void testTouch() {
+        MockAssignedEntity entity = new MockAssignedEntity(1L);
+        entity.touch();
+        Date created = entity.getCreated();
+        entity.touch();
+        assertEquals(created, entity.getCreated());
+    }
+
+}
@@ -38,4 +38,14 @@ public class DuplicateEntityExceptionTest {
         assertEquals(1L, e.getExtraInformation());
     }
 
+    /**
+     * Verifies the lightweight exception has no stack trace.
+     */
+    @Test
+    public void testStackless() {
+        DuplicateEntityException e = new DuplicateEntityException(false, "Duplicate: %d", 1L);
+        assertEquals(0, e.getStackTrace().length);
+        assertEquals("Duplicate: 1", e.getMessage());
+    }
+
 }
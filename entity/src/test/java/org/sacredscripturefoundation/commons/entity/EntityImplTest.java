@@ -23,8 +23,12 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
 import java.util.Date;
 
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -48,6 +52,11 @@ public class EntityImplTest {
         };
     }
 
+    @After
+    public void tearDown() {
+        AuditClockHolder.resetClock();
+    }
+
     /**
      * Verifies the failure to construct with a {@code null} identifier.
      */
@@ -59,6 +68,26 @@ public class EntityImplTest {
         };
     }
 
+    /**
+     * Verifies the created timestamp cannot be mutated through the getter.
+     */
+    @Test
+    public void testGetCreatedCopy() {
+        entity.setCreated(new Date(1000L));
+        entity.getCreated().setTime(2000L);
+        assertEquals(new Date(1000L), entity.getCreated());
+    }
+
+    /**
+     * Verifies the updated timestamp cannot be mutated through the getter.
+     */
+    @Test
+    public void testGetUpdatedCopy() {
+        entity.setUpdated(new Date(1000L));
+        entity.getUpdated().setTime(2000L);
+        assertEquals(new Date(1000L), entity.getUpdated());
+    }
+
     /**
      * Verifies mutating the created timestamp.
      */
@@ -113,6 +142,24 @@ public class EntityImplTest {
         assertEquals(date, entity.getUpdated());
     }
 
+    /**
+     * Verifies touching reads the audit clock and keeps the created time.
+     */
+    @Test
+    public void testTouch() {
+        Instant first = Instant.parse("2015-06-01T12:00:00Z");
+        AuditClockHolder.setClock(Clock.fixed(first, ZoneOffset.UTC));
+        entity.touch();
+        assertEquals(Date.from(first), entity.getCreated());
+        assertEquals(Date.from(first), entity.getUpdated());
+
+        Instant second = first.plusSeconds(60);
+        AuditClockHolder.setClock(Clock.fixed(second, ZoneOffset.UTC));
+        entity.touch();
+        assertEquals(Date.from(first), entity.getCreated());
+        assertEquals(Date.from(second), entity.getUpdated());
+    }
+
     /**
      * Verifies the string generation does not throw an exception.
      */
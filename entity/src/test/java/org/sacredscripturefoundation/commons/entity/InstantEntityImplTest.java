@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2015 Sacred Scripture Foundation.
+ * "All scripture is given by inspiration of God, and is profitable for
+ * doctrine, for reproof, for correction, for instruction in righteousness:
+ * That the man of God may be perfect, throughly furnished unto all good
+ * works." (2 Tim 3:16-17)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sacredscripturefoundation.commons.entity;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Date;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link InstantEntityImpl}.
+ *
+ * @author Paul Benedict
+ * @since 1.0
+ */
+public class InstantEntityImplTest {
+
+    private static final Instant NOW = Instant.parse("2015-06-01T12:00:00Z");
+
+    private InstantEntityImpl<Long> entity;
+
+    @Before
+    @SuppressWarnings("serial")
+    public void setUp() {
+        entity = new InstantEntityImpl<Long>() {
+            // empty
+        };
+        AuditClockHolder.setClock(Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @After
+    public void tearDown() {
+        AuditClockHolder.resetClock();
+    }
+
+    /**
+     * Verifies the failure to construct with a {@code null} identifier.
+     */
+    @Test(expected = NullPointerException.class)
+    @SuppressWarnings("serial")
+    public void testConstructorNullId() {
+        new InstantEntityImpl<Long>(null) {
+            // empty
+        };
+    }
+
+    /**
+     * Verifies the date accessors convert to and from the instants and do not
+     * expose internal state.
+     */
+    @Test
+    public void testDateAccessors() {
+        Date date = Date.from(NOW);
+        entity.setCreated(date);
+        date.setTime(0);
+        assertEquals(NOW, entity.getCreatedInstant());
+        assertEquals(Date.from(NOW), entity.getCreated());
+        assertNotSame(entity.getCreated(), entity.getCreated());
+
+        entity.setUpdated(null);
+        assertNull(entity.getUpdated());
+    }
+
+    /**
+     * Verifies the failure to set a negative numeric identifier.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testSetIdNumberLessThanOne() {
+        entity.setId(-1L);
+    }
+
+    /**
+     * Verifies touching stamps both instants from the audit clock with one
+     * shared instance and keeps the created instant afterwards.
+     */
+    @Test
+    public void testTouch() {
+        entity.touch();
+        assertEquals(NOW, entity.getCreatedInstant());
+        assertSame(entity.getCreatedInstant(), entity.getUpdatedInstant());
+
+        Instant later = NOW.plusSeconds(60);
+        AuditClockHolder.setClock(Clock.fixed(later, ZoneOffset.UTC));
+        entity.touch();
+        assertEquals(NOW, entity.getCreatedInstant());
+        assertEquals(later, entity.getUpdatedInstant());
+    }
+
+}
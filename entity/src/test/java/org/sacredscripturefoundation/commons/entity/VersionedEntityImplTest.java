@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2015 Sacred Scripture Foundation.
+ * "All scripture is given by inspiration of God, and is profitable for
+ * doctrine, for reproof, for correction, for instruction in righteousness:
+ * That the man of God may be perfect, throughly furnished unto all good
+ * works." (2 Tim 3:16-17)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sacredscripturefoundation.commons.entity;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link VersionedEntityImpl}.
+ *
+ * @author Paul Benedict
+ * @since 1.0
+ */
+public class VersionedEntityImplTest {
+
+    /**
+     * Verifies a new entity has the initial version.
+     */
+    @Test
+    public void testConstructor() {
+        assertEquals(0L, new MockVersionedEntity(1L).getVersion());
+    }
+
+    /**
+     * Verifies the version of a detached copy can be restored.
+     */
+    @Test
+    public void testSetVersion() {
+        MockVersionedEntity entity = new MockVersionedEntity(1L);
+        entity.setVersion(7L);
+        assertEquals(7L, entity.getVersion());
+    }
+
+}
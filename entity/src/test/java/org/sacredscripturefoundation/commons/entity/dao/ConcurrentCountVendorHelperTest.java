@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2015 Sacred Scripture Foundation.
+ * "All scripture is given by inspiration of God, and is profitable for
+ * doctrine, for reproof, for correction, for instruction in righteousness:
+ * That the man of God may be perfect, throughly furnished unto all good
+ * works." (2 Tim 3:16-17)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sacredscripturefoundation.commons.entity.dao;
+
+import static org.easymock.EasyMock.createMock;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.replay;
+import static org.easymock.EasyMock.verify;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import org.sacredscripturefoundation.commons.Count;
+import org.sacredscripturefoundation.commons.entity.MockEntity;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link ConcurrentCountVendorHelper}.
+ *
+ * @author Paul Benedict
+ * @since 1.0
+ */
+public class ConcurrentCountVendorHelperTest {
+
+    private ExecutorService executor;
+    private VendorHelper<MockEntity, Long> delegate;
+    private ConcurrentCountVendorHelper<MockEntity, Long> helper;
+    private Query query;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        executor = Executors.newSingleThreadExecutor();
+        delegate = createMock(VendorHelper.class);
+        helper = new ConcurrentCountVendorHelper<>(delegate, executor);
+        query = createMock(Query.class);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Verifies locks are applied by the delegate.
+     */
+    @Test
+    public void testLock() {
+        EntityManager em = createMock(EntityManager.class);
+        delegate.lock(em, query, LockOptions.SKIP_LOCKED);
+        replay(delegate);
+        helper.lock(em, query, LockOptions.SKIP_LOCKED);
+        verify(delegate);
+    }
+
+    /**
+     * Verifies the page is returned while the counter is still running and
+     * the total becomes available afterwards.
+     */
+    @Test
+    public void testPageWithCounter() throws Exception {
+        List<MockEntity> rows = Arrays.asList(new MockEntity(1L), new MockEntity(2L));
+        expect(query.setFirstResult(10)).andReturn(query);
+        expect(query.setMaxResults(10)).andReturn(query);
+        expect(query.getResultList()).andReturn(rows);
+        replay(query);
+
+        final CountDownLatch release = new CountDownLatch(1);
+        Count<List<MockEntity>> page = helper.page(query, new Callable<Long>() {
+            @Override
+            public Long call() throws Exception {
+                release.await(5, TimeUnit.SECONDS);
+                return 100L;
+            }
+        }, 10, 19);
+
+        verify(query);
+        assertSame(rows, page.getCounted());
+        release.countDown();
+        assertEquals(100, page.getCount());
+    }
+
+    /**
+     * Verifies pages without a counter are passed to the delegate.
+     */
+    @Test
+    public void testPageWithoutCounter() {
+        Count<List<MockEntity>> result = null;
+        expect(delegate.page(query, 0, 9)).andReturn(result);
+        replay(delegate);
+        helper.page(query, 0, 9);
+        verify(delegate);
+    }
+
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) 2015 Sacred Scripture Foundation.
+ * "All scripture is given by inspiration of God, and is profitable for
+ * doctrine, for reproof, for correction, for instruction in righteousness:
+ * That the man of God may be perfect, throughly furnished unto all good
+ * works." (2 Tim 3:16-17)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sacredscripturefoundation.commons.entity.dao;
+
+import static org.easymock.EasyMock.createMock;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.isA;
+import static org.easymock.EasyMock.replay;
+import static org.easymock.EasyMock.verify;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.sacredscripturefoundation.commons.entity.MockEntity;
+
+import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
+import javax.persistence.Query;
+
+import org.hibernate.Session;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.MySQLDialect;
+import org.hibernate.dialect.Oracle8iDialect;
+import org.hibernate.dialect.PostgreSQL81Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link HibernateVendorHelper}.
+ *
+ * @author Paul Benedict
+ * @since 1.0
+ */
+public class HibernateVendorHelperTest {
+
+    private HibernateVendorHelper<MockEntity, Long> helper;
+    private EntityManager em;
+    private Query query;
+
+    @Before
+    public void setUp() {
+        helper = new HibernateVendorHelper<>();
+        em = createMock(EntityManager.class);
+        query = createMock(Query.class);
+    }
+
+    /**
+     * Expects the entity manager to resolve to the specified dialect.
+     *
+     * @param dialect the dialect
+     */
+    private void expectDialect(Dialect dialect) {
+        Session session = createMock(Session.class);
+        SessionFactoryImplementor sf = createMock(SessionFactoryImplementor.class);
+        expect(em.unwrap(Session.class)).andReturn(session);
+        expect(session.getSessionFactory()).andReturn(sf);
+        expect(sf.getDialect()).andReturn(dialect);
+        replay(session, sf);
+    }
+
+    /**
+     * Verifies the standard lock is applied when locked rows are not skipped.
+     */
+    @Test
+    public void testLock() {
+        query.setLockMode(LockModeType.PESSIMISTIC_WRITE);
+        expect(query.setHint(LockOptions.TIMEOUT_HINT, 0L)).andReturn(query);
+        replay(em, query);
+        helper.lock(em, query, LockOptions.NOWAIT);
+        verify(em, query);
+    }
+
+    /**
+     * Verifies locked rows are skipped when the dialect supports it.
+     */
+    @Test
+    public void testLockSkipLocked() {
+        expectDialect(new Dialect() {
+            @Override
+            public String getForUpdateSkipLockedString() {
+                return " for update skip locked";
+            }
+        });
+        org.hibernate.Query hibernateQuery = createMock(org.hibernate.Query.class);
+        query.setLockMode(LockModeType.PESSIMISTIC_WRITE);
+        expect(query.unwrap(org.hibernate.Query.class)).andReturn(hibernateQuery);
+        expect(hibernateQuery.setLockOptions(isA(org.hibernate.LockOptions.class))).andReturn(hibernateQuery);
+        replay(em, query, hibernateQuery);
+        helper.lock(em, query, LockOptions.SKIP_LOCKED);
+        verify(em, query, hibernateQuery);
+    }
+
+    /**
+     * Verifies the failure to skip locked rows when the dialect would render a
+     * blocking lock instead.
+     */
+    @Test(expected = UnsupportedOperationException.class)
+    public void testLockSkipLockedUnsupported() {
+        expectDialect(new Dialect() {
+            // inherits the plain lock
+        });
+        replay(em, query);
+        helper.lock(em, query, LockOptions.SKIP_LOCKED);
+    }
+
+    /**
+     * Verifies backquoted identifiers lose their quotes and unquoted
+     * identifiers keep their case in the MySQL catalog.
+     */
+    @Test
+    public void testCatalogNameMySql() {
+        Dialect dialect = new MySQLDialect();
+        assertEquals("Book", HibernateVendorHelper.catalogName(dialect, "`Book`"));
+        assertEquals("say `hi`", HibernateVendorHelper.catalogName(dialect, "`say ``hi```"));
+        assertEquals("Book", HibernateVendorHelper.catalogName(dialect, "Book"));
+    }
+
+    /**
+     * Verifies quoted identifiers keep their case and unquoted identifiers are
+     * folded to upper case in the Oracle catalog.
+     */
+    @Test
+    public void testCatalogNameOracle() {
+        Dialect dialect = new Oracle8iDialect();
+        assertEquals("Book", HibernateVendorHelper.catalogName(dialect, "\"Book\""));
+        assertEquals("BOOK_LOCALE", HibernateVendorHelper.catalogName(dialect, "book_locale"));
+    }
+
+    /**
+     * Verifies quoted identifiers keep their case and unquoted identifiers are
+     * folded to lower case in the PostgreSQL catalog.
+     */
+    @Test
+    public void testCatalogNamePostgres() {
+        Dialect dialect = new PostgreSQL81Dialect();
+        assertEquals("Book", HibernateVendorHelper.catalogName(dialect, "\"Book\""));
+        assertEquals("say \"hi\"", HibernateVendorHelper.catalogName(dialect, "\"say \"\"hi\"\"\""));
+        assertEquals("book_locale", HibernateVendorHelper.catalogName(dialect, "BOOK_LOCALE"));
+    }
+
+    /**
+     * Verifies the statistics of a schema-qualified table are searched within
+     * its schema.
+     */
+    @Test
+    public void testEstimateSqlQualified() {
+        assertTrue(HibernateVendorHelper.estimateSql(new Oracle8iDialect(), true).contains("all_tables"));
+        assertTrue(HibernateVendorHelper.estimateSql(new Oracle8iDialect(), false).contains("user_tables"));
+        assertTrue(HibernateVendorHelper.estimateSql(new MySQLDialect(), true).endsWith("table_schema = ?"));
+        assertTrue(HibernateVendorHelper.estimateSql(new MySQLDialect(), false).endsWith("table_schema = DATABASE()"));
+        assertTrue(HibernateVendorHelper.estimateSql(new PostgreSQL81Dialect(), true).contains("pg_namespace"));
+    }
+
+}
@@ -19,16 +19,33 @@
  */
 package org.sacredscripturefoundation.commons.entity.dao;
 
+import static org.easymock.EasyMock.createMock;
 import static org.easymock.EasyMock.createNiceMock;
 import static org.easymock.EasyMock.expect;
 import static org.easymock.EasyMock.replay;
 import static org.easymock.EasyMock.verify;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 
+import org.sacredscripturefoundation.commons.Count;
+import org.sacredscripturefoundation.commons.entity.MockAssignedEntity;
 import org.sacredscripturefoundation.commons.entity.MockEntity;
+import org.sacredscripturefoundation.commons.entity.MockVersionedEntity;
+import org.sacredscripturefoundation.commons.entity.util.IdGenerator;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import javax.persistence.EntityManager;
 import javax.persistence.LockModeType;
+import javax.persistence.Query;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Root;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -41,10 +58,69 @@ import org.junit.Test;
  */
 public class JpaDaoImplTest {
 
+    /**
+     * This class is a DAO which tallies its exact counts.
+     */
+    private static class CountingDao extends JpaDaoImpl<MockEntity, MockEntity, Long> {
+
+        int counted;
+
+        CountingDao() {
+            super(MockEntity.class);
+        }
+
+        @Override
+        public long count() {
+            return ++counted;
+        }
+
+    }
+
     private MockEntity entity;
     private JpaDaoImpl<MockEntity, MockEntity, Long> dao;
     private EntityManager em;
 
+    private JpaDaoImpl<MockAssignedEntity, MockAssignedEntity, Long> newAssignedDao() {
+        JpaDaoImpl<MockAssignedEntity, MockAssignedEntity, Long> assignedDao;
+        assignedDao = new JpaDaoImpl<MockAssignedEntity, MockAssignedEntity, Long>(MockAssignedEntity.class);
+        assignedDao.setEntityManager(em);
+        assignedDao.setIdGenerator(new IdGenerator<Long>() {
+            @Override
+            public Long generate() {
+                return 42L;
+            }
+        });
+        return assignedDao;
+    }
+
+    private JpaDaoImpl<MockVersionedEntity, MockVersionedEntity, Long> newVersionedDao() {
+        JpaDaoImpl<MockVersionedEntity, MockVersionedEntity, Long> versionedDao;
+        versionedDao = new JpaDaoImpl<MockVersionedEntity, MockVersionedEntity, Long>(MockVersionedEntity.class);
+        versionedDao.setEntityManager(em);
+        return versionedDao;
+    }
+
+    /**
+     * Records the expectations of building the criteria query of the entities
+     * and answering it with the specified query.
+     *
+     * @param query the query to answer
+     * @return the root of the criteria query
+     */
+    @SuppressWarnings("unchecked")
+    private Root<MockEntity> expectCriteriaQuery(TypedQuery<MockEntity> query) {
+        CriteriaBuilder cb = createNiceMock(CriteriaBuilder.class);
+        CriteriaQuery<MockEntity> cq = createNiceMock(CriteriaQuery.class);
+        Root<MockEntity> root = createNiceMock(Root.class);
+        expect(em.getCriteriaBuilder()).andReturn(cb);
+        expect(cb.createQuery(MockEntity.class)).andReturn(cq);
+        expect(cq.from(MockEntity.class)).andReturn(root);
+        expect(cq.select(root)).andReturn(cq);
+        expect(em.createQuery(cq)).andReturn(query);
+        replay(cb, cq);
+        return root;
+    }
+
     @Before
     public void setUp() throws Exception {
         entity = new MockEntity(1L);
@@ -53,6 +129,56 @@ public class JpaDaoImplTest {
         dao.setEntityManager(em);
     }
 
+    /**
+     * Verifies the claimed entities are limited to the maximum and skip locked
+     * rows through the vendor helper.
+     */
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testClaimNext() {
+        final LockOptions[] applied = new LockOptions[1];
+        dao.setVendorHelper(new VendorHelper<MockEntity, Long>() {
+            @Override
+            public void lock(EntityManager em, Query query, LockOptions options) {
+                applied[0] = options;
+            }
+
+            @Override
+            public Count<List<MockEntity>> page(Query query, int beginRow, int endRow) {
+                throw new UnsupportedOperationException();
+            }
+        });
+        TypedQuery<MockEntity> query = createNiceMock(TypedQuery.class);
+        expectCriteriaQuery(query);
+        expect(query.setMaxResults(5)).andReturn(query);
+        expect(query.getResultList()).andReturn(Collections.singletonList(entity));
+        replay(em, query);
+        assertEquals(Collections.singletonList(entity), dao.claimNext(5));
+        assertSame(LockOptions.SKIP_LOCKED, applied[0]);
+        verify(em, query);
+    }
+
+    /**
+     * Verifies the failure to claim without a vendor helper, since skipping
+     * locked rows is not standard JPA.
+     */
+    @SuppressWarnings("unchecked")
+    @Test(expected = UnsupportedOperationException.class)
+    public void testClaimNextNoVendorHelper() {
+        TypedQuery<MockEntity> query = createNiceMock(TypedQuery.class);
+        expectCriteriaQuery(query);
+        replay(em, query);
+        dao.claimNext(5);
+    }
+
+    /**
+     * Verifies the failure to claim a nonpositive number of entities.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testClaimNextNonpositive() {
+        dao.claimNext(0);
+    }
+
     /**
      * Verifies the failure to use the bean constructor without subclassing.
      */
@@ -92,6 +218,113 @@ public class JpaDaoImplTest {
         assertEquals(MockEntity.class, dao.entityClass());
     }
 
+    /**
+     * Verifies the exact count is cached by the estimate.
+     */
+    @Test
+    public void testEstimateCountCachesExactCount() {
+        CountingDao countingDao = new CountingDao();
+        assertEquals(1L, countingDao.estimateCount());
+        assertEquals(1L, countingDao.estimateCount());
+        assertEquals(1, countingDao.counted);
+    }
+
+    /**
+     * Verifies the exact count is not cached without a time-to-live.
+     */
+    @Test
+    public void testEstimateCountNoCacheTtl() {
+        CountingDao countingDao = new CountingDao();
+        countingDao.setCountCacheTtl(0, TimeUnit.SECONDS);
+        assertEquals(1L, countingDao.estimateCount());
+        assertEquals(2L, countingDao.estimateCount());
+    }
+
+    /**
+     * Verifies the estimate of the vendor helper is preferred to counting.
+     */
+    @Test
+    public void testEstimateCountVendorHelper() {
+        CountingDao countingDao = new CountingDao();
+        countingDao.setVendorHelper(new VendorHelper<MockEntity, Long>() {
+            @Override
+            public long estimateCount(EntityManager em, Class<? extends MockEntity> entityClass) {
+                return 42L;
+            }
+
+            @Override
+            public Count<List<MockEntity>> page(Query query, int beginRow, int endRow) {
+                throw new UnsupportedOperationException();
+            }
+        });
+        assertEquals(42L, countingDao.estimateCount());
+        assertEquals(0, countingDao.counted);
+    }
+
+    /**
+     * Verifies the failure to set a negative count cache time-to-live.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testSetCountCacheTtlNegative() {
+        dao.setCountCacheTtl(-1, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Verifies the failure to assign identifiers to an entity whose identifier
+     * is generated, as mapped by {@link MockEntity}.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void testSetIdGeneratorGeneratedId() {
+        dao.setIdGenerator(new IdGenerator<Long>() {
+            @Override
+            public Long generate() {
+                return 42L;
+            }
+        });
+    }
+
+    /**
+     * Verifies identifiers are assigned to an entity whose generated mapping
+     * is declared overridden by the data access object.
+     */
+    @Test
+    public void testSetIdGeneratorOverriddenMapping() {
+        dao = new JpaDaoImpl<MockEntity, MockEntity, Long>(MockEntity.class) {
+            @Override
+            protected boolean isGeneratedId() {
+                return false;
+            }
+        };
+        dao.setEntityManager(em);
+        dao.setIdGenerator(new IdGenerator<Long>() {
+            @Override
+            public Long generate() {
+                return 42L;
+            }
+        });
+        MockEntity newEntity = new MockEntity();
+        em.persist(newEntity);
+        replay(em);
+        dao.insert(newEntity);
+        verify(em);
+        assertEquals(Long.valueOf(42L), newEntity.getId());
+    }
+
+    /**
+     * Verifies the lock modes of a versioned entity.
+     */
+    @Test
+    public void testLockVersioned() {
+        MockVersionedEntity versioned = new MockVersionedEntity(1L);
+        JpaDaoImpl<MockVersionedEntity, MockVersionedEntity, Long> versionedDao = newVersionedDao();
+        em.lock(versioned, LockModeType.OPTIMISTIC);
+        em.lock(versioned, LockModeType.OPTIMISTIC_FORCE_INCREMENT);
+        replay(em);
+        versionedDao.lock(versioned, true);
+        versionedDao.lock(versioned, false);
+        verify(em);
+    }
+
     /**
      * Verifies the session was flushed.
      */
@@ -114,6 +347,63 @@ public class JpaDaoImplTest {
         verify(em);
     }
 
+    /**
+     * Verifies the optimistic lock mode when retrieving the specified
+     * versioned entity.
+     */
+    @Test
+    public void testGetByIdLockVersioned() {
+        MockVersionedEntity versioned = new MockVersionedEntity(1L);
+        JpaDaoImpl<MockVersionedEntity, MockVersionedEntity, Long> versionedDao = newVersionedDao();
+        expect(em.find(MockVersionedEntity.class, 1L, LockModeType.OPTIMISTIC_FORCE_INCREMENT)).andReturn(versioned);
+        replay(em);
+        assertEquals(versioned, versionedDao.get(1L, true));
+        verify(em);
+    }
+
+    /**
+     * Verifies the standard lock mode and timeout hint when retrieving the
+     * specified entity without a vendor helper.
+     */
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testGetByIdLockOptions() {
+        TypedQuery<MockEntity> query = createNiceMock(TypedQuery.class);
+        Root<MockEntity> root = expectCriteriaQuery(query);
+        Path<Object> idPath = createNiceMock(Path.class);
+        expect(root.get("id")).andReturn(idPath);
+        expect(query.setLockMode(LockModeType.PESSIMISTIC_WRITE)).andReturn(query);
+        expect(query.setHint(LockOptions.TIMEOUT_HINT, 500L)).andReturn(query);
+        expect(query.getResultList()).andReturn(Collections.singletonList(entity));
+        replay(em, root, query);
+        assertEquals(entity, dao.get(entity.getId(), LockOptions.timeout(500L)));
+        verify(em, root, query);
+    }
+
+    /**
+     * Verifies the standard lock mode without a timeout hint when waiting
+     * indefinitely, and {@code null} when the entity is not found.
+     */
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testGetByIdLockOptionsWait() {
+        TypedQuery<MockEntity> query = createMock(TypedQuery.class);
+        expectCriteriaQuery(query);
+        expect(query.setLockMode(LockModeType.PESSIMISTIC_WRITE)).andReturn(query);
+        expect(query.getResultList()).andReturn(Collections.<MockEntity> emptyList());
+        replay(em, query);
+        assertNull(dao.get(entity.getId(), LockOptions.WAIT));
+        verify(em, query);
+    }
+
+    /**
+     * Verifies the failure to retrieve without lock options.
+     */
+    @Test(expected = NullPointerException.class)
+    public void testGetByIdLockOptionsNull() {
+        dao.get(entity.getId(), (LockOptions) null);
+    }
+
     /**
      * Verifies there is no lock mode when retrieving the specified entity.
      */
@@ -144,6 +434,34 @@ public class JpaDaoImplTest {
         verify(em);
     }
 
+    /**
+     * Verifies a configured generator assigns the identifier of a new entity
+     * before it is persisted.
+     */
+    @Test
+    public void testInsertAssignsId() {
+        MockAssignedEntity newEntity = new MockAssignedEntity();
+        em.persist(newEntity);
+        replay(em);
+        newAssignedDao().insert(newEntity);
+        verify(em);
+        assertEquals(Long.valueOf(42L), newEntity.getId());
+    }
+
+    /**
+     * Verifies a configured generator does not replace an existing identifier.
+     */
+    @Test
+    public void testInsertKeepsId() {
+        MockAssignedEntity existing = new MockAssignedEntity();
+        existing.setId(1L);
+        em.persist(existing);
+        replay(em);
+        newAssignedDao().insert(existing);
+        verify(em);
+        assertEquals(Long.valueOf(1L), existing.getId());
+    }
+
     /**
      * Verifies the failure to insert a {@code null} entity.
      */
@@ -201,6 +519,21 @@ public class JpaDaoImplTest {
         verify(em);
     }
 
+    /**
+     * Verifies the versioned entity is loaded without a row lock and then
+     * removed.
+     */
+    @Test
+    public void testRemoveByIdVersioned() {
+        MockVersionedEntity versioned = new MockVersionedEntity(1L);
+        JpaDaoImpl<MockVersionedEntity, MockVersionedEntity, Long> versionedDao = newVersionedDao();
+        expect(em.find(MockVersionedEntity.class, 1L, LockModeType.NONE)).andReturn(versioned);
+        em.remove(versioned);
+        replay(em);
+        versionedDao.remove(1L);
+        verify(em);
+    }
+
     /**
      * Verifies the failure to remove by a {@code null} identifier.
      */
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2015 Sacred Scripture Foundation.
+ * "All scripture is given by inspiration of God, and is profitable for
+ * doctrine, for reproof, for correction, for instruction in righteousness:
+ * That the man of God may be perfect, throughly furnished unto all good
+ * works." (2 Tim 3:16-17)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sacredscripturefoundation.commons.entity.dao;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link LockOptions}.
+ *
+ * @author Paul Benedict
+ * @since 1.0
+ */
+public class LockOptionsTest {
+
+    /**
+     * Verifies the options of not waiting.
+     */
+    @Test
+    public void testNoWait() {
+        assertTrue(LockOptions.NOWAIT.isNoWait());
+        assertFalse(LockOptions.NOWAIT.isSkipLocked());
+        assertEquals(0L, LockOptions.NOWAIT.getTimeout());
+    }
+
+    /**
+     * Verifies the options of skipping locked rows.
+     */
+    @Test
+    public void testSkipLocked() {
+        assertTrue(LockOptions.SKIP_LOCKED.isSkipLocked());
+        assertFalse(LockOptions.SKIP_LOCKED.isNoWait());
+        assertEquals("SKIP LOCKED", LockOptions.SKIP_LOCKED.toString());
+    }
+
+    /**
+     * Verifies the options of a bounded wait.
+     */
+    @Test
+    public void testTimeout() {
+        LockOptions options = LockOptions.timeout(500L);
+        assertEquals(500L, options.getTimeout());
+        assertFalse(options.isNoWait());
+        assertEquals("WAIT 500ms", options.toString());
+    }
+
+    /**
+     * Verifies the failure of a negative timeout.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testTimeoutNegative() {
+        LockOptions.timeout(-1L);
+    }
+
+    /**
+     * Verifies a zero timeout is the same as not waiting.
+     */
+    @Test
+    public void testTimeoutZero() {
+        assertSame(LockOptions.NOWAIT, LockOptions.timeout(0L));
+    }
+
+    /**
+     * Verifies the options of waiting indefinitely.
+     */
+    @Test
+    public void testWait() {
+        assertEquals(LockOptions.WAIT_FOREVER, LockOptions.WAIT.getTimeout());
+        assertFalse(LockOptions.WAIT.isNoWait());
+        assertFalse(LockOptions.WAIT.isSkipLocked());
+    }
+
+}
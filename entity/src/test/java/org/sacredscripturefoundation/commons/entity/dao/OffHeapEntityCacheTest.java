@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) 2015 Sacred Scripture Foundation.
+ * "All scripture is given by inspiration of God, and is profitable for
+ * doctrine, for reproof, for correction, for instruction in righteousness:
+ * That the man of God may be perfect, throughly furnished unto all good
+ * works." (2 Tim 3:16-17)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sacredscripturefoundation.commons.entity.dao;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.sacredscripturefoundation.commons.BinaryCodecRegistry;
+import org.sacredscripturefoundation.commons.entity.MockEntity;
+
+import java.nio.ByteBuffer;
+import java.util.Date;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link OffHeapEntityCache}.
+ *
+ * @author Paul Benedict
+ * @since 1.0
+ */
+public class OffHeapEntityCacheTest {
+
+    private BinaryCodecRegistry registry;
+    private OffHeapEntityCache<MockEntity, Long> cache;
+
+    @Before
+    public void setUp() {
+        registry = new BinaryCodecRegistry();
+        cache = new OffHeapEntityCache<>(registry, MockEntity.class, 1024 * 1024);
+    }
+
+    private static MockEntity newEntity(long id) {
+        MockEntity entity = new MockEntity(id);
+        entity.setCreated(new Date(1000L));
+        entity.setUpdated(new Date(2000L));
+        return entity;
+    }
+
+    /**
+     * Verifies the failure to construct with a nonpositive budget.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructorNonpositiveBudget() {
+        new OffHeapEntityCache<>(registry, MockEntity.class, 0);
+    }
+
+    /**
+     * Verifies churning through many more snapshots than fit in the budget
+     * reuses the evicted buffers instead of allocating direct memory.
+     */
+    @Test
+    public void testChurn() {
+        cache.put(newEntity(1L));
+        long size = cache.getUsedBytes();
+        cache = new OffHeapEntityCache<>(registry, MockEntity.class, size * 4);
+        for (long id = 0; id < 10000; id++) {
+            assertTrue(cache.put(newEntity(id)));
+            assertEquals(newEntity(id).getUpdated(), cache.get(id).getUpdated());
+        }
+        assertEquals(4, cache.size());
+        assertEquals(size * 4, cache.getAllocatedBytes());
+        assertTrue(cache.getUsedBytes() + cache.getPooledBytes() <= cache.getMaxBytes());
+    }
+
+    /**
+     * Verifies clearing the cache releases the pooled buffers.
+     */
+    @Test
+    public void testClear() {
+        cache.put(newEntity(1L));
+        cache.remove(1L);
+        assertTrue(cache.getPooledBytes() > 0);
+        cache.clear();
+        assertEquals(0L, cache.getPooledBytes());
+        assertEquals(0L, cache.getUsedBytes());
+    }
+
+    /**
+     * Verifies the least recently used snapshots are evicted beyond the
+     * budget.
+     */
+    @Test
+    public void testEviction() {
+        cache.put(newEntity(1L));
+        long size = cache.getUsedBytes();
+        cache = new OffHeapEntityCache<>(registry, MockEntity.class, size * 2);
+        cache.put(newEntity(1L));
+        cache.put(newEntity(2L));
+        cache.get(1L);
+        cache.put(newEntity(3L));
+        assertEquals(2, cache.size());
+        assertEquals(size * 2, cache.getUsedBytes());
+        assertNull(cache.get(2L));
+        assertEquals(Long.valueOf(1L), cache.get(1L).getId());
+    }
+
+    /**
+     * Verifies the cached snapshot is rehydrated into a new instance.
+     */
+    @Test
+    public void testGet() {
+        MockEntity entity = newEntity(1L);
+        assertTrue(cache.put(entity));
+        MockEntity cached = cache.get(1L);
+        assertNotSame(entity, cached);
+        assertEquals(entity.getId(), cached.getId());
+        assertEquals(entity.getUpdated(), cached.getUpdated());
+    }
+
+    /**
+     * Verifies an uncached entity is loaded from the DAO and cached.
+     */
+    @Test
+    public void testGetFromDao() {
+        Dao<MockEntity, Long> dao = new JpaDaoImpl<MockEntity, MockEntity, Long>(MockEntity.class) {
+            @Override
+            public MockEntity get(Long id, boolean lock) {
+                return newEntity(id);
+            }
+        };
+        assertEquals(Long.valueOf(7L), cache.get(7L, dao).getId());
+        assertEquals(1, cache.size());
+    }
+
+    /**
+     * Verifies the snapshot is a copy which is unaffected by the reuse of its
+     * buffer for another entity.
+     */
+    @Test
+    public void testGetSnapshotCopy() throws Exception {
+        cache.put(newEntity(1L));
+        ByteBuffer snapshot = cache.getSnapshot(1L);
+        cache.remove(1L);
+        MockEntity other = newEntity(2L);
+        other.setUpdated(new Date(3000L));
+        cache.put(other);
+
+        byte[] bytes = new byte[snapshot.remaining()];
+        snapshot.get(bytes);
+        MockEntity decoded = registry.decode(bytes, MockEntity.class);
+        assertEquals(Long.valueOf(1L), decoded.getId());
+        assertEquals(new Date(2000L), decoded.getUpdated());
+    }
+
+    /**
+     * Verifies the times are read without rehydration.
+     */
+    @Test
+    public void testGetTimes() {
+        cache.put(newEntity(1L));
+        assertEquals(1000L, cache.getCreatedTime(1L));
+        assertEquals(2000L, cache.getUpdatedTime(1L));
+        assertEquals(OffHeapEntityCache.NO_TIME, cache.getUpdatedTime(2L));
+    }
+
+    /**
+     * Verifies a snapshot larger than the budget is not cached.
+     */
+    @Test
+    public void testPutTooLarge() {
+        cache = new OffHeapEntityCache<>(registry, MockEntity.class, 16);
+        assertFalse(cache.put(newEntity(1L)));
+        assertEquals(0, cache.size());
+    }
+
+    /**
+     * Verifies replacing a snapshot keeps the byte count.
+     */
+    @Test
+    public void testPutReplaces() {
+        cache.put(newEntity(1L));
+        long size = cache.getUsedBytes();
+        cache.put(newEntity(1L));
+        assertEquals(size, cache.getUsedBytes());
+        assertEquals(1, cache.size());
+    }
+
+    /**
+     * Verifies the removal of a snapshot releases its bytes to the pool.
+     */
+    @Test
+    public void testRemove() {
+        cache.put(newEntity(1L));
+        long size = cache.getUsedBytes();
+        assertTrue(cache.remove(1L));
+        assertFalse(cache.remove(1L));
+        assertEquals(0L, cache.getUsedBytes());
+        assertEquals(size, cache.getPooledBytes());
+        assertNull(cache.getSnapshot(1L));
+        cache.put(newEntity(2L));
+        assertEquals(size, cache.getAllocatedBytes());
+    }
+
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2015 Sacred Scripture Foundation.
+ * "All scripture is given by inspiration of God, and is profitable for
+ * doctrine, for reproof, for correction, for instruction in righteousness:
+ * That the man of God may be perfect, throughly furnished unto all good
+ * works." (2 Tim 3:16-17)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sacredscripturefoundation.commons.entity.dao;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+import javax.persistence.OptimisticLockException;
+import javax.persistence.PersistenceException;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link OptimisticLockRetry}.
+ *
+ * @author Paul Benedict
+ * @since 1.0
+ */
+public class OptimisticLockRetryTest {
+
+    /**
+     * This class fails a number of times before succeeding.
+     */
+    private static class FailingWork implements Callable<String> {
+
+        private final RuntimeException failure;
+        private final int failures;
+        int attempts;
+
+        FailingWork(RuntimeException failure, int failures) {
+            this.failure = failure;
+            this.failures = failures;
+        }
+
+        @Override
+        public String call() {
+            if (++attempts <= failures) {
+                throw failure;
+            }
+            return "done";
+        }
+
+    }
+
+    private OptimisticLockRetry retry;
+
+    @Before
+    public void setUp() {
+        retry = new OptimisticLockRetry(3, 0, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Verifies the failure to construct without attempts.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructorNoAttempts() {
+        new OptimisticLockRetry(0, 0, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Verifies the failure to construct with a negative backoff.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructorNegativeBackoff() {
+        new OptimisticLockRetry(1, -1, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Verifies the last optimistic lock failure is thrown once the attempts
+     * are exhausted.
+     */
+    @Test
+    public void testExecuteExhausted() {
+        OptimisticLockException failure = new OptimisticLockException();
+        FailingWork work = new FailingWork(failure, 3);
+        try {
+            retry.execute(work);
+            fail();
+        } catch (OptimisticLockException e) {
+            assertEquals(failure, e);
+        }
+        assertEquals(3, work.attempts);
+    }
+
+    /**
+     * Verifies other failures are not retried.
+     */
+    @Test
+    public void testExecuteOtherFailure() {
+        FailingWork work = new FailingWork(new IllegalArgumentException(), 1);
+        try {
+            retry.execute(work);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals(1, work.attempts);
+        }
+    }
+
+    /**
+     * Verifies the work is retried after optimistic lock failures.
+     */
+    @Test
+    public void testExecuteRetried() {
+        FailingWork work = new FailingWork(new PersistenceException(new OptimisticLockException()), 2);
+        assertEquals("done", retry.execute(work));
+        assertEquals(3, work.attempts);
+    }
+
+    /**
+     * Verifies a checked exception is wrapped.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void testExecuteChecked() {
+        retry.execute(new Callable<Object>() {
+            @Override
+            public Object call() throws IOException {
+                throw new IOException();
+            }
+        });
+    }
+
+    /**
+     * Verifies the optimistic lock failure is found in the cause chain.
+     */
+    @Test
+    public void testIsOptimisticLockFailure() {
+        assertTrue(OptimisticLockRetry.isOptimisticLockFailure(new RuntimeException(new OptimisticLockException())));
+        assertFalse(OptimisticLockRetry.isOptimisticLockFailure(new RuntimeException(new IllegalStateException())));
+    }
+
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2015 Sacred Scripture Foundation.
+ * "All scripture is given by inspiration of God, and is profitable for
+ * doctrine, for reproof, for correction, for instruction in righteousness:
+ * That the man of God may be perfect, throughly furnished unto all good
+ * works." (2 Tim 3:16-17)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sacredscripturefoundation.commons.entity.util;
+
+import java.util.Base64;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * JMH benchmark of {@link Base64UuidGenerator} for each {@link EntropySource}
+ * against encoding {@link UUID#randomUUID()}, which shares one
+ * {@code SecureRandom} among all threads. {@link #main(String[])} repeats the
+ * run for 1, 2, 4 and 8 threads to expose contention.
+ *
+ * @author Paul Benedict
+ * @since 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Base64UuidGeneratorBenchmark {
+
+    public static void main(String[] args) throws RunnerException {
+        for (int threads : new int[] { 1, 2, 4, 8 }) {
+            new Runner(new OptionsBuilder().include(Base64UuidGeneratorBenchmark.class.getSimpleName()).threads(threads).build()).run();
+        }
+    }
+
+    private final Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+    private final Base64UuidGenerator fast = new Base64UuidGenerator(true, EntropySource.FAST);
+    private final Base64UuidGenerator secure = new Base64UuidGenerator(true, EntropySource.SECURE);
+
+    @Benchmark
+    public String fast() {
+        return fast.generate();
+    }
+
+    @Benchmark
+    public String randomUuid() {
+        UUID uuid = UUID.randomUUID();
+        byte[] bytes = new byte[16];
+        long msb = uuid.getMostSignificantBits();
+        long lsb = uuid.getLeastSignificantBits();
+        for (int i = 0; i < 8; i++) {
+            bytes[i] = (byte) (msb >>> (8 * (7 - i)));
+            bytes[i + 8] = (byte) (lsb >>> (8 * (7 - i)));
+        }
+        return encoder.encodeToString(bytes);
+    }
+
+    @Benchmark
+    public String secure() {
+        return secure.generate();
+    }
+
+}
@@ -22,6 +22,11 @@ package org.sacredscripturefoundation.commons.entity.util;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 import org.junit.Before;
@@ -42,6 +47,87 @@ public class Base64UuidGeneratorTest {
         gen = new Base64UuidGenerator();
     }
 
+    /**
+     * Verifies the failure to construct without a source of randomness.
+     */
+    @Test(expected = NullPointerException.class)
+    public void testConstructorNullEntropy() {
+        new Base64UuidGenerator(true, null);
+    }
+
+    /**
+     * Verifies a bulk fill spanning several batches produces distinct version 4
+     * IDs in every element.
+     */
+    @Test
+    public void testFill() {
+        String[] ids = new String[1000];
+        gen.fill(ids);
+        Set<String> distinct = new HashSet<>();
+        for (String id : ids) {
+            assertTrue(id.matches("^[0-9A-Za-z+/]{22}$"));
+            byte[] bytes = Base64.getDecoder().decode(id);
+            assertEquals(0x40, bytes[6] & 0xf0);
+            assertEquals(0x80, bytes[8] & 0xc0);
+            distinct.add(id);
+        }
+        assertEquals(ids.length, distinct.size());
+    }
+
+    /**
+     * Verifies the requested number of IDs is generated in bulk.
+     */
+    @Test
+    public void testGenerateCount() {
+        List<String> ids = gen.generate(300);
+        assertEquals(300, ids.size());
+        assertEquals(300, new HashSet<>(ids).size());
+    }
+
+    /**
+     * Verifies consecutive partial batches of different sizes are filled
+     * completely.
+     */
+    @Test
+    public void testFillPartialBatches() {
+        for (int n : new int[] { 3, 3, 300, 1 }) {
+            String[] ids = new String[n];
+            gen.fill(ids);
+            assertEquals(n, new HashSet<>(Arrays.asList(ids)).size());
+        }
+    }
+
+    /**
+     * Verifies the bulk IDs cannot be modified.
+     */
+    @Test(expected = UnsupportedOperationException.class)
+    public void testGenerateCountUnmodifiable() {
+        gen.generate(2).set(0, "");
+    }
+
+    /**
+     * Verifies the failure to generate a negative number of IDs.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testGenerateCountNegative() {
+        gen.generate(-1);
+    }
+
+    /**
+     * Verifies the IDs are distinct for the fast source of randomness.
+     */
+    @Test
+    public void testGenerateFastEntropy() {
+        gen = new Base64UuidGenerator(true, EntropySource.FAST);
+        Set<String> ids = new HashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            String id = gen.generate();
+            assertTrue(id.matches("^[0-9A-Za-z_-]{22}$"));
+            ids.add(id);
+        }
+        assertEquals(1000, ids.size());
+    }
+
     /**
      * Verifies the ID format.
      */
@@ -51,6 +137,16 @@ public class Base64UuidGeneratorTest {
         assertTrue(id.matches("^[0-9A-Za-z+/]{22}$"));
     }
 
+    /**
+     * Verifies the ID is a version 4 UUID.
+     */
+    @Test
+    public void testGenerateVersion() {
+        byte[] bytes = Base64.getDecoder().decode(gen.generate());
+        assertEquals(0x40, bytes[6] & 0xf0);
+        assertEquals(0x80, bytes[8] & 0xc0);
+    }
+
     /**
      * Verifies the ID is related to a UUID.
      */
@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2015 Sacred Scripture Foundation.
+ * "All scripture is given by inspiration of God, and is profitable for
+ * doctrine, for reproof, for correction, for instruction in righteousness:
+ * That the man of God may be perfect, throughly furnished unto all good
+ * works." (2 Tim 3:16-17)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sacredscripturefoundation.commons.entity.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link BlockIdGenerator}.
+ *
+ * @author Paul Benedict
+ * @since 1.0
+ */
+public class BlockIdGeneratorTest {
+
+    private static final IdBlockSource ZERO_SOURCE = new IdBlockSource() {
+        @Override
+        public long reserve(int size) {
+            return 0;
+        }
+    };
+
+    private List<Integer> reservations;
+    private BlockIdGenerator gen;
+
+    @Before
+    public void setUp() {
+        reservations = new ArrayList<>();
+        gen = new BlockIdGenerator(new IdBlockSource() {
+            private long next = 100;
+
+            @Override
+            public long reserve(int size) {
+                reservations.add(size);
+                long first = next;
+                next += size;
+                return first;
+            }
+        }, 3);
+    }
+
+    /**
+     * Verifies the failure to construct with a non-positive block size.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructorBlockSizeZero() {
+        new BlockIdGenerator(ZERO_SOURCE, 0);
+    }
+
+    /**
+     * Verifies the failure to construct without a source.
+     */
+    @Test(expected = NullPointerException.class)
+    public void testConstructorSourceNull() {
+        new BlockIdGenerator(null);
+    }
+
+    /**
+     * Verifies the default block size.
+     */
+    @Test
+    public void testDefaultBlockSize() {
+        assertEquals(BlockIdGenerator.DEFAULT_BLOCK_SIZE, new BlockIdGenerator(ZERO_SOURCE).getBlockSize());
+    }
+
+    /**
+     * Verifies a bulk fill spans blocks and continues where single generation
+     * left off.
+     */
+    @Test
+    public void testFill() {
+        assertEquals(Long.valueOf(100), gen.generate());
+        long[] ids = new long[5];
+        gen.fill(ids);
+        assertArrayEquals(new long[] { 101, 102, 103, 104, 105 }, ids);
+        assertEquals(2, reservations.size());
+        assertEquals(Long.valueOf(106), gen.generate());
+    }
+
+    /**
+     * Verifies the requested number of identifiers is generated in bulk.
+     */
+    @Test
+    public void testGenerateCount() {
+        assertEquals(Arrays.asList(100L, 101L, 102L, 103L), gen.generate(4));
+    }
+
+    /**
+     * Verifies identifiers are consecutive within a block and that the source
+     * is consulted only once per block.
+     */
+    @Test
+    public void testGenerate() {
+        for (long expected = 100; expected < 107; expected++) {
+            assertEquals(Long.valueOf(expected), gen.generate());
+        }
+        assertEquals(3, reservations.size());
+        assertEquals(Integer.valueOf(3), reservations.get(0));
+    }
+
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2015 Sacred Scripture Foundation.
+ * "All scripture is given by inspiration of God, and is profitable for
+ * doctrine, for reproof, for correction, for instruction in righteousness:
+ * That the man of God may be perfect, throughly furnished unto all good
+ * works." (2 Tim 3:16-17)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sacredscripturefoundation.commons.entity.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link CoarseClock}.
+ *
+ * @author Paul Benedict
+ * @since 1.0
+ */
+public class CoarseClockTest {
+
+    private long millis;
+    private CoarseClock clock;
+
+    @Before
+    public void setUp() {
+        millis = 1433160000123L;
+        clock = new CoarseClock(new Clock() {
+            @Override
+            public ZoneId getZone() {
+                return ZoneOffset.UTC;
+            }
+
+            @Override
+            public Instant instant() {
+                return Instant.ofEpochMilli(millis);
+            }
+
+            @Override
+            public long millis() {
+                return millis;
+            }
+
+            @Override
+            public Clock withZone(ZoneId zone) {
+                throw new UnsupportedOperationException();
+            }
+        });
+    }
+
+    /**
+     * Verifies the failure to construct without a source clock.
+     */
+    @Test(expected = NullPointerException.class)
+    public void testConstructorNull() {
+        new CoarseClock(null);
+    }
+
+    /**
+     * Verifies the instant is shared within a millisecond and replaced when
+     * the millisecond changes.
+     */
+    @Test
+    public void testInstant() {
+        Instant first = clock.instant();
+        assertEquals(millis, first.toEpochMilli());
+        assertSame(first, clock.instant());
+
+        millis++;
+        Instant second = clock.instant();
+        assertNotSame(first, second);
+        assertEquals(millis, second.toEpochMilli());
+        assertEquals(millis, clock.millis());
+    }
+
+    /**
+     * Verifies the instant is truncated to the millisecond.
+     */
+    @Test
+    public void testInstantTruncated() {
+        Instant now = new CoarseClock(Clock.fixed(Instant.parse("2015-06-01T12:00:00.123456789Z"), ZoneOffset.UTC)).instant();
+        assertEquals(Instant.parse("2015-06-01T12:00:00.123Z"), now);
+    }
+
+    /**
+     * Verifies changing the zone keeps the clock coarse.
+     */
+    @Test
+    public void testWithZone() {
+        Clock fixed = Clock.fixed(Instant.EPOCH, ZoneOffset.UTC);
+        ZoneId zone = ZoneId.of("America/Chicago");
+        Clock zoned = new CoarseClock(fixed).withZone(zone);
+        assertEquals(CoarseClock.class, zoned.getClass());
+        assertEquals(zone, zoned.getZone());
+    }
+
+}
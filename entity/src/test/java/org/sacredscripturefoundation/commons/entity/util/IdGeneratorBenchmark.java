@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2015 Sacred Scripture Foundation.
+ * "All scripture is given by inspiration of God, and is profitable for
+ * doctrine, for reproof, for correction, for instruction in righteousness:
+ * That the man of God may be perfect, throughly furnished unto all good
+ * works." (2 Tim 3:16-17)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sacredscripturefoundation.commons.entity.util;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * JMH benchmark of the bulk operations of {@link IdGenerator} against calling
+ * {@link IdGenerator#generate()} in a loop, for {@link Base64UuidGenerator}
+ * and {@link BlockIdGenerator}. Scores are per identifier.
+ *
+ * @author Paul Benedict
+ * @since 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IdGeneratorBenchmark {
+
+    private static final int BATCH = 1000;
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(IdGeneratorBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    private final Base64UuidGenerator secure = new Base64UuidGenerator(true, EntropySource.SECURE);
+    private final Base64UuidGenerator fast = new Base64UuidGenerator(true, EntropySource.FAST);
+    private final BlockIdGenerator block = new BlockIdGenerator(new IdBlockSource() {
+        private long next = 1;
+
+        @Override
+        public long reserve(int size) {
+            long first = next;
+            next += size;
+            return first;
+        }
+    });
+    private final String[] strings = new String[BATCH];
+    private final Long[] longs = new Long[BATCH];
+    private final long[] primitives = new long[BATCH];
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public long[] blockFill() {
+        block.fill(primitives);
+        return primitives;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public Long[] blockLoop() {
+        for (int i = 0; i < BATCH; i++) {
+            longs[i] = block.generate();
+        }
+        return longs;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public String[] fastFill() {
+        fast.fill(strings);
+        return strings;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public String[] fastLoop() {
+        for (int i = 0; i < BATCH; i++) {
+            strings[i] = fast.generate();
+        }
+        return strings;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public String[] secureFill() {
+        secure.fill(strings);
+        return strings;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public String[] secureLoop() {
+        for (int i = 0; i < BATCH; i++) {
+            strings[i] = secure.generate();
+        }
+        return strings;
+    }
+
+}
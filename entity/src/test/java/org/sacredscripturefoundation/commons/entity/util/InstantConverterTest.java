@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2015 Sacred Scripture Foundation.
+ * "All scripture is given by inspiration of God, and is profitable for
+ * doctrine, for reproof, for correction, for instruction in righteousness:
+ * That the man of God may be perfect, throughly furnished unto all good
+ * works." (2 Tim 3:16-17)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sacredscripturefoundation.commons.entity.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link InstantConverter}.
+ *
+ * @author Paul Benedict
+ * @since 1.0
+ */
+public class InstantConverterTest {
+
+    private final InstantConverter converter = new InstantConverter();
+
+    /**
+     * Verifies an instant survives the round trip with nanosecond precision.
+     */
+    @Test
+    public void testRoundTrip() {
+        Instant instant = Instant.parse("2015-06-01T12:00:00.123456789Z");
+        Timestamp timestamp = converter.convertToDatabaseColumn(instant);
+        assertEquals(123456789, timestamp.getNanos());
+        assertEquals(instant, converter.convertToEntityAttribute(timestamp));
+    }
+
+    /**
+     * Verifies {@code null} converts to {@code null} in both directions.
+     */
+    @Test
+    public void testNull() {
+        assertNull(converter.convertToDatabaseColumn(null));
+        assertNull(converter.convertToEntityAttribute(null));
+    }
+
+}
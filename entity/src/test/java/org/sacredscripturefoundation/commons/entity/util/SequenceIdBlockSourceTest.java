@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2015 Sacred Scripture Foundation.
+ * "All scripture is given by inspiration of God, and is profitable for
+ * doctrine, for reproof, for correction, for instruction in righteousness:
+ * That the man of God may be perfect, throughly furnished unto all good
+ * works." (2 Tim 3:16-17)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sacredscripturefoundation.commons.entity.util;
+
+import static org.easymock.EasyMock.createNiceMock;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.replay;
+import static org.easymock.EasyMock.verify;
+import static org.junit.Assert.assertEquals;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import javax.persistence.PersistenceException;
+import javax.sql.DataSource;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link SequenceIdBlockSource}.
+ *
+ * @author Paul Benedict
+ * @since 1.0
+ */
+public class SequenceIdBlockSourceTest {
+
+    private static final String QUERY = "SELECT nextval('entity_seq')";
+
+    private DataSource dataSource;
+    private Connection con;
+    private Statement stmt;
+    private ResultSet rs;
+    private SequenceIdBlockSource source;
+
+    @Before
+    public void setUp() throws SQLException {
+        dataSource = createNiceMock(DataSource.class);
+        con = createNiceMock(Connection.class);
+        stmt = createNiceMock(Statement.class);
+        rs = createNiceMock(ResultSet.class);
+        source = new SequenceIdBlockSource(dataSource, QUERY);
+    }
+
+    /**
+     * Verifies the failure to construct without a data source.
+     */
+    @Test(expected = NullPointerException.class)
+    public void testConstructorDataSourceNull() {
+        new SequenceIdBlockSource(null, QUERY);
+    }
+
+    /**
+     * Verifies the failure to construct without a query.
+     */
+    @Test(expected = NullPointerException.class)
+    public void testConstructorQueryNull() {
+        new SequenceIdBlockSource(dataSource, null);
+    }
+
+    /**
+     * Verifies the next sequence value is the first identifier of the block
+     * and the connection is closed.
+     */
+    @Test
+    public void testReserve() throws SQLException {
+        expect(dataSource.getConnection()).andReturn(con);
+        expect(con.createStatement()).andReturn(stmt);
+        expect(stmt.executeQuery(QUERY)).andReturn(rs);
+        expect(rs.next()).andReturn(true);
+        expect(rs.getLong(1)).andReturn(101L);
+        con.close();
+        replay(dataSource, con, stmt, rs);
+        assertEquals(101L, source.reserve(100));
+        verify(dataSource, con, stmt, rs);
+    }
+
+    /**
+     * Verifies a database error is wrapped.
+     */
+    @Test(expected = PersistenceException.class)
+    public void testReserveFailure() throws SQLException {
+        expect(dataSource.getConnection()).andThrow(new SQLException());
+        replay(dataSource);
+        source.reserve(100);
+    }
+
+    /**
+     * Verifies the failure of a query without a value.
+     */
+    @Test(expected = PersistenceException.class)
+    public void testReserveNoValue() throws SQLException {
+        expect(dataSource.getConnection()).andReturn(con);
+        expect(con.createStatement()).andReturn(stmt);
+        expect(stmt.executeQuery(QUERY)).andReturn(rs);
+        expect(rs.next()).andReturn(false);
+        replay(dataSource, con, stmt, rs);
+        source.reserve(100);
+    }
+
+}
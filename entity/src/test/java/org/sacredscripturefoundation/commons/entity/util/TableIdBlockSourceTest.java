@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2015 Sacred Scripture Foundation.
+ * "All scripture is given by inspiration of God, and is profitable for
+ * doctrine, for reproof, for correction, for instruction in righteousness:
+ * That the man of God may be perfect, throughly furnished unto all good
+ * works." (2 Tim 3:16-17)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sacredscripturefoundation.commons.entity.util;
+
+import static org.easymock.EasyMock.createNiceMock;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.replay;
+import static org.easymock.EasyMock.verify;
+import static org.junit.Assert.assertEquals;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+
+import javax.persistence.PersistenceException;
+import javax.sql.DataSource;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link TableIdBlockSource}.
+ *
+ * @author Paul Benedict
+ * @since 1.0
+ */
+public class TableIdBlockSourceTest {
+
+    private static final String INSERT_SQL = "INSERT INTO id_block (name, next_val) VALUES (?, ?)";
+    private static final String SELECT_SQL = "SELECT next_val FROM id_block WHERE name = ?";
+    private static final String UPDATE_SQL = "UPDATE id_block SET next_val = next_val + ? WHERE name = ?";
+
+    private DataSource dataSource;
+    private Connection con;
+    private PreparedStatement insert;
+    private PreparedStatement select;
+    private PreparedStatement update;
+    private ResultSet rs;
+    private TableIdBlockSource source;
+
+    @Before
+    public void setUp() throws SQLException {
+        dataSource = createNiceMock(DataSource.class);
+        con = createNiceMock(Connection.class);
+        insert = createNiceMock(PreparedStatement.class);
+        select = createNiceMock(PreparedStatement.class);
+        update = createNiceMock(PreparedStatement.class);
+        rs = createNiceMock(ResultSet.class);
+        source = new TableIdBlockSource(dataSource, "book");
+
+        expect(dataSource.getConnection()).andReturn(con);
+        expect(con.getAutoCommit()).andReturn(true);
+        expect(con.prepareStatement(INSERT_SQL)).andReturn(insert).anyTimes();
+        expect(con.prepareStatement(SELECT_SQL)).andReturn(select).anyTimes();
+        expect(con.prepareStatement(UPDATE_SQL)).andReturn(update).anyTimes();
+        expect(select.executeQuery()).andReturn(rs).anyTimes();
+    }
+
+    /**
+     * Verifies the failure to construct without a data source.
+     */
+    @Test(expected = NullPointerException.class)
+    public void testConstructorDataSourceNull() {
+        new TableIdBlockSource(null, "book");
+    }
+
+    /**
+     * Verifies the failure to construct without a counter name.
+     */
+    @Test(expected = NullPointerException.class)
+    public void testConstructorNameNull() {
+        new TableIdBlockSource(dataSource, null);
+    }
+
+    /**
+     * Verifies an existing counter is advanced by the block size in a
+     * committed transaction.
+     */
+    @Test
+    public void testReserveExisting() throws SQLException {
+        expect(update.executeUpdate()).andReturn(1);
+        expect(rs.next()).andReturn(true);
+        expect(rs.getLong(1)).andReturn(201L);
+        con.setAutoCommit(false);
+        con.commit();
+        con.setAutoCommit(true);
+        replay(dataSource, con, insert, select, update, rs);
+        assertEquals(101L, source.reserve(100));
+        verify(con, update, rs);
+    }
+
+    /**
+     * Verifies a database error rolls back the transaction and is wrapped.
+     */
+    @Test(expected = PersistenceException.class)
+    public void testReserveFailure() throws SQLException {
+        expect(update.executeUpdate()).andThrow(new SQLException("deadlock", "40001"));
+        con.rollback();
+        replay(dataSource, con, insert, select, update, rs);
+        try {
+            source.reserve(100);
+        } finally {
+            verify(con);
+        }
+    }
+
+    /**
+     * Verifies a missing counter is created at the start of the first block.
+     */
+    @Test
+    public void testReserveNew() throws SQLException {
+        expect(update.executeUpdate()).andReturn(0);
+        expect(insert.executeUpdate()).andReturn(1);
+        insert.setLong(2, 101L);
+        con.commit();
+        replay(dataSource, con, insert, select, update, rs);
+        assertEquals(1L, source.reserve(100));
+        verify(con, insert);
+    }
+
+    /**
+     * Verifies losing the race to create the counter is retried as an update
+     * of the counter created by the winner.
+     */
+    @Test
+    public void testReserveNewConcurrently() throws SQLException {
+        expect(update.executeUpdate()).andReturn(0).andReturn(1);
+        expect(insert.executeUpdate()).andThrow(new SQLIntegrityConstraintViolationException("duplicate key", "23505"));
+        expect(rs.next()).andReturn(true);
+        expect(rs.getLong(1)).andReturn(201L);
+        con.rollback();
+        con.commit();
+        replay(dataSource, con, insert, select, update, rs);
+        assertEquals(101L, source.reserve(100));
+        verify(con, insert, update);
+    }
+
+    /**
+     * Verifies a duplicate key is retried only once.
+     */
+    @Test(expected = PersistenceException.class)
+    public void testReserveNewConcurrentlyTwice() throws SQLException {
+        expect(update.executeUpdate()).andReturn(0).times(2);
+        expect(insert.executeUpdate()).andThrow(new SQLException("duplicate key", "23505")).times(2);
+        replay(dataSource, con, insert, select, update, rs);
+        source.reserve(100);
+    }
+
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2015 Sacred Scripture Foundation.
+ * "All scripture is given by inspiration of God, and is profitable for
+ * doctrine, for reproof, for correction, for instruction in righteousness:
+ * That the man of God may be perfect, throughly furnished unto all good
+ * works." (2 Tim 3:16-17)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sacredscripturefoundation.commons.entity.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link TimeOrderedIdGenerator}.
+ *
+ * @author Paul Benedict
+ * @since 1.0
+ */
+public class TimeOrderedIdGeneratorTest {
+
+    private static final Instant NOW = Instant.parse("2015-06-01T12:00:00Z");
+
+    private TimeOrderedIdGenerator gen;
+
+    @Before
+    public void setUp() {
+        gen = new TimeOrderedIdGenerator(Clock.fixed(NOW, ZoneOffset.UTC), EntropySource.FAST);
+    }
+
+    /**
+     * Verifies the encoding of the extreme values.
+     */
+    @Test
+    public void testEncode() {
+        assertEquals("00000000000000000000000000", TimeOrderedIdGenerator.encode(0L, 0L));
+        assertEquals("7ZZZZZZZZZZZZZZZZZZZZZZZZZ", TimeOrderedIdGenerator.encode(-1L, -1L));
+        assertEquals("0000000000000000000000000Z", TimeOrderedIdGenerator.encode(0L, 31L));
+    }
+
+    /**
+     * Verifies the ID format.
+     */
+    @Test
+    public void testGenerateFormat() {
+        assertTrue(gen.generate().matches("^[0-7][0-9A-HJKMNP-TV-Z]{25}$"));
+    }
+
+    /**
+     * Verifies the IDs increase within the same millisecond, well beyond the
+     * capacity of the counter.
+     */
+    @Test
+    public void testGenerateMonotonic() {
+        String prev = gen.generate();
+        for (int i = 0; i < 10000; i++) {
+            String next = gen.generate();
+            assertTrue(next.compareTo(prev) > 0);
+            prev = next;
+        }
+    }
+
+    /**
+     * Verifies the IDs increase when the clock moves backwards.
+     */
+    @Test
+    public void testGenerateWhenClockMovesBackwards() {
+        final long[] millis = { NOW.toEpochMilli() };
+        gen = new TimeOrderedIdGenerator(new Clock() {
+            @Override
+            public ZoneId getZone() {
+                return ZoneOffset.UTC;
+            }
+
+            @Override
+            public Instant instant() {
+                return Instant.ofEpochMilli(millis[0]);
+            }
+
+            @Override
+            public Clock withZone(ZoneId zone) {
+                throw new UnsupportedOperationException();
+            }
+        }, EntropySource.FAST);
+        String first = gen.generate();
+        millis[0] -= 60000;
+        assertTrue(gen.generate().compareTo(first) > 0);
+    }
+
+    /**
+     * Verifies the UUID is version 7 and carries the timestamp.
+     */
+    @Test
+    public void testGenerateUuid() {
+        UUID uuid = gen.generateUuid();
+        assertEquals(7, uuid.version());
+        assertEquals(2, uuid.variant());
+        assertEquals(NOW.toEpochMilli(), uuid.getMostSignificantBits() >>> 16);
+    }
+
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2015 Sacred Scripture Foundation.
+ * "All scripture is given by inspiration of God, and is profitable for
+ * doctrine, for reproof, for correction, for instruction in righteousness:
+ * That the man of God may be perfect, throughly furnished unto all good
+ * works." (2 Tim 3:16-17)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sacredscripturefoundation.commons.entity.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link TimeOrderedLongIdGenerator}.
+ *
+ * @author Paul Benedict
+ * @since 1.0
+ */
+public class TimeOrderedLongIdGeneratorTest {
+
+    private static final Instant NOW = Instant.parse("2015-06-01T12:00:00Z");
+
+    private TimeOrderedLongIdGenerator gen;
+
+    @Before
+    public void setUp() {
+        gen = new TimeOrderedLongIdGenerator(5, Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    /**
+     * Verifies the failure to construct with a negative node.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructorNodeNegative() {
+        new TimeOrderedLongIdGenerator(-1);
+    }
+
+    /**
+     * Verifies the failure to construct with a node that is too large.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructorNodeTooLarge() {
+        new TimeOrderedLongIdGenerator(TimeOrderedLongIdGenerator.MAX_NODE + 1);
+    }
+
+    /**
+     * Verifies the layout of the ID.
+     */
+    @Test
+    public void testGenerateLayout() {
+        long id = gen.generateLong();
+        assertEquals(NOW.toEpochMilli() - TimeOrderedLongIdGenerator.EPOCH, id >>> 22);
+        assertEquals(5, (id >>> 12) & TimeOrderedLongIdGenerator.MAX_NODE);
+        assertEquals(0, id & 0xfff);
+    }
+
+    /**
+     * Verifies the IDs increase within the same millisecond, beyond the
+     * capacity of the sequence, without disturbing the node.
+     */
+    @Test
+    public void testGenerateMonotonic() {
+        long prev = gen.generateLong();
+        for (int i = 0; i < 10000; i++) {
+            long next = gen.generate();
+            assertTrue(next > prev);
+            assertEquals(5, (next >>> 12) & TimeOrderedLongIdGenerator.MAX_NODE);
+            prev = next;
+        }
+    }
+
+}
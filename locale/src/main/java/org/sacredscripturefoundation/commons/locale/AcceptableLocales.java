@@ -21,20 +21,55 @@ package org.sacredscripturefoundation.commons.locale;
 
 import org.sacredscripturefoundation.commons.Provider;
 
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.LinkedList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Locale;
+import java.util.Locale.LanguageRange;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * This class is a holder for a list of locales which are considered
  * "acceptable" from the user.
+ * <p>
+ * The locales are indexed during construction so that matching a single locale
+ * is a constant-time operation. Matching an HTTP {@code Accept-Language} header
+ * follows the RFC 4647 "lookup" scheme and the outcome is cached per distinct
+ * header value; since browsers send only a handful of distinct headers, content
+ * negotiation typically costs a single map lookup per request. Instances are
+ * immutable after construction and safe for concurrent use.
  *
  * @author Paul Benedict
+ * @see Locale#lookup(List, Collection)
+ * @see Locale#filter(List, Collection)
  * @since 1.0
  */
 public class AcceptableLocales implements Provider<Collection<Locale>> {
 
-    private final LinkedList<Locale> acceptableLocales;
+    /**
+     * The maximum number of distinct header values remembered by the match
+     * cache. The header is client-supplied, so the cache must be bounded.
+     */
+    private static final int MAX_CACHED_HEADERS = 256;
+
+    /**
+     * Sentinel cached for headers that have no acceptable match. Compared by
+     * identity only.
+     */
+    private static final Locale NO_MATCH = new Locale("");
+
+    private static final String WILDCARD_RANGE = "*";
+
+    private final List<Locale> acceptableLocales;
+    private final Map<Locale, Locale> localeIndex;
+    private final Map<String, Locale> languageIndex;
+    private final ConcurrentMap<String, Locale> headerCache;
 
     /**
      * Constructs a new {@code AcceptableLocales} instance.
@@ -42,14 +77,26 @@ public class AcceptableLocales implements Provider<Collection<Locale>> {
      * @param locales the whitespace-delimited list of locale codes
      */
     public AcceptableLocales(String locales) {
-        acceptableLocales = new LinkedList<>();
-        parseLocales(locales);
+        List<Locale> list = parseLocales(locales);
+        acceptableLocales = Collections.unmodifiableList(list);
+        localeIndex = new HashMap<>();
+        languageIndex = new HashMap<>();
+        for (Locale locale : list) {
+            // The first declared locale wins for any duplicate key
+            if (!localeIndex.containsKey(locale)) {
+                localeIndex.put(locale, locale);
+            }
+            if (!languageIndex.containsKey(locale.getLanguage())) {
+                languageIndex.put(locale.getLanguage(), locale);
+            }
+        }
+        headerCache = new ConcurrentHashMap<>();
     }
 
     /**
-     * Retrieves the collection of acceptable locales.
+     * Retrieves the collection of acceptable locales in their declared order.
      *
-     * @return the collection of locales; never {@code null}
+     * @return the unmodifiable collection of locales; never {@code null}
      */
     @Override
     public Collection<Locale> get() {
@@ -57,20 +104,32 @@ public class AcceptableLocales implements Provider<Collection<Locale>> {
     }
 
     /**
-     * Determines the best match for the specified locale.
+     * Determines the acceptable locales which satisfy the specified HTTP
+     * {@code Accept-Language} header according to the RFC 4647 "filtering"
+     * scheme. Unlike {@link #match(String)}, the result is not cached.
+     *
+     * @param acceptLanguage the header value
+     * @return the matched locales in order of preference; never {@code null}
+     * @throws NullPointerException if the header is {@code null}
+     * @throws IllegalArgumentException if the header is malformed
+     * @see #match(String)
+     */
+    public List<Locale> filter(String acceptLanguage) {
+        return Locale.filter(LanguageRange.parse(acceptLanguage), acceptableLocales);
+    }
+
+    /**
+     * Determines the best match for the specified locale. An exact match is
+     * preferred; otherwise the first acceptable locale of the same language is
+     * returned.
      *
      * @param locale the locale to match
      * @return the best matched locale if found; otherwise {@code null}
      * @see #match(Locale, Locale)
      */
     public Locale match(Locale locale) {
-        String languageCode = locale.getLanguage();
-        for (Locale acceptableLocale : acceptableLocales) {
-            if (acceptableLocale.getLanguage().equals(languageCode)) {
-                return acceptableLocale;
-            }
-        }
-        return null;
+        Locale bestMatch = localeIndex.get(locale);
+        return (bestMatch != null) ? bestMatch : languageIndex.get(locale.getLanguage());
     }
 
     /**
@@ -86,20 +145,127 @@ public class AcceptableLocales implements Provider<Collection<Locale>> {
         return (bestMatch != null) ? bestMatch : defaultLocale;
     }
 
+    /**
+     * Determines the best match for the specified HTTP {@code Accept-Language}
+     * header (e.g., "da, en-gb;q=0.8, en;q=0.7"). Language ranges are tried in
+     * order of their quality values. Each range is resolved by the RFC 4647
+     * "lookup" scheme and, failing that, by language as in
+     * {@link #match(Locale)}. Ranges with a zero quality value are never
+     * matched. Malformed headers have no match.
+     *
+     * @param acceptLanguage the header value
+     * @return the best matched locale if found; otherwise {@code null}
+     * @throws NullPointerException if the header is {@code null}
+     * @see #match(String, Locale)
+     * @see #filter(String)
+     */
+    public Locale match(String acceptLanguage) {
+        Locale bestMatch = headerCache.get(acceptLanguage);
+        if (bestMatch == null) {
+            bestMatch = lookup(acceptLanguage);
+            if (headerCache.size() >= MAX_CACHED_HEADERS) {
+                headerCache.clear();
+            }
+            headerCache.put(acceptLanguage, (bestMatch != null) ? bestMatch : NO_MATCH);
+        } else if (bestMatch == NO_MATCH) {
+            bestMatch = null;
+        }
+        return bestMatch;
+    }
+
+    /**
+     * Determines the best match for the specified HTTP {@code Accept-Language}
+     * header, or fallbacks to the default locale if not found.
+     *
+     * @param acceptLanguage the header value
+     * @param defaultLocale the fallback locale
+     * @return the best matched locale if found; otherwise the specified default
+     * @throws NullPointerException if the header is {@code null}
+     * @see #match(String)
+     */
+    public Locale match(String acceptLanguage, Locale defaultLocale) {
+        Locale bestMatch = match(acceptLanguage);
+        return (bestMatch != null) ? bestMatch : defaultLocale;
+    }
+
+    /**
+     * Uncached resolution of the specified header.
+     *
+     * @param acceptLanguage the header value
+     * @return the best matched locale or {@code null}
+     * @see #match(String)
+     */
+    private Locale lookup(String acceptLanguage) {
+        List<LanguageRange> ranges;
+        try {
+            ranges = LanguageRange.parse(acceptLanguage);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+
+        // Languages explicitly marked "not acceptable" by the client
+        Set<String> excluded = new HashSet<>();
+        for (LanguageRange range : ranges) {
+            if (range.getWeight() == 0.0) {
+                excluded.add(primaryLanguage(range));
+            }
+        }
+
+        // The ranges are already sorted by descending weight
+        for (LanguageRange range : ranges) {
+            if (range.getWeight() == 0.0) {
+                break;
+            }
+            if (WILDCARD_RANGE.equals(range.getRange())) {
+                for (Locale locale : acceptableLocales) {
+                    if (!excluded.contains(locale.getLanguage())) {
+                        return locale;
+                    }
+                }
+                continue;
+            }
+            Locale bestMatch = Locale.lookup(Collections.singletonList(range), acceptableLocales);
+            if (bestMatch == null) {
+                bestMatch = languageIndex.get(primaryLanguage(range));
+            }
+            if (bestMatch != null) {
+                return bestMatch;
+            }
+        }
+
+        return null;
+    }
+
     /**
      * Decomposes the specified comma-delimited string of locale codes into
      * {@link Locale} instances for this object.
      *
      * @param locales the string of locale codes.
+     * @return the list of parsed locales
      */
-    private void parseLocales(String locales) {
+    private static List<Locale> parseLocales(String locales) {
         String[] localeCodes = locales.split(" ");
+        List<Locale> list = new ArrayList<>(localeCodes.length);
         for (String localeCode : localeCodes) {
             Locale locale = LocaleStringUtils.parseLocaleString(localeCode);
             if (locale != null) {
-                acceptableLocales.add(locale);
+                list.add(locale);
             }
         }
+        return list;
+    }
+
+    /**
+     * Extracts the primary language subtag of the specified range normalized
+     * in the same manner as {@link Locale#getLanguage()}.
+     *
+     * @param range the language range
+     * @return the language code
+     */
+    private static String primaryLanguage(LanguageRange range) {
+        String tag = range.getRange();
+        int dash = tag.indexOf('-');
+        return new Locale((dash == -1) ? tag : tag.substring(0, dash)).getLanguage();
     }
 
-}
\ No newline at end of file
+}
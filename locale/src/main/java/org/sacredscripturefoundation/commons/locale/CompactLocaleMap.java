@@ -0,0 +1,336 @@
+/*
+ * Copyright (c) 2014 Sacred Scripture Foundation.
+ * "All scripture is given by inspiration of God, and is profitable for
+ * doctrine, for reproof, for correction, for instruction in righteousness:
+ * That the man of God may be perfect, throughly furnished unto all good
+ * works." (2 Tim 3:16-17)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sacredscripturefoundation.commons.locale;
+
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * This class is a memory-compact map keyed by locale. Localized objects
+ * typically hold content for only a handful of locales, for which a
+ * {@link HashMap} (table, entry objects, cached views) is mostly overhead.
+ * Until the {@link #THRESHOLD threshold} is exceeded, the mappings are kept in
+ * two parallel arrays sized to fit and searched linearly; beyond it, the map
+ * switches to a {@code HashMap} permanently.
+ * <p>
+ * Keys are interned when stored, so equal locales across many maps share one
+ * {@code Locale} instance and lookups usually succeed on identity. Keys cannot
+ * be {@code null}; values can. Like {@code HashMap}, this class is not
+ * thread-safe and its iteration order is unspecified.
+ *
+ * @param <V> the value type
+ * @author Paul Benedict
+ * @see org.sacredscripturefoundation.commons.locale.entity.CompactLocalizableContainer
+ * @since 1.0
+ */
+public class CompactLocaleMap<V> extends AbstractMap<Locale, V> implements Serializable {
+
+    /**
+     * The maximum number of mappings kept in the arrays.
+     */
+    public static final int THRESHOLD = 8;
+
+    private static final int MAX_INTERNED = 1024;
+
+    private static final String MSG_KEY_NULL = "Locale is required";
+
+    private static final Locale[] EMPTY_KEYS = {};
+    private static final Object[] EMPTY_VALUES = {};
+
+    private static final ConcurrentMap<Locale, Locale> interned = new ConcurrentHashMap<>();
+
+    /**
+     * Retrieves the canonical instance of the specified locale.
+     *
+     * @param locale the locale
+     * @return the shared locale equal to the specified locale
+     */
+    static Locale intern(Locale locale) {
+        Locale canonical = interned.get(locale);
+        if (canonical == null) {
+            if (interned.size() >= MAX_INTERNED) {
+                return locale;
+            }
+            canonical = interned.putIfAbsent(locale, locale);
+            if (canonical == null) {
+                canonical = locale;
+            }
+        }
+        return canonical;
+    }
+
+    private Locale[] keys;
+    private Object[] values;
+    private int size;
+    private HashMap<Locale, V> map;
+    private transient int modCount;
+    private transient Set<Map.Entry<Locale, V>> entrySet;
+
+    /**
+     * Constructs a new empty map. No arrays are allocated until the first
+     * mapping is stored.
+     */
+    public CompactLocaleMap() {
+        keys = EMPTY_KEYS;
+        values = EMPTY_VALUES;
+    }
+
+    /**
+     * Constructs a new map with the mappings of the specified map.
+     *
+     * @param m the map to copy
+     * @throws NullPointerException if any key is {@code null}
+     */
+    public CompactLocaleMap(Map<Locale, ? extends V> m) {
+        this();
+        putAll(m);
+    }
+
+    @Override
+    public void clear() {
+        keys = EMPTY_KEYS;
+        values = EMPTY_VALUES;
+        size = 0;
+        map = null;
+        modCount++;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        if (map != null) {
+            return map.containsKey(key);
+        }
+        return indexOf(key) >= 0;
+    }
+
+    @Override
+    public Set<Map.Entry<Locale, V>> entrySet() {
+        if (map != null) {
+            return map.entrySet();
+        }
+        if (entrySet == null) {
+            entrySet = new EntrySet();
+        }
+        return entrySet;
+    }
+
+    @Override
+    public V get(Object key) {
+        if (map != null) {
+            return map.get(key);
+        }
+        int i = indexOf(key);
+        return (i >= 0) ? value(i) : null;
+    }
+
+    private int indexOf(Object key) {
+        // Interned keys usually match on identity
+        for (int i = 0; i < size; i++) {
+            if (keys[i] == key) {
+                return i;
+            }
+        }
+        if (key instanceof Locale) {
+            for (int i = 0; i < size; i++) {
+                if (keys[i].equals(key)) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @throws NullPointerException if the key is {@code null}
+     */
+    @Override
+    public V put(Locale key, V value) {
+        Objects.requireNonNull(key, MSG_KEY_NULL);
+        if (map != null) {
+            return map.put(intern(key), value);
+        }
+
+        int i = indexOf(key);
+        if (i >= 0) {
+            V old = value(i);
+            values[i] = value;
+            return old;
+        }
+
+        if (size == THRESHOLD) {
+            map = new HashMap<>();
+            for (i = 0; i < size; i++) {
+                map.put(keys[i], value(i));
+            }
+            keys = EMPTY_KEYS;
+            values = EMPTY_VALUES;
+            size = 0;
+            modCount++;
+            return map.put(intern(key), value);
+        }
+
+        if (size == keys.length) {
+            int capacity = Math.min(Math.max(size * 2, 1), THRESHOLD);
+            keys = Arrays.copyOf(keys, capacity);
+            values = Arrays.copyOf(values, capacity);
+        }
+        keys[size] = intern(key);
+        values[size] = value;
+        size++;
+        modCount++;
+        return null;
+    }
+
+    @Override
+    public V remove(Object key) {
+        if (map != null) {
+            return map.remove(key);
+        }
+        int i = indexOf(key);
+        if (i < 0) {
+            return null;
+        }
+        V old = value(i);
+        removeAt(i);
+        return old;
+    }
+
+    private void removeAt(int i) {
+        int tail = size - i - 1;
+        if (tail > 0) {
+            System.arraycopy(keys, i + 1, keys, i, tail);
+            System.arraycopy(values, i + 1, values, i, tail);
+        }
+        size--;
+        keys[size] = null;
+        values[size] = null;
+        modCount++;
+    }
+
+    @Override
+    public int size() {
+        return (map != null) ? map.size() : size;
+    }
+
+    @SuppressWarnings("unchecked")
+    private V value(int i) {
+        return (V) values[i];
+    }
+
+    /**
+     * View of the array-backed mappings.
+     */
+    private final class EntrySet extends AbstractSet<Map.Entry<Locale, V>> {
+
+        @Override
+        public void clear() {
+            CompactLocaleMap.this.clear();
+        }
+
+        @Override
+        public Iterator<Map.Entry<Locale, V>> iterator() {
+            if (map != null) {
+                return map.entrySet().iterator();
+            }
+            return new EntryIterator();
+        }
+
+        @Override
+        public int size() {
+            return CompactLocaleMap.this.size();
+        }
+
+    }
+
+    /**
+     * Iterator over the array-backed mappings.
+     */
+    private final class EntryIterator implements Iterator<Map.Entry<Locale, V>> {
+
+        private int next;
+        private int last = -1;
+        private int expectedModCount = modCount;
+
+        @Override
+        public boolean hasNext() {
+            return next < size;
+        }
+
+        @Override
+        public Map.Entry<Locale, V> next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (next >= size) {
+                throw new NoSuchElementException();
+            }
+            last = next++;
+            return new ArrayEntry(last);
+        }
+
+        @Override
+        public void remove() {
+            if (last < 0) {
+                throw new IllegalStateException();
+            }
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            removeAt(last);
+            next = last;
+            last = -1;
+            expectedModCount = modCount;
+        }
+
+    }
+
+    /**
+     * Entry which writes through to the value array.
+     */
+    private final class ArrayEntry extends SimpleEntry<Locale, V> {
+
+        private final int index;
+
+        ArrayEntry(int index) {
+            super(keys[index], value(index));
+            this.index = index;
+        }
+
+        @Override
+        public V setValue(V value) {
+            values[index] = value;
+            return super.setValue(value);
+        }
+
+    }
+
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2014 Sacred Scripture Foundation.
+ * "All scripture is given by inspiration of God, and is profitable for
+ * doctrine, for reproof, for correction, for instruction in righteousness:
+ * That the man of God may be perfect, throughly furnished unto all good
+ * works." (2 Tim 3:16-17)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sacredscripturefoundation.commons.locale;
+
+import java.util.Objects;
+import java.util.concurrent.Executor;
+
+/**
+ * This class is an executor that propagates the submitter's locale to the
+ * tasks it executes. It decorates any executor, including thread pools and
+ * virtual-thread executors, and can be passed to the asynchronous methods of
+ * {@code CompletableFuture}.
+ *
+ * @author Paul Benedict
+ * @see LocaleContextHolder#wrap(Runnable)
+ * @since 1.0
+ */
+public class LocaleContextExecutor implements Executor {
+
+    private static final String MSG_DELEGATE_NULL = "Delegate executor is required";
+
+    private final Executor delegate;
+
+    /**
+     * Constructs a new executor decorating the specified executor.
+     *
+     * @param delegate the executor which runs the tasks
+     * @throws NullPointerException if the delegate is {@code null}
+     */
+    public LocaleContextExecutor(Executor delegate) {
+        this.delegate = Objects.requireNonNull(delegate, MSG_DELEGATE_NULL);
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        delegate.execute(LocaleContextHolder.wrap(command));
+    }
+
+}
@@ -20,17 +20,151 @@
 package org.sacredscripturefoundation.commons.locale;
 
 import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.Callable;
 
+/**
+ * This class holds the locale of the current thread. The locale does not
+ * follow work handed off to other threads (executors, completable futures,
+ * virtual threads); such work must be {@link #wrap(Runnable) wrapped} or
+ * submitted through a {@link LocaleContextExecutor} so the caller's locale is
+ * installed for the duration of the task and removed afterwards.
+ * <p>
+ * Threads that are pooled should establish the locale with
+ * {@link #openScope(Locale)} so that it cannot leak into the next unit of work:
+ *
+ * <pre>
+ * try (LocaleContextHolder.Scope scope = LocaleContextHolder.openScope(locale)) {
+ *     render();
+ * }
+ * </pre>
+ *
+ * @author Paul Benedict
+ * @see LocaleContextExecutor
+ * @since 1.0
+ */
 public class LocaleContextHolder {
 
+    /**
+     * Retrieves the locale of the current thread.
+     *
+     * @return the locale or {@code null}
+     * @see #setLocale(Locale)
+     */
     public static Locale getLocale() {
         return holder.get();
     }
 
+    /**
+     * Installs the specified locale for the current thread until the returned
+     * scope is closed, at which point the previous locale (if any) is
+     * restored.
+     *
+     * @param locale the locale (can be {@code null})
+     * @return the scope to close
+     * @see #setLocale(Locale)
+     */
+    public static Scope openScope(Locale locale) {
+        Scope scope = new Scope(holder.get());
+        setLocale(locale);
+        return scope;
+    }
+
+    /**
+     * Removes the locale of the current thread.
+     *
+     * @see #setLocale(Locale)
+     */
+    public static void resetLocale() {
+        holder.remove();
+    }
+
+    /**
+     * Stores the locale of the current thread. Storing {@code null} is the
+     * same as {@link #resetLocale() resetting} the locale.
+     *
+     * @param locale the locale (can be {@code null})
+     * @see #getLocale()
+     * @see #openScope(Locale)
+     */
     public static void setLocale(Locale locale) {
-        holder.set(locale);
+        if (locale != null) {
+            holder.set(locale);
+        } else {
+            holder.remove();
+        }
+    }
+
+    /**
+     * Captures the locale of the current thread and returns a task that
+     * executes the specified task with that locale, on whichever thread it is
+     * later run.
+     *
+     * @param <V> the result type
+     * @param task the task to wrap
+     * @return the locale-propagating task
+     * @throws NullPointerException if the task is {@code null}
+     * @see #wrap(Runnable)
+     */
+    public static <V> Callable<V> wrap(final Callable<V> task) {
+        Objects.requireNonNull(task);
+        final Locale locale = holder.get();
+        return new Callable<V>() {
+            @Override
+            public V call() throws Exception {
+                try (Scope scope = openScope(locale)) {
+                    return task.call();
+                }
+            }
+        };
+    }
+
+    /**
+     * Captures the locale of the current thread and returns a task that
+     * executes the specified task with that locale, on whichever thread it is
+     * later run.
+     *
+     * @param task the task to wrap
+     * @return the locale-propagating task
+     * @throws NullPointerException if the task is {@code null}
+     * @see #wrap(Callable)
+     */
+    public static Runnable wrap(final Runnable task) {
+        Objects.requireNonNull(task);
+        final Locale locale = holder.get();
+        return new Runnable() {
+            @Override
+            public void run() {
+                try (Scope scope = openScope(locale)) {
+                    task.run();
+                }
+            }
+        };
     }
 
     private static ThreadLocal<Locale> holder = new ThreadLocal<>();
 
+    /**
+     * This class restores the previous locale of the thread when closed.
+     *
+     * @see LocaleContextHolder#openScope(Locale)
+     */
+    public static final class Scope implements AutoCloseable {
+
+        private final Locale previous;
+
+        private Scope(Locale previous) {
+            this.previous = previous;
+        }
+
+        /**
+         * Restores the locale that was current when this scope was opened.
+         */
+        @Override
+        public void close() {
+            setLocale(previous);
+        }
+
+    }
+
 }
@@ -51,40 +51,50 @@ import java.util.Locale;
  */
 abstract class LocaleStringUtils {
 
+    /**
+     * The number of slots in the cache of recently parsed locales. Must be a
+     * power of two.
+     */
+    private static final int CACHE_SIZE = 64;
+
+    private static final String MSG_INVALID_CHARS = "Locale part \"%s\" contains invalid characters";
+
+    /**
+     * Direct-mapped cache of recently parsed locales. Slots are replaced
+     * without locking; a lost update merely costs a re-parse because each
+     * entry is immutable.
+     */
+    private static final ParsedLocale[] cache = new ParsedLocale[CACHE_SIZE];
+
     /**
      * Parse the given <code>localeString</code> value into a {@link Locale}.
      * <p>
      * This is the inverse operation of {@link Locale#toString Locale's
-     * toString}.
+     * toString}. The string is scanned once and recently parsed strings are
+     * answered from a small cache, which also means identical strings
+     * commonly resolve to the same {@code Locale} instance.
      *
      * @param localeString the locale string, following <code>Locale's</code>
      * <code>toString()</code> format ("en", "en_UK", etc); also accepts spaces
      * as separators, as an alternative to underscores
-     * @return a corresponding <code>Locale</code> instance
+     * @return a corresponding <code>Locale</code> instance or {@code null} if
+     * there is no language
+     * @throws IllegalArgumentException if the language or country contain
+     * characters other than letters and digits
+     * @throws NullPointerException if the string is {@code null}
      */
     public static Locale parseLocaleString(String localeString) {
-        String[] parts = localeString.split("_");
-        String language = (parts.length > 0 ? parts[0] : "");
-        String country = (parts.length > 1 ? parts[1] : "");
-        validateLocalePart(language);
-        validateLocalePart(country);
-        String variant = "";
-        if (parts.length >= 2) {
-            // There is definitely a variant, and it is everything after the
-            // country
-            // code sans the separator between the country code and the variant.
-            int endIndexOfCountryCode = localeString.indexOf(country) + country.length();
-            // Strip off any leading '_' and whitespace, what's left is the
-            // variant.
-            variant = localeString.substring(endIndexOfCountryCode).trim();
-            if (variant.startsWith("_")) {
-                int afterVariantIndex = variant.indexOf("_");
-                if (afterVariantIndex >= 0) {
-                    variant = variant.substring(afterVariantIndex);
-                }
-            }
+        int slot = localeString.hashCode() & (CACHE_SIZE - 1);
+        ParsedLocale parsed = cache[slot];
+        if (parsed != null && parsed.localeString.equals(localeString)) {
+            return parsed.locale;
         }
-        return (language.length() > 0 ? new Locale(language, country, variant) : null);
+
+        Locale locale = parse(localeString);
+        if (locale != null) {
+            cache[slot] = new ParsedLocale(localeString, locale);
+        }
+        return locale;
     }
 
     /**
@@ -103,13 +113,88 @@ abstract class LocaleStringUtils {
         return sb.toString();
     }
 
-    private static void validateLocalePart(String localePart) {
-        for (int i = 0; i < localePart.length(); i++) {
-            char ch = localePart.charAt(i);
-            if (ch != '_' && ch != ' ' && !Character.isLetterOrDigit(ch)) {
-                throw new IllegalArgumentException("Locale part \"" + localePart + "\" contains invalid characters");
+    private static boolean isSeparator(char ch) {
+        return (ch == '_' || ch == ' ');
+    }
+
+    private static boolean isVariantPadding(char ch) {
+        return isSeparator(ch) || Character.isWhitespace(ch);
+    }
+
+    /**
+     * Uncached single-pass parse of the specified string. The language and
+     * country are validated as they are scanned; the variant is everything
+     * after the country sans leading separators and surrounding whitespace.
+     *
+     * @param localeString the locale string
+     * @return the locale or {@code null} if there is no language
+     * @see #parseLocaleString(String)
+     */
+    static Locale parse(String localeString) {
+        int len = localeString.length();
+        int languageEnd = scanPart(localeString, 0, len);
+        int countryStart = Math.min(languageEnd + 1, len);
+        int countryEnd = scanPart(localeString, countryStart, len);
+        if (languageEnd == 0) {
+            return null;
+        }
+
+        int variantStart = countryEnd;
+        while (variantStart < len && isVariantPadding(localeString.charAt(variantStart))) {
+            variantStart++;
+        }
+        int variantEnd = len;
+        while (variantEnd > variantStart && Character.isWhitespace(localeString.charAt(variantEnd - 1))) {
+            variantEnd--;
+        }
+
+        String language = localeString.substring(0, languageEnd);
+        String country = localeString.substring(countryStart, countryEnd);
+        String variant = localeString.substring(variantStart, variantEnd);
+        return new Locale(language, country, variant);
+    }
+
+    /**
+     * Scans the locale part beginning at the specified index up to the next
+     * separator.
+     *
+     * @param s the locale string
+     * @param begin the beginning index of the part
+     * @param len the length of the string
+     * @return the index of the next separator or the string length
+     * @throws IllegalArgumentException if the part contains characters other
+     * than letters and digits
+     */
+    private static int scanPart(String s, int begin, int len) {
+        for (int i = begin; i < len; i++) {
+            char ch = s.charAt(i);
+            if (isSeparator(ch)) {
+                return i;
+            }
+            if (!Character.isLetterOrDigit(ch)) {
+                int end = i;
+                while (end < len && !isSeparator(s.charAt(end))) {
+                    end++;
+                }
+                throw new IllegalArgumentException(String.format(MSG_INVALID_CHARS, s.substring(begin, end)));
             }
         }
+        return len;
+    }
+
+    /**
+     * Immutable cache entry of a parsed locale string.
+     */
+    private static final class ParsedLocale {
+
+        final String localeString;
+        final Locale locale;
+
+        ParsedLocale(String localeString, Locale locale) {
+            this.localeString = localeString;
+            this.locale = locale;
+        }
+
     }
 
 }
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2014 Sacred Scripture Foundation.
+ * "All scripture is given by inspiration of God, and is profitable for
+ * doctrine, for reproof, for correction, for instruction in righteousness:
+ * That the man of God may be perfect, throughly furnished unto all good
+ * works." (2 Tim 3:16-17)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sacredscripturefoundation.commons.locale.entity;
+
+import org.sacredscripturefoundation.commons.locale.CompactLocaleMap;
+import org.sacredscripturefoundation.commons.locale.LocaleProvider;
+
+import java.io.Serializable;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * This class is a memory-compact, standalone container of localized content.
+ * It is intended for cache layers that retain many localized objects, each of
+ * which usually has content for only a few locales. The content is stored in a
+ * {@link CompactLocaleMap}.
+ * <p>
+ * Subclasses of {@link LocalizableEntity} can obtain the same savings for
+ * unmanaged (e.g., cached or detached) instances by returning a
+ * {@code CompactLocaleMap} from {@link #getLocalizedContents()}; a persistence
+ * provider will substitute its own collection for managed instances.
+ *
+ * @param <L> the localized content type
+ * @author Paul Benedict
+ * @see LocalizableEntity
+ * @since 1.0
+ */
+public class CompactLocalizableContainer<L extends LocaleProvider> implements LocalizableContainer<L>, Serializable {
+
+    private static final String MSG_CONTENT_NULL = "Content is required";
+    private static final String MSG_CONTENT_LOCALE_NULL = "Content's locale is required";
+    private static final String MSG_LOCALE_NULL = "Locale is required";
+
+    private final CompactLocaleMap<L> contents;
+
+    /**
+     * Constructs a new empty container.
+     */
+    public CompactLocalizableContainer() {
+        contents = new CompactLocaleMap<>();
+    }
+
+    /**
+     * Constructs a new container with a copy of the contents of the specified
+     * container.
+     *
+     * @param container the container to copy
+     * @throws NullPointerException if the container is {@code null}
+     */
+    public CompactLocalizableContainer(LocalizableContainer<L> container) {
+        contents = new CompactLocaleMap<>(container.getLocalizedContents());
+    }
+
+    @Override
+    public void addLocalizedContent(L content) {
+        Objects.requireNonNull(content, MSG_CONTENT_NULL);
+        Objects.requireNonNull(content.getLocale(), MSG_CONTENT_LOCALE_NULL);
+        contents.put(content.getLocale(), content);
+    }
+
+    @Override
+    public Map<Locale, L> getLocalizedContents() {
+        return contents;
+    }
+
+    @Override
+    public Set<Locale> locales() {
+        return contents.keySet();
+    }
+
+    @Override
+    public L localize(Locale locale) {
+        return contents.get(Objects.requireNonNull(locale, MSG_LOCALE_NULL));
+    }
+
+    @Override
+    public boolean supportsLocale(Locale locale) {
+        return contents.containsKey(locale);
+    }
+
+}
@@ -20,21 +20,68 @@
 package org.sacredscripturefoundation.commons.locale.entity;
 
 import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import javax.persistence.AttributeConverter;
 import javax.persistence.Converter;
 
+/**
+ * This class converts a {@link Locale} to and from its IETF BCP 47 language
+ * tag for persistence.
+ * <p>
+ * Large result sets contain few distinct locales, so both directions of the
+ * conversion are cached in bounded maps shared by all converter instances.
+ * Identical tags therefore resolve to one shared {@code Locale} instance
+ * rather than a new instance per row.
+ *
+ * @author Paul Benedict
+ * @see Locale#forLanguageTag(String)
+ * @see Locale#toLanguageTag()
+ * @since 1.0
+ */
 @Converter
 public class LocaleLanguageConverter implements AttributeConverter<Locale, String> {
 
+    /**
+     * The maximum number of entries of each cache. Once exceeded, the cache is
+     * emptied and rebuilt on demand.
+     */
+    private static final int MAX_CACHE_SIZE = 512;
+
+    private static final ConcurrentMap<String, Locale> locales = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<Locale, String> tags = new ConcurrentHashMap<>();
+
+    private static <K, V> V cache(ConcurrentMap<K, V> map, K key, V value) {
+        if (map.size() >= MAX_CACHE_SIZE) {
+            map.clear();
+        }
+        V existing = map.putIfAbsent(key, value);
+        return (existing != null) ? existing : value;
+    }
+
     @Override
     public String convertToDatabaseColumn(Locale attribute) {
-        return attribute.toLanguageTag();
+        if (attribute == null) {
+            return null;
+        }
+        String tag = tags.get(attribute);
+        if (tag == null) {
+            tag = cache(tags, attribute, attribute.toLanguageTag());
+        }
+        return tag;
     }
 
     @Override
     public Locale convertToEntityAttribute(String dbData) {
-        return (dbData != null) ? Locale.forLanguageTag(dbData) : null;
+        if (dbData == null) {
+            return null;
+        }
+        Locale locale = locales.get(dbData);
+        if (locale == null) {
+            locale = cache(locales, dbData, Locale.forLanguageTag(dbData));
+        }
+        return locale;
     }
 
 }
@@ -35,11 +35,17 @@ import javax.persistence.MappedSuperclass;
  * {@link String} objects but it doesn't have to be the case. A {@link Map}
  * holds the association of {@link Locale} language constants to its
  * translation.
+ * <p>
+ * Most entities carry content for only a few locales. Subclasses that keep
+ * many unmanaged instances in memory may return a
+ * {@link org.sacredscripturefoundation.commons.locale.CompactLocaleMap} from
+ * {@link #getLocalizedContents()} to reduce the heap footprint.
  *
  * @param <ID> the type of primary key
  * @param <L> the type of localized content
  * @author Paul Benedict
  * @see LocalizedContentEntityTest
+ * @see CompactLocalizableContainer
  * @since 1.0
  */
 @MappedSuperclass
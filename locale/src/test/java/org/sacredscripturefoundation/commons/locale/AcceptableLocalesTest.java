@@ -27,11 +27,13 @@ import static java.util.Locale.UK;
 import static java.util.Locale.US;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 
 import org.sacredscripturefoundation.commons.locale.AcceptableLocales;
 
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Locale;
 
 import org.junit.Test;
@@ -59,6 +61,84 @@ public class AcceptableLocalesTest {
         assertEquals(SIMPLIFIED_CHINESE, i.next());
     }
 
+    /**
+     * Verifies the RFC 4647 filtering of a header.
+     */
+    @Test
+    public void testFilterHeader() {
+        AcceptableLocales a = new AcceptableLocales("en_US en_GB fr");
+        List<Locale> list = a.filter("en;q=0.8, fr");
+        assertEquals(3, list.size());
+        assertEquals(FRENCH, list.get(0));
+    }
+
+    /**
+     * Verifies an exact locale is preferred over a language match.
+     */
+    @Test
+    public void testMatchExact() {
+        AcceptableLocales a = new AcceptableLocales("en_US en_GB");
+        assertEquals(US, a.match(US));
+        assertEquals(UK, a.match(UK));
+        assertEquals(US, a.match(ENGLISH));
+    }
+
+    /**
+     * Verifies the header ranges are honored by their quality values.
+     */
+    @Test
+    public void testMatchHeader() {
+        AcceptableLocales a = new AcceptableLocales("en fr de");
+        assertEquals(FRENCH, a.match("da, fr;q=0.8, en;q=0.7"));
+        assertEquals(ENGLISH, a.match("de;q=0.5, en-GB;q=0.9"));
+        assertEquals(GERMAN, a.match("de-CH"));
+        assertNull(a.match("da, zh"));
+    }
+
+    /**
+     * Verifies the repeated matching of a header returns the cached result.
+     */
+    @Test
+    public void testMatchHeaderCached() {
+        AcceptableLocales a = new AcceptableLocales("en_US fr");
+        Locale first = a.match("en-GB, fr;q=0.5");
+        assertEquals(US, first);
+        assertSame(first, a.match("en-GB, fr;q=0.5"));
+        assertNull(a.match("da"));
+        assertNull(a.match("da"));
+    }
+
+    /**
+     * Verifies the ranges with a zero quality value are never matched.
+     */
+    @Test
+    public void testMatchHeaderExcluded() {
+        AcceptableLocales a = new AcceptableLocales("en fr");
+        assertEquals(FRENCH, a.match("en;q=0, *;q=0.1"));
+        assertNull(a.match("en;q=0"));
+    }
+
+    /**
+     * Verifies a malformed header has no match.
+     */
+    @Test
+    public void testMatchHeaderMalformed() {
+        AcceptableLocales a = new AcceptableLocales("en");
+        assertNull(a.match("en;q=2"));
+        assertEquals(FRENCH, a.match("en;q=2", FRENCH));
+    }
+
+    /**
+     * Verifies the header specificity is matched by the RFC 4647 lookup.
+     */
+    @Test
+    public void testMatchHeaderSpecific() {
+        AcceptableLocales a = new AcceptableLocales("en_US en_GB zh_CN");
+        assertEquals(UK, a.match("en-GB"));
+        assertEquals(US, a.match("en-AU"));
+        assertEquals(SIMPLIFIED_CHINESE, a.match("zh-CN;q=0.9"));
+    }
+
     /**
      * Verifies the match of locales.
      */
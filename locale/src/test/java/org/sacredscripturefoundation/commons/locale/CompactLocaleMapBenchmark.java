@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2014 Sacred Scripture Foundation.
+ * "All scripture is given by inspiration of God, and is profitable for
+ * doctrine, for reproof, for correction, for instruction in righteousness:
+ * That the man of God may be perfect, throughly furnished unto all good
+ * works." (2 Tim 3:16-17)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sacredscripturefoundation.commons.locale;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * JMH benchmark of the memory footprint of {@link CompactLocaleMap} against
+ * {@link HashMap}. Each operation builds one map of localized content; run with
+ * the GC profiler (as {@link #main(String[])} does), the
+ * {@code gc.alloc.rate.norm} metric reports the bytes allocated per map, which
+ * approximates its retained size. The lookup benchmarks compare read cost.
+ *
+ * @author Paul Benedict
+ * @since 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompactLocaleMapBenchmark {
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(CompactLocaleMapBenchmark.class.getSimpleName()).addProfiler(GCProfiler.class).build()).run();
+    }
+
+    @Param({ "1", "3", "5", "12" })
+    public int localeCount;
+
+    private Locale[] locales;
+    private Map<Locale, String> compact;
+    private Map<Locale, String> hash;
+
+    @Benchmark
+    public Map<Locale, String> buildCompact() {
+        return fill(new CompactLocaleMap<String>());
+    }
+
+    @Benchmark
+    public Map<Locale, String> buildHash() {
+        return fill(new HashMap<Locale, String>());
+    }
+
+    private Map<Locale, String> fill(Map<Locale, String> map) {
+        for (Locale locale : locales) {
+            map.put(locale, "");
+        }
+        return map;
+    }
+
+    @Benchmark
+    public String getCompact() {
+        return compact.get(locales[locales.length - 1]);
+    }
+
+    @Benchmark
+    public String getHash() {
+        return hash.get(locales[locales.length - 1]);
+    }
+
+    @Setup
+    public void setUp() {
+        Locale[] available = Locale.getAvailableLocales();
+        locales = new Locale[localeCount];
+        System.arraycopy(available, 0, locales, 0, localeCount);
+        compact = fill(new CompactLocaleMap<String>());
+        hash = fill(new HashMap<Locale, String>());
+    }
+
+}
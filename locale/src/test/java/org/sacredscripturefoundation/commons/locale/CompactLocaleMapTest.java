@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2014 Sacred Scripture Foundation.
+ * "All scripture is given by inspiration of God, and is profitable for
+ * doctrine, for reproof, for correction, for instruction in righteousness:
+ * That the man of God may be perfect, throughly furnished unto all good
+ * works." (2 Tim 3:16-17)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sacredscripturefoundation.commons.locale;
+
+import static java.util.Locale.ENGLISH;
+import static java.util.Locale.FRENCH;
+import static java.util.Locale.GERMAN;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link CompactLocaleMap}.
+ *
+ * @author Paul Benedict
+ * @since 1.0
+ */
+public class CompactLocaleMapTest {
+
+    private static final Locale[] LOCALES = Locale.getAvailableLocales();
+
+    private CompactLocaleMap<String> map;
+
+    @Before
+    public void setUp() {
+        map = new CompactLocaleMap<>();
+    }
+
+    /**
+     * Verifies the map behaves as a {@link HashMap} beyond the threshold.
+     */
+    @Test
+    public void testBeyondThreshold() {
+        Map<Locale, String> expected = new HashMap<>();
+        for (int i = 0; i < CompactLocaleMap.THRESHOLD * 2; i++) {
+            map.put(LOCALES[i], LOCALES[i].toString());
+            expected.put(LOCALES[i], LOCALES[i].toString());
+        }
+        assertEquals(expected, map);
+        assertEquals(expected.hashCode(), map.hashCode());
+        assertEquals(LOCALES[0].toString(), map.remove(LOCALES[0]));
+        assertFalse(map.containsKey(LOCALES[0]));
+    }
+
+    /**
+     * Verifies clearing the map.
+     */
+    @Test
+    public void testClear() {
+        map.put(ENGLISH, "en");
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertNull(map.get(ENGLISH));
+    }
+
+    /**
+     * Verifies equal keys are interned to one instance.
+     */
+    @Test
+    public void testInternedKeys() {
+        CompactLocaleMap<String> other = new CompactLocaleMap<>();
+        map.put(new Locale("la"), "a");
+        other.put(new Locale("la"), "b");
+        assertSame(map.keySet().iterator().next(), other.keySet().iterator().next());
+    }
+
+    /**
+     * Verifies removal through the iterator.
+     */
+    @Test
+    public void testIteratorRemove() {
+        map.put(ENGLISH, "en");
+        map.put(FRENCH, "fr");
+        map.put(GERMAN, "de");
+        Iterator<Locale> i = map.keySet().iterator();
+        while (i.hasNext()) {
+            if (i.next().equals(FRENCH)) {
+                i.remove();
+            }
+        }
+        assertEquals(2, map.size());
+        assertEquals("en", map.get(ENGLISH));
+        assertEquals("de", map.get(GERMAN));
+    }
+
+    /**
+     * Verifies storing and retrieving below the threshold.
+     */
+    @Test
+    public void testPutAndGet() {
+        assertNull(map.put(ENGLISH, "en"));
+        assertNull(map.put(FRENCH, "fr"));
+        assertEquals("en", map.put(new Locale("en"), "EN"));
+        assertEquals(2, map.size());
+        assertEquals("EN", map.get(ENGLISH));
+        assertEquals("fr", map.get(new Locale("fr")));
+        assertNull(map.get(GERMAN));
+        assertNull(map.get("fr"));
+    }
+
+    /**
+     * Verifies the failure to store a {@code null} key.
+     */
+    @Test(expected = NullPointerException.class)
+    public void testPutNullKey() {
+        map.put(null, "x");
+    }
+
+    /**
+     * Verifies removing a mapping below the threshold.
+     */
+    @Test
+    public void testRemove() {
+        map.put(ENGLISH, "en");
+        map.put(FRENCH, "fr");
+        assertEquals("en", map.remove(ENGLISH));
+        assertNull(map.remove(ENGLISH));
+        assertEquals(1, map.size());
+        assertEquals("fr", map.get(FRENCH));
+    }
+
+    /**
+     * Verifies the entry values write through to the map.
+     */
+    @Test
+    public void testSetValue() {
+        map.put(ENGLISH, "en");
+        map.entrySet().iterator().next().setValue("EN");
+        assertEquals("EN", map.get(ENGLISH));
+    }
+
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2014 Sacred Scripture Foundation.
+ * "All scripture is given by inspiration of God, and is profitable for
+ * doctrine, for reproof, for correction, for instruction in righteousness:
+ * That the man of God may be perfect, throughly furnished unto all good
+ * works." (2 Tim 3:16-17)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sacredscripturefoundation.commons.locale;
+
+import static java.util.Locale.ENGLISH;
+import static java.util.Locale.FRENCH;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link LocaleContextHolder} and
+ * {@link LocaleContextExecutor}.
+ *
+ * @author Paul Benedict
+ * @since 1.0
+ */
+public class LocaleContextHolderTest {
+
+    @After
+    public void tearDown() {
+        LocaleContextHolder.resetLocale();
+    }
+
+    /**
+     * Verifies the executor propagates the submitter's locale and the pooled
+     * thread does not retain it afterwards.
+     */
+    @Test
+    public void testExecutor() throws Exception {
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            final LocaleContextExecutor executor = new LocaleContextExecutor(pool);
+            final Locale[] seen = new Locale[1];
+            LocaleContextHolder.setLocale(FRENCH);
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    seen[0] = LocaleContextHolder.getLocale();
+                }
+            });
+            Future<Locale> leftover = pool.submit(new Callable<Locale>() {
+                @Override
+                public Locale call() {
+                    return LocaleContextHolder.getLocale();
+                }
+            });
+            assertNull(leftover.get());
+            assertEquals(FRENCH, seen[0]);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Verifies closing a scope restores the previous locale.
+     */
+    @Test
+    public void testOpenScope() {
+        LocaleContextHolder.setLocale(ENGLISH);
+        try (LocaleContextHolder.Scope scope = LocaleContextHolder.openScope(FRENCH)) {
+            assertEquals(FRENCH, LocaleContextHolder.getLocale());
+        }
+        assertEquals(ENGLISH, LocaleContextHolder.getLocale());
+    }
+
+    /**
+     * Verifies closing a scope removes the locale when there was none.
+     */
+    @Test
+    public void testOpenScopeWithoutPrevious() {
+        try (LocaleContextHolder.Scope scope = LocaleContextHolder.openScope(FRENCH)) {
+            assertEquals(FRENCH, LocaleContextHolder.getLocale());
+        }
+        assertNull(LocaleContextHolder.getLocale());
+    }
+
+    /**
+     * Verifies storing {@code null} removes the locale.
+     */
+    @Test
+    public void testSetLocaleNull() {
+        LocaleContextHolder.setLocale(ENGLISH);
+        LocaleContextHolder.setLocale(null);
+        assertNull(LocaleContextHolder.getLocale());
+    }
+
+    /**
+     * Verifies a wrapped task runs with the captured locale on another thread.
+     */
+    @Test
+    public void testWrapCallable() throws Exception {
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            LocaleContextHolder.setLocale(FRENCH);
+            Callable<Locale> task = LocaleContextHolder.wrap(new Callable<Locale>() {
+                @Override
+                public Locale call() {
+                    return LocaleContextHolder.getLocale();
+                }
+            });
+            LocaleContextHolder.setLocale(ENGLISH);
+            assertEquals(FRENCH, pool.submit(task).get());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Verifies a wrapped task run on the calling thread restores the caller's
+     * locale.
+     */
+    @Test
+    public void testWrapRunnableOnSameThread() {
+        LocaleContextHolder.setLocale(FRENCH);
+        Runnable task = LocaleContextHolder.wrap(new Runnable() {
+            @Override
+            public void run() {
+                assertEquals(FRENCH, LocaleContextHolder.getLocale());
+            }
+        });
+        LocaleContextHolder.setLocale(ENGLISH);
+        task.run();
+        assertEquals(ENGLISH, LocaleContextHolder.getLocale());
+    }
+
+}
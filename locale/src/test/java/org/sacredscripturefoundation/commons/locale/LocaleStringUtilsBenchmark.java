@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2014 Sacred Scripture Foundation.
+ * "All scripture is given by inspiration of God, and is profitable for
+ * doctrine, for reproof, for correction, for instruction in righteousness:
+ * That the man of God may be perfect, throughly furnished unto all good
+ * works." (2 Tim 3:16-17)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sacredscripturefoundation.commons.locale;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * JMH benchmark of {@link LocaleStringUtils#parseLocaleString(String)} against
+ * the original split-based implementation. The inputs are typical of locale
+ * codes found in configuration and request parameters.
+ *
+ * @author Paul Benedict
+ * @since 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LocaleStringUtilsBenchmark {
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(LocaleStringUtilsBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    /**
+     * The original implementation retained for comparison.
+     */
+    static Locale legacyParseLocaleString(String localeString) {
+        String[] parts = localeString.split("_");
+        String language = (parts.length > 0 ? parts[0] : "");
+        String country = (parts.length > 1 ? parts[1] : "");
+        legacyValidateLocalePart(language);
+        legacyValidateLocalePart(country);
+        String variant = "";
+        if (parts.length >= 2) {
+            int endIndexOfCountryCode = localeString.indexOf(country) + country.length();
+            variant = localeString.substring(endIndexOfCountryCode).trim();
+            if (variant.startsWith("_")) {
+                int afterVariantIndex = variant.indexOf("_");
+                if (afterVariantIndex >= 0) {
+                    variant = variant.substring(afterVariantIndex);
+                }
+            }
+        }
+        return (language.length() > 0 ? new Locale(language, country, variant) : null);
+    }
+
+    private static void legacyValidateLocalePart(String localePart) {
+        for (int i = 0; i < localePart.length(); i++) {
+            char ch = localePart.charAt(i);
+            if (ch != '_' && ch != ' ' && !Character.isLetterOrDigit(ch)) {
+                throw new IllegalArgumentException("Locale part \"" + localePart + "\" contains invalid characters");
+            }
+        }
+    }
+
+    @Param({ "en", "en_US", "zh_CN", "es_ES_Traditional_WIN" })
+    public String localeString;
+
+    @Benchmark
+    public Locale legacy() {
+        return legacyParseLocaleString(localeString);
+    }
+
+    @Benchmark
+    public Locale singlePass() {
+        return LocaleStringUtils.parse(localeString);
+    }
+
+    @Benchmark
+    public Locale singlePassCached() {
+        return LocaleStringUtils.parseLocaleString(localeString);
+    }
+
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2014 Sacred Scripture Foundation.
+ * "All scripture is given by inspiration of God, and is profitable for
+ * doctrine, for reproof, for correction, for instruction in righteousness:
+ * That the man of God may be perfect, throughly furnished unto all good
+ * works." (2 Tim 3:16-17)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sacredscripturefoundation.commons.locale;
+
+import static java.util.Locale.ENGLISH;
+import static java.util.Locale.US;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.Locale;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link LocaleStringUtils}.
+ *
+ * @author Paul Benedict
+ * @since 1.0
+ */
+public class LocaleStringUtilsTest {
+
+    /**
+     * Verifies parsing a language and country.
+     */
+    @Test
+    public void testParseCountry() {
+        assertEquals(US, LocaleStringUtils.parseLocaleString("en_US"));
+        assertEquals(US, LocaleStringUtils.parseLocaleString("en US"));
+    }
+
+    /**
+     * Verifies the failure to parse a language with invalid characters.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testParseInvalidCharacters() {
+        LocaleStringUtils.parseLocaleString("en-US");
+    }
+
+    /**
+     * Verifies parsing a sole language.
+     */
+    @Test
+    public void testParseLanguage() {
+        assertEquals(ENGLISH, LocaleStringUtils.parseLocaleString("en"));
+        assertEquals(ENGLISH, LocaleStringUtils.parseLocaleString("en_"));
+    }
+
+    /**
+     * Verifies nothing is parsed without a language.
+     */
+    @Test
+    public void testParseNoLanguage() {
+        assertNull(LocaleStringUtils.parseLocaleString(""));
+        assertNull(LocaleStringUtils.parseLocaleString("_US"));
+    }
+
+    /**
+     * Verifies repeated parsing returns the cached instance.
+     */
+    @Test
+    public void testParseRepeated() {
+        Locale locale = LocaleStringUtils.parseLocaleString("fr_CA");
+        assertSame(locale, LocaleStringUtils.parseLocaleString("fr_CA"));
+    }
+
+    /**
+     * Verifies parsing the variant after the country.
+     */
+    @Test
+    public void testParseVariant() {
+        assertEquals(new Locale("en", "US", "POSIX"), LocaleStringUtils.parseLocaleString("en_US_POSIX"));
+        assertEquals(new Locale("en", "", "POSIX"), LocaleStringUtils.parseLocaleString("en__POSIX"));
+        assertEquals(new Locale("es", "ES", "Traditional_WIN"), LocaleStringUtils.parseLocaleString("es_ES_Traditional_WIN "));
+    }
+
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2014 Sacred Scripture Foundation.
+ * "All scripture is given by inspiration of God, and is profitable for
+ * doctrine, for reproof, for correction, for instruction in righteousness:
+ * That the man of God may be perfect, throughly furnished unto all good
+ * works." (2 Tim 3:16-17)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sacredscripturefoundation.commons.locale.entity;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Locale;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link CompactLocalizableContainer}.
+ *
+ * @author Paul Benedict
+ * @since 1.0
+ */
+public class CompactLocalizableContainerTest {
+
+    private CompactLocalizableContainer<MockLocalizedContentEntity> container;
+
+    @Before
+    public void setUp() {
+        container = new CompactLocalizableContainer<>();
+    }
+
+    /**
+     * Verifies adding and localizing content.
+     */
+    @Test
+    public void testAddAndLocalize() {
+        MockLocalizedContentEntity content = new MockLocalizedContentEntity(Locale.ENGLISH);
+        container.addLocalizedContent(content);
+        assertSame(content, container.localize(Locale.ENGLISH));
+        assertNull(container.localize(Locale.FRENCH));
+        assertTrue(container.supportsLocale(Locale.ENGLISH));
+        assertFalse(container.supportsLocale(Locale.FRENCH));
+        assertEquals(1, container.locales().size());
+    }
+
+    /**
+     * Verifies the error to add content that specifies a {@code null} locale.
+     */
+    @Test(expected = NullPointerException.class)
+    public void testAddWithNullLocale() {
+        container.addLocalizedContent(new MockLocalizedContentEntity());
+    }
+
+    /**
+     * Verifies copying the contents of another container.
+     */
+    @Test
+    public void testCopyConstructor() {
+        MockLocalizableEntity entity = new MockLocalizableEntity();
+        entity.addLocalizedContent(new MockLocalizedContentEntity(Locale.ENGLISH));
+        entity.addLocalizedContent(new MockLocalizedContentEntity(Locale.FRENCH));
+        container = new CompactLocalizableContainer<>(entity);
+        assertEquals(entity.getLocalizedContents(), container.getLocalizedContents());
+    }
+
+    /**
+     * Verifies the error to localize when the locale is {@code null}.
+     */
+    @Test(expected = NullPointerException.class)
+    public void testLocalizeWhenLocaleIsNull() {
+        container.localize(null);
+    }
+
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2014 Sacred Scripture Foundation.
+ * "All scripture is given by inspiration of God, and is profitable for
+ * doctrine, for reproof, for correction, for instruction in righteousness:
+ * That the man of God may be perfect, throughly furnished unto all good
+ * works." (2 Tim 3:16-17)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sacredscripturefoundation.commons.locale.entity;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.Locale;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link LocaleLanguageConverter}.
+ *
+ * @author Paul Benedict
+ * @since 1.0
+ */
+public class LocaleLanguageConverterTest {
+
+    private LocaleLanguageConverter converter;
+
+    @Before
+    public void setUp() {
+        converter = new LocaleLanguageConverter();
+    }
+
+    /**
+     * Verifies the conversion to a language tag.
+     */
+    @Test
+    public void testConvertToDatabaseColumn() {
+        assertEquals("en-US", converter.convertToDatabaseColumn(Locale.US));
+        assertEquals("en-US", converter.convertToDatabaseColumn(new Locale("en", "US")));
+    }
+
+    /**
+     * Verifies a {@code null} locale converts to {@code null}.
+     */
+    @Test
+    public void testConvertToDatabaseColumnNull() {
+        assertNull(converter.convertToDatabaseColumn(null));
+    }
+
+    /**
+     * Verifies the conversion from a language tag.
+     */
+    @Test
+    public void testConvertToEntityAttribute() {
+        assertEquals(Locale.CANADA_FRENCH, converter.convertToEntityAttribute("fr-CA"));
+    }
+
+    /**
+     * Verifies a {@code null} tag converts to {@code null}.
+     */
+    @Test
+    public void testConvertToEntityAttributeNull() {
+        assertNull(converter.convertToEntityAttribute(null));
+    }
+
+    /**
+     * Verifies identical tags share the same locale instance, even across
+     * converter instances.
+     */
+    @Test
+    public void testConvertToEntityAttributeShared() {
+        Locale locale = converter.convertToEntityAttribute("la");
+        assertSame(locale, converter.convertToEntityAttribute(new String("la")));
+        assertSame(locale, new LocaleLanguageConverter().convertToEntityAttribute("la"));
+    }
+
+}